@@ -4,6 +4,7 @@ import lists.List;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 public class DynamicArrayString implements DynamicString {
     private static final int DEFAULT_CAPACITY = 20;
@@ -417,9 +418,18 @@ public class DynamicArrayString implements DynamicString {
         return 0;
     }
 
+    /**
+     * Provides to get char by specified position
+     *
+     * @return char by position
+     * @throws ArrayIndexOutOfBoundsException if specified position out of string bounds
+     */
     @Override
     public char get(int pos) {
-        return 0;
+        if (pos < 0 || pos >= size) {
+            throw new ArrayIndexOutOfBoundsException("Specified position out of string bounds");
+        }
+        return data[pos];
     }
 
     @Override
@@ -445,7 +455,20 @@ public class DynamicArrayString implements DynamicString {
 
     @Override
     public Iterator<Character> iterator() {
-        return null;
+        return new Iterator<>() {
+            int pos = 0;
+
+            @Override
+            public boolean hasNext() {
+                return pos < size;
+            }
+
+            @Override
+            public Character next() {
+                if (pos >= size) throw new NoSuchElementException();
+                return data[pos++];
+            }
+        };
     }
 
 
@@ -0,0 +1,83 @@
+package hashtables;
+
+import lists.List;
+import lists.impl.ArrayList;
+
+/**
+ * HashTable with reverse index from values to their key-value pairs,
+ * so containsValue and getKeyByValue take O(1) instead of the whole table scan.
+ * Reverse index is updated by add, delete, deleteValue, replace, updateValue and the compute methods.
+ * Deletion of the pair takes time proportional to the count of pairs with the same value
+ */
+public class BiHashTable<K, V> extends HashTable<K, V> {
+
+    private static final Object NULL_VALUE = new Object();
+
+    private final HashTable<Object, Node<K, V>> reverse;
+
+    public BiHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BiHashTable(int capacity) {
+        super(capacity);
+        reverse = new HashTable<>(capacity);
+    }
+
+    private static Object reverseKey(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    @Override
+    boolean hasNodeHooks() {
+        return true;
+    }
+
+    @Override
+    void afterNodeInsertion(Node<K, V> node) {
+        reverse.add(reverseKey(node.value), node);
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        reverse.deleteValue(reverseKey(node.value), node);
+    }
+
+    @Override
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+        reverse.deleteValue(reverseKey(oldValue), node);
+        reverse.add(reverseKey(node.value), node);
+    }
+
+    /**
+     * Return if HashTable contains specified value, takes O(1)
+     */
+    @Override
+    public boolean containsValue(V value) {
+        return reverse.containsKey(reverseKey(value));
+    }
+
+    /**
+     * Returns key of the latest added pair with the specified value or null if value not found, takes O(1)
+     */
+    @Override
+    public K getKeyByValue(V value) {
+        Node<K, V> node = reverse.get(reverseKey(value));
+        return node == null ? null : node.key;
+    }
+
+    /**
+     * Returns keys of all the pairs with the specified value starting from the latest added pair
+     */
+    public List<K> getKeysByValue(V value) {
+        List<K> keys = new ArrayList<>();
+        reverse.forEachValueOf(reverseKey(value), node -> keys.add(node.key));
+        return keys;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        reverse.clear();
+    }
+}
@@ -0,0 +1,63 @@
+package hashtables;
+
+import additional.exceptions.NullableArgumentException;
+
+/**
+ * Mutable CharSequence view of the range of the char array.
+ * Reusable probe key for the tables with {@link HashingStrategy#CHAR_SEQUENCE}:
+ * {@code table.get(slice.set(buffer, start, length))} looks up the range without creating of the String
+ */
+public final class CharSlice implements CharSequence {
+
+    private char[] array;
+    private int offset;
+    private int length;
+
+    public CharSlice() {
+        this.array = new char[0];
+    }
+
+    public CharSlice(char[] array, int offset, int length) {
+        set(array, offset, length);
+    }
+
+    /**
+     * Points the slice to the specified range, chars aren't copied
+     *
+     * @throws NullableArgumentException  if the specified array is null
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     */
+    public CharSlice set(char[] array, int offset, int length) {
+        if (array == null) throw new NullableArgumentException();
+        if (offset < 0 || length < 0 || offset > array.length - length) throw new IndexOutOfBoundsException();
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) throw new IndexOutOfBoundsException();
+        return array[offset + index];
+    }
+
+    /**
+     * Returns slice of the same array
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) throw new IndexOutOfBoundsException();
+        return new CharSlice(array, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(array, offset, length);
+    }
+}
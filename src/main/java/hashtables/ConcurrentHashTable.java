@@ -0,0 +1,701 @@
+package hashtables;
+
+import additional.dynamicstring.DynamicLinkedString;
+import additional.dynamicstring.DynamicString;
+import additional.exceptions.NullableArgumentException;
+import additional.nodes.HashNode;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread-safe version of the {@link HashTable} with the same multi-value-per-key semantics.
+ * Reads never lock: bins are published through volatile array slots and nodes are immutable except value and next links.
+ * Writers lock only the first node of the bin they change, empty bins are filled by CAS.
+ * When the table grows, every writer which meets an already moved bin joins the resizing
+ * and transfers its own stripe of bins into the new table.
+ * Iterators are weakly consistent: they never throw on concurrent modification and may or may not reflect it.
+ * Compute and merge methods are atomic: the function is applied under the lock of the bin,
+ * an empty bin is filled by CAS of the computed node
+ */
+public class ConcurrentHashTable<K, V> implements Iterable<K>, Map<K, V> {
+
+    public static final int DEFAULT_CAPACITY = 32;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MIN_CAPACITY = 1 << 1;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MIN_TRANSFER_STRIDE = 16;
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+    private static final int MOVED = -1;
+
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private volatile int threshold;
+    private final AtomicReference<Transfer<K, V>> transfer;
+    private final LongAdder size;
+    public final Items items;
+
+    private static class Node<K, V> implements HashNode<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public int getHash() {
+            return hash;
+        }
+    }
+
+    /**
+     * Placed into the bins which are already moved to the next table
+     */
+    private static final class ForwardingNode<K, V> extends Node<K, V> {
+        final AtomicReferenceArray<Node<K, V>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * State of the resizing shared by all threads which take part in it
+     */
+    private static final class Transfer<K, V> {
+        final AtomicReferenceArray<Node<K, V>> oldTable;
+        final AtomicReferenceArray<Node<K, V>> nextTable;
+        final ForwardingNode<K, V> forwardingNode;
+        final AtomicInteger transferIndex;
+        final AtomicInteger remaining;
+
+        Transfer(AtomicReferenceArray<Node<K, V>> oldTable) {
+            this.oldTable = oldTable;
+            this.nextTable = new AtomicReferenceArray<>(oldTable.length() << 1);
+            this.forwardingNode = new ForwardingNode<>(nextTable);
+            this.transferIndex = new AtomicInteger(oldTable.length());
+            this.remaining = new AtomicInteger(oldTable.length());
+        }
+    }
+
+    public ConcurrentHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentHashTable(int capacity) {
+        int cap = getPowerOfTwoCap(capacity);
+        this.table = new AtomicReferenceArray<>(cap);
+        this.threshold = (int) (cap * LOAD_FACTOR);
+        this.transfer = new AtomicReference<>();
+        this.size = new LongAdder();
+        this.items = new Items();
+    }
+
+    /**
+     * Compute hashCode by key, negative hashes are reserved for the forwarding nodes
+     *
+     * @return computed hashCode for specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    private int generateHash(K key) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        int h = key.hashCode();
+        return (h ^ h >>> 16) & Integer.MAX_VALUE;
+    }
+
+    /**
+     * Appends and associate specified key with specified value in the ConcurrentHashTable
+     * If the specified value equals the latest value of the key nothing will be changed
+     *
+     * @param key   key to associate with specified value
+     * @param value value to associate with specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public void add(K key, V value) {
+        final int hash = generateHash(key);
+        for (AtomicReferenceArray<Node<K, V>> tab = table; ; ) {
+            int pos = hash & (tab.length() - 1);
+            Node<K, V> first = tab.get(pos);
+            if (first == null) {
+                if (tab.compareAndSet(pos, null, new Node<>(hash, key, value, null))) break;
+            } else if (first.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) first);
+            } else {
+                synchronized (first) {
+                    if (tab.get(pos) != first) continue;
+                    for (Node<K, V> current = first; current != null; current = current.next) {
+                        if (current.hash == hash && key.equals(current.key)) {
+                            if (Objects.equals(value, current.value)) return;
+                            break;
+                        }
+                    }
+                    tab.set(pos, new Node<>(hash, key, value, first));
+                }
+                break;
+            }
+        }
+        addCount(1);
+    }
+
+    /**
+     * Returns the latest value by key in the ConcurrentHashTable, never blocks
+     *
+     * @param key key of value in the ConcurrentHashTable
+     * @return value by the specified key if key present otherwise null
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V get(K key) {
+        Node<K, V> node = findNode(key, generateHash(key));
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns true if ConcurrentHashTable contains key, never blocks
+     *
+     * @param key key of the values in the ConcurrentHashTable
+     * @return true if ConcurrentHashTable contains specified key, otherwise false
+     */
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) return false;
+        return findNode(key, generateHash(key)) != null;
+    }
+
+    private Node<K, V> findNode(K key, int hash) {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            Node<K, V> current = tab.get(hash & (tab.length() - 1));
+            if (current == null) return null;
+            if (current.hash == MOVED) {
+                tab = ((ForwardingNode<K, V>) current).nextTable;
+                continue;
+            }
+            for (; current != null; current = current.next) {
+                if (current.hash == hash && key.equals(current.key)) return current;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Removes key with the latest associated value
+     *
+     * @param key key for associated value from which to remove
+     * @return value of the specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V delete(K key) {
+        Node<K, V> removed = removeNode(key, null, false);
+        return removed == null ? null : removed.value;
+    }
+
+    /**
+     * Removes specified value which associated with the key
+     *
+     * @param key   key associated with value
+     * @param value value associated with key to remove
+     * @return true if value was removed otherwise false
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public boolean deleteValue(K key, V value) {
+        return removeNode(key, value, true) != null;
+    }
+
+    /**
+     * Unlinks the first node with specified key (and value if matchValue is set) from its bin.
+     * Unlinked node keeps its next link, so the readers which are standing on it can continue traversal
+     */
+    private Node<K, V> removeNode(K key, V value, boolean matchValue) {
+        final int hash = generateHash(key);
+        for (AtomicReferenceArray<Node<K, V>> tab = table; ; ) {
+            int pos = hash & (tab.length() - 1);
+            Node<K, V> first = tab.get(pos);
+            if (first == null) return null;
+            if (first.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) first);
+                continue;
+            }
+            synchronized (first) {
+                if (tab.get(pos) != first) continue;
+                for (Node<K, V> current = first, prev = null; current != null; prev = current, current = current.next) {
+                    if (current.hash == hash && key.equals(current.key) && (!matchValue || Objects.equals(value, current.value))) {
+                        if (prev == null) tab.set(pos, current.next);
+                        else prev.next = current.next;
+                        size.decrement();
+                        return current;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Updates the latest value by the specified key
+     *
+     * @param key   key which associated value updates
+     * @param value value to update
+     * @return updated value if ConcurrentHashTable contains value by specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    public V updateValue(K key, V value) {
+        final int hash = generateHash(key);
+        for (AtomicReferenceArray<Node<K, V>> tab = table; ; ) {
+            int pos = hash & (tab.length() - 1);
+            Node<K, V> first = tab.get(pos);
+            if (first == null) return null;
+            if (first.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) first);
+                continue;
+            }
+            synchronized (first) {
+                if (tab.get(pos) != first) continue;
+                for (Node<K, V> current = first; current != null; current = current.next) {
+                    if (current.hash == hash && key.equals(current.key)) {
+                        V oldVal = current.value;
+                        current.value = value;
+                        return oldVal;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Associates value with the key if key has no value yet, atomically
+     *
+     * @return current value of the key or null if value was added
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return remap(key, (k, current) -> current == null ? value : current, true);
+    }
+
+    /**
+     * Computes value for the key if key has no value yet, atomically.
+     * Present value is returned without locking
+     *
+     * @return current or computed value of the key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Node<K, V> node = findNode(key, generateHash(key));
+        if (node != null && node.value != null) return node.value;
+        return remap(key, (k, current) -> current == null ? mappingFunction.apply(k) : current, false);
+    }
+
+    /**
+     * Recomputes the latest value of the key if key has a value, atomically.
+     * The key is removed if function returns null
+     *
+     * @return new value of the key or null if key has no value
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return remap(key, (k, current) -> current == null ? null : remappingFunction.apply(k, current), false);
+    }
+
+    /**
+     * Computes new value for the key from the latest one (null if key not found), atomically.
+     * The key is removed if function returns null
+     *
+     * @return new value of the key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return remap(key, remappingFunction, false);
+    }
+
+    /**
+     * Associates value with the key if key has no value, otherwise combines the latest value of the key with
+     * the specified one, atomically. The key is removed if function returns null,
+     * so concurrent {@code counts.merge(key, 1, Integer::sum)} never loses a count
+     *
+     * @return new value of the key
+     * @throws NullableArgumentException if the specified key or value is null
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null) throw new NullableArgumentException("Specified value must be not null");
+        return remap(key, (k, current) -> current == null ? value : remappingFunction.apply(current, value), false);
+    }
+
+    /**
+     * Replaces the latest value of the key by the result of the function of it (null if key not found):
+     * sets value of the latest node, pushes new node if key not found or unlinks the latest node if result is null.
+     * Function is applied under the lock of the bin, empty bin is filled by CAS of the new node.
+     * Result for the absent key is computed once even if CAS fails and the bin has to be locked
+     *
+     * @param returnPrevious return the latest value before the change instead of the new one
+     * @throws NullableArgumentException if the specified key is null
+     */
+    private V remap(K key, BiFunction<? super K, ? super V, ? extends V> function, boolean returnPrevious) {
+        final int hash = generateHash(key);
+        V absentValue = null, previous, value;
+        boolean absentComputed = false;
+        int delta = 0;
+        for (AtomicReferenceArray<Node<K, V>> tab = table; ; ) {
+            int pos = hash & (tab.length() - 1);
+            Node<K, V> first = tab.get(pos);
+            if (first == null) {
+                if (!absentComputed) {
+                    absentValue = function.apply(key, null);
+                    absentComputed = true;
+                }
+                previous = null;
+                value = absentValue;
+                if (value == null) break;
+                if (tab.compareAndSet(pos, null, new Node<>(hash, key, value, null))) {
+                    delta = 1;
+                    break;
+                }
+            } else if (first.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) first);
+            } else {
+                synchronized (first) {
+                    if (tab.get(pos) != first) continue;
+                    Node<K, V> current = first, prev = null;
+                    while (current != null && (current.hash != hash || !key.equals(current.key))) {
+                        prev = current;
+                        current = current.next;
+                    }
+                    if (current == null) {
+                        if (!absentComputed) {
+                            absentValue = function.apply(key, null);
+                            absentComputed = true;
+                        }
+                        previous = null;
+                        value = absentValue;
+                        if (value != null) {
+                            tab.set(pos, new Node<>(hash, key, value, first));
+                            delta = 1;
+                        }
+                    } else {
+                        previous = current.value;
+                        value = function.apply(key, previous);
+                        if (value != null) {
+                            current.value = value;
+                        } else {
+                            if (prev == null) tab.set(pos, current.next);
+                            else prev.next = current.next;
+                            delta = -1;
+                        }
+                    }
+                }
+                break;
+            }
+        }
+        if (delta > 0) addCount(1);
+        else if (delta < 0) size.decrement();
+        return returnPrevious ? previous : value;
+    }
+
+    /**
+     * Replaces oldKey by newKey with saving the latest value of the oldKey.
+     * Removal of the oldKey and insertion of the newKey are not atomic together
+     *
+     * @param oldKey old key of item to replace
+     * @param newKey new key to replace oldKey
+     * @return true if replacement done otherwise false
+     * @throws NullableArgumentException if (oldKey or newKey) is null
+     */
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        generateHash(newKey);
+        Node<K, V> removed = removeNode(oldKey, null, false);
+        if (removed == null) return false;
+        add(newKey, removed.value);
+        return true;
+    }
+
+    /**
+     * Return if ConcurrentHashTable contains specified value
+     *
+     * @param value value of the all values in the ConcurrentHashTable
+     * @return true if value founded else false
+     */
+    public boolean containsValue(V value) {
+        for (HashNode<K, V> node : items) {
+            if (Objects.equals(value, node.getValue())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return first key by the specified value in the ConcurrentHashTable
+     *
+     * @param value value
+     * @return key which associated specified value in the ConcurrentHashTable if not found returns null
+     */
+    public K getKeyByValue(V value) {
+        for (HashNode<K, V> node : items) {
+            if (Objects.equals(value, node.getValue())) return node.getKey();
+        }
+        return null;
+    }
+
+    /**
+     * Updates size and starts resizing if size reached the threshold
+     */
+    private void addCount(int delta) {
+        size.add(delta);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        if (size.sum() < threshold || tab.length() == MAX_CAPACITY) return;
+        Transfer<K, V> current = transfer.get();
+        if (current == null) {
+            current = new Transfer<>(tab);
+            if (!transfer.compareAndSet(null, current)) return;
+        }
+        transfer(current);
+    }
+
+    /**
+     * Helps to finish current resizing and returns table to continue operation with
+     */
+    private AtomicReferenceArray<Node<K, V>> helpTransfer(AtomicReferenceArray<Node<K, V>> tab, ForwardingNode<K, V> node) {
+        Transfer<K, V> current = transfer.get();
+        if (current != null && current.oldTable == tab) transfer(current);
+        return node.nextTable;
+    }
+
+    /**
+     * Claims stripes of bins from the end of the old table and moves them until no stripes left.
+     * Thread which moves the last stripe publishes the new table.
+     * Resizing may be started for a table which has just been moved by another thread,
+     * all its bins are already forwarded, so such resizing moves nothing and publishes nothing
+     */
+    private void transfer(Transfer<K, V> current) {
+        int n = current.oldTable.length();
+        int stride = Math.max(MIN_TRANSFER_STRIDE, n / (NCPU << 3));
+        while (true) {
+            int end = current.transferIndex.get();
+            if (end <= 0) return;
+            int start = Math.max(0, end - stride);
+            if (!current.transferIndex.compareAndSet(end, start)) continue;
+            for (int i = start; i < end; i++) {
+                transferBin(current, i);
+            }
+            if (current.remaining.addAndGet(start - end) == 0) {
+                if (table == current.oldTable) {
+                    table = current.nextTable;
+                    threshold = (int) (current.nextTable.length() * LOAD_FACTOR);
+                }
+                transfer.compareAndSet(current, null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Splits the bin into the low and high bins of the next table keeping order of the nodes.
+     * Nodes are copied because readers of the old table may still traverse the old bin
+     */
+    private void transferBin(Transfer<K, V> current, int pos) {
+        AtomicReferenceArray<Node<K, V>> oldTab = current.oldTable;
+        int n = oldTab.length();
+        while (true) {
+            Node<K, V> first = oldTab.get(pos);
+            if (first == null) {
+                if (oldTab.compareAndSet(pos, null, current.forwardingNode)) return;
+                continue;
+            }
+            if (first.hash == MOVED) return;
+            synchronized (first) {
+                if (oldTab.get(pos) != first) continue;
+                Node<K, V> lo = null, loTail = null, hi = null, hiTail = null;
+                for (Node<K, V> node = first; node != null; node = node.next) {
+                    Node<K, V> copy = new Node<>(node.hash, node.key, node.value, null);
+                    if ((node.hash & n) == 0) {
+                        if (loTail == null) lo = copy;
+                        else loTail.next = copy;
+                        loTail = copy;
+                    } else {
+                        if (hiTail == null) hi = copy;
+                        else hiTail.next = copy;
+                        hiTail = copy;
+                    }
+                }
+                current.nextTable.set(pos, lo);
+                current.nextTable.set(pos + n, hi);
+                oldTab.set(pos, current.forwardingNode);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Provides get size of the ConcurrentHashTable, the result is exact only in absence of concurrent updates
+     *
+     * @return size of the ConcurrentHashTable
+     */
+    @Override
+    public int getSize() {
+        long sum = size.sum();
+        return sum < 0 ? 0 : (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Provides get capacity of the ConcurrentHashTable
+     *
+     * @return capacity of the ConcurrentHashTable
+     */
+    public int getCapacity() {
+        return table.length();
+    }
+
+    /**
+     * Clear current ConcurrentHashTable
+     */
+    @Override
+    public void clear() {
+        long removed = 0;
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        for (int i = 0; i < tab.length(); ) {
+            Node<K, V> first = tab.get(i);
+            if (first == null) {
+                i++;
+            } else if (first.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) first);
+                i = 0;
+            } else {
+                synchronized (first) {
+                    if (tab.get(i) != first) continue;
+                    for (Node<K, V> current = first; current != null; current = current.next) removed++;
+                    tab.set(i++, null);
+                }
+            }
+        }
+        size.add(-removed);
+    }
+
+    private int getPowerOfTwoCap(int cap) {
+        if (cap <= MIN_CAPACITY) return MIN_CAPACITY;
+        if (cap >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit(cap - 1) << 1;
+    }
+
+    /**
+     * Weakly consistent traversal over the bins.
+     * Moved bin of the old table is traversed through its two halves in the next table
+     */
+    private class Traverser {
+        private final AtomicReferenceArray<Node<K, V>> tab;
+        private final Deque<Object[]> pendingBins;
+        private int pos;
+        private Node<K, V> next;
+
+        Traverser() {
+            tab = table;
+            pendingBins = new ArrayDeque<>();
+            pos = 0;
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            if (next != null) next = next.next;
+            while (next == null) {
+                if (!pendingBins.isEmpty()) {
+                    Object[] bin = pendingBins.pop();
+                    next = readBin((AtomicReferenceArray<Node<K, V>>) bin[0], (Integer) bin[1]);
+                } else if (pos < tab.length()) {
+                    next = readBin(tab, pos++);
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private Node<K, V> readBin(AtomicReferenceArray<Node<K, V>> binTab, int binPos) {
+            Node<K, V> first = binTab.get(binPos);
+            if (first != null && first.hash == MOVED) {
+                AtomicReferenceArray<Node<K, V>> nextTab = ((ForwardingNode<K, V>) first).nextTable;
+                pendingBins.push(new Object[]{nextTab, binPos + binTab.length()});
+                pendingBins.push(new Object[]{nextTab, binPos});
+                return null;
+            }
+            return first;
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        Node<K, V> nextNode() {
+            if (next == null) throw new NoSuchElementException();
+            Node<K, V> node = next;
+            advance();
+            return node;
+        }
+    }
+
+    public final class Items implements Iterable<HashNode<K, V>> {
+        @Override
+        public Iterator<HashNode<K, V>> iterator() {
+            return new NodesIterator();
+        }
+
+        private class NodesIterator extends Traverser implements Iterator<HashNode<K, V>> {
+            @Override
+            public HashNode<K, V> next() {
+                return nextNode();
+            }
+        }
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new SelfIterator();
+    }
+
+    private class SelfIterator extends Traverser implements Iterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    @Override
+    public String toString() {
+        DynamicString res = new DynamicLinkedString("{");
+        for (HashNode<K, V> node : items) {
+            res.add("[").add(node.getKey()).add(":").add(node.getValue()).add("], ");
+        }
+        if (res.getSize() == 1) return "{}";
+        return res.replace(res.getSize() - 2, "}").toString();
+    }
+}
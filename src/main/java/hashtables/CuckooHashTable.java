@@ -0,0 +1,539 @@
+package hashtables;
+
+import additional.dynamicstring.DynamicLinkedString;
+import additional.dynamicstring.DynamicString;
+import additional.exceptions.NullableArgumentException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Bucketized cuckoo implementation of the {@link Map}: every key may be stored only in one of the 4 slots
+ * of its two buckets or in the small stash, so get, containsKey and delete look at no more than
+ * 2 * SLOTS + STASH_SIZE slots whatever the load is.
+ * Insertion relocates the residents of full buckets to their alternative buckets (random walk),
+ * which allows to fill the table up to the LOAD_FACTOR of 95%. If the walk fails the homeless entry goes
+ * to the stash, and if the stash is full the table is rebuilt with the new hash seed.
+ * The bound needs distinct hashCodes: keys with the same hashCode always share the same two buckets,
+ * so if the rebuilds of the grown table fail too the stash is enlarged to hold them.
+ * Unlike the {@link HashTable} keeps single value per key: add replaces value of the present key
+ */
+public class CuckooHashTable<K, V> implements Iterable<K>, Map<K, V> {
+
+    public static final int DEFAULT_CAPACITY = 32;
+    private static final int SLOTS = 4;
+    private static final int STASH_SIZE = 8;
+    private static final int MAX_KICKS = 500;
+    private static final int MAX_REHASH_ATTEMPTS = 4;
+    private static final int MIN_BUCKETS = 1 << 1;
+    private static final int MAX_BUCKETS = 1 << 28;
+    private static final double LOAD_FACTOR = 0.95;
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private Object[] stashKeys = new Object[STASH_SIZE];
+    private Object[] stashValues = new Object[STASH_SIZE];
+    private int[] stashHashes = new int[STASH_SIZE];
+    private int stashSize;
+    private int buckets;
+    private int mask;
+    private int size;
+    private int seed;
+    private int random = 0x2545F491;
+
+    private Object evictedKey;
+    private Object evictedValue;
+    private int evictedHash;
+
+    private long kickCount;
+    private long failureCount;
+    private long rehashCount;
+
+    public CuckooHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity expected number of the keys
+     */
+    public CuckooHashTable(int capacity) {
+        this.buckets = getPowerOfTwoBuckets((int) Math.ceil(capacity / (SLOTS * LOAD_FACTOR)));
+        this.mask = buckets - 1;
+        this.seed = nextRandom();
+    }
+
+    private void initTable(int buckets) {
+        this.buckets = buckets;
+        this.mask = buckets - 1;
+        keys = new Object[buckets * SLOTS];
+        values = new Object[buckets * SLOTS];
+        hashes = new int[buckets * SLOTS];
+    }
+
+    private int nextRandom() {
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        return random;
+    }
+
+    /**
+     * Mixes hashCode with the seed, the seed is changed on rehash to get new pair of the hash functions
+     */
+    private int mix(int hash) {
+        int h = hash ^ seed;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns the first bucket of the hash
+     */
+    private int firstBucket(int hash) {
+        return mix(hash) & mask;
+    }
+
+    /**
+     * Returns the other bucket of the hash: alternative of the alternative is the bucket itself,
+     * so the entry can be moved between its buckets without knowing where it was placed first
+     */
+    private int altBucket(int bucket, int hash) {
+        int tag = (Integer.rotateLeft(mix(hash), 16) * 0x9E3779B9) | 1;
+        return (bucket ^ tag) & mask;
+    }
+
+    /**
+     * Returns slot of the key in the bucket or -1 if bucket doesn't contain the key
+     */
+    private int findInBucket(int bucket, Object key, int hash) {
+        for (int slot = bucket * SLOTS, end = slot + SLOTS; slot < end; slot++) {
+            if (keys[slot] != null && hashes[slot] == hash && key.equals(keys[slot])) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns slot of the key in the table or -1 if key isn't in the table
+     */
+    private int findSlot(Object key, int hash) {
+        if (keys == null) return -1;
+        int bucket = firstBucket(hash);
+        int slot = findInBucket(bucket, key, hash);
+        return slot != -1 ? slot : findInBucket(altBucket(bucket, hash), key, hash);
+    }
+
+    /**
+     * Returns position of the key in the stash or -1 if key isn't in the stash
+     */
+    private int findInStash(Object key, int hash) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stashHashes[i] == hash && key.equals(stashKeys[i])) return i;
+        }
+        return -1;
+    }
+
+    private boolean putInBucket(int bucket, Object key, Object value, int hash) {
+        for (int slot = bucket * SLOTS, end = slot + SLOTS; slot < end; slot++) {
+            if (keys[slot] == null) {
+                keys[slot] = key;
+                values[slot] = value;
+                hashes[slot] = hash;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Places the new entry into one of its buckets, relocating residents of the full buckets.
+     * If the walk fails the last homeless entry is moved to the stash
+     *
+     * @return false if the stash is full, the homeless entry is left in the evicted fields then
+     */
+    private boolean place(Object key, Object value, int hash) {
+        int bucket = firstBucket(hash);
+        if (putInBucket(bucket, key, value, hash)) return true;
+        int alt = altBucket(bucket, hash);
+        if (putInBucket(alt, key, value, hash)) return true;
+        if ((nextRandom() & 1) == 0) bucket = alt;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = bucket * SLOTS + (nextRandom() & (SLOTS - 1));
+            Object k = keys[slot], v = values[slot];
+            int h = hashes[slot];
+            keys[slot] = key;
+            values[slot] = value;
+            hashes[slot] = hash;
+            key = k;
+            value = v;
+            hash = h;
+            kickCount++;
+            bucket = altBucket(bucket, hash);
+            if (putInBucket(bucket, key, value, hash)) return true;
+        }
+        failureCount++;
+        if (stashSize < stashKeys.length) {
+            stashKeys[stashSize] = key;
+            stashValues[stashSize] = value;
+            stashHashes[stashSize] = hash;
+            stashSize++;
+            return true;
+        }
+        evictedKey = key;
+        evictedValue = value;
+        evictedHash = hash;
+        return false;
+    }
+
+    /**
+     * Rebuilds the table with the new hash seed, the number of buckets is doubled
+     * after MAX_REHASH_ATTEMPTS failed rebuilds, after the next failed ones the stash is doubled
+     *
+     * @param buckets     number of buckets of the new table
+     * @param withEvicted true if the homeless entry of the failed insertion must be placed too
+     */
+    private void rehash(int buckets, boolean withEvicted) {
+        int count = size + (withEvicted ? 1 : 0);
+        Object[] allKeys = new Object[count], allValues = new Object[count];
+        int[] allHashes = new int[count];
+        int n = 0;
+        if (keys != null) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != null) {
+                    allKeys[n] = keys[slot];
+                    allValues[n] = values[slot];
+                    allHashes[n++] = hashes[slot];
+                }
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            allKeys[n] = stashKeys[i];
+            allValues[n] = stashValues[i];
+            allHashes[n++] = stashHashes[i];
+        }
+        if (withEvicted) {
+            allKeys[n] = evictedKey;
+            allValues[n] = evictedValue;
+            allHashes[n] = evictedHash;
+        }
+        for (int attempt = 1; ; attempt++) {
+            rehashCount++;
+            seed = nextRandom();
+            clearStash();
+            initTable(buckets);
+            if (placeAll(allKeys, allValues, allHashes)) {
+                evictedKey = evictedValue = null;
+                return;
+            }
+            if (attempt == MAX_REHASH_ATTEMPTS) {
+                if (buckets == MAX_BUCKETS) throw new IllegalStateException("Out of the CuckooHashTable memory");
+                buckets <<= 1;
+            } else if (attempt > 2 * MAX_REHASH_ATTEMPTS) {
+                growStash();
+            }
+        }
+    }
+
+    private boolean placeAll(Object[] allKeys, Object[] allValues, int[] allHashes) {
+        for (int i = 0; i < allKeys.length; i++) {
+            if (!place(allKeys[i], allValues[i], allHashes[i])) return false;
+        }
+        return true;
+    }
+
+    private void growStash() {
+        int stashCapacity = stashKeys.length << 1;
+        stashKeys = new Object[stashCapacity];
+        stashValues = new Object[stashCapacity];
+        stashHashes = new int[stashCapacity];
+    }
+
+    private void clearStash() {
+        for (int i = 0; i < stashSize; i++) {
+            stashKeys[i] = null;
+            stashValues[i] = null;
+        }
+        stashSize = 0;
+    }
+
+    /**
+     * Associates specified value with the specified key, previous value of the key is replaced
+     *
+     * @param key   key to associate with specified value
+     * @param value value to associate with specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public void add(K key, V value) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        if (keys == null) initTable(buckets);
+        int hash = key.hashCode();
+        int slot = findSlot(key, hash);
+        if (slot != -1) {
+            values[slot] = value;
+            return;
+        }
+        int pos = findInStash(key, hash);
+        if (pos != -1) {
+            stashValues[pos] = value;
+            return;
+        }
+        if (size + 1 > buckets * SLOTS * LOAD_FACTOR) {
+            if (buckets == MAX_BUCKETS) throw new IllegalStateException("Out of the CuckooHashTable memory");
+            rehash(buckets << 1, false);
+        }
+        if (!place(key, value, hash)) rehash(buckets, true);
+        size++;
+    }
+
+    /**
+     * Returns value by key in the CuckooHashTable
+     *
+     * @param key key of value in the CuckooHashTable
+     * @return value by the specified key if key present otherwise null
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        int hash = key.hashCode();
+        int slot = findSlot(key, hash);
+        if (slot != -1) return (V) values[slot];
+        int pos = findInStash(key, hash);
+        return pos == -1 ? null : (V) stashValues[pos];
+    }
+
+    /**
+     * Returns true if CuckooHashTable contains key
+     *
+     * @param key key of the value in the CuckooHashTable
+     * @return true if CuckooHashTable contains specified key, otherwise false
+     */
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) return false;
+        int hash = key.hashCode();
+        return findSlot(key, hash) != -1 || findInStash(key, hash) != -1;
+    }
+
+    /**
+     * Removes key with associated value
+     *
+     * @param key key for associated value from which to remove
+     * @return value of the specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V delete(K key) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        int hash = key.hashCode();
+        int slot = findSlot(key, hash);
+        if (slot != -1) {
+            V value = (V) values[slot];
+            keys[slot] = null;
+            values[slot] = null;
+            size--;
+            drainStash();
+            return value;
+        }
+        int pos = findInStash(key, hash);
+        if (pos == -1) return null;
+        V value = (V) stashValues[pos];
+        removeFromStash(pos);
+        size--;
+        return value;
+    }
+
+    /**
+     * Removes the key if it is associated with the specified value
+     *
+     * @param key   key associated with value
+     * @param value value associated with key to remove
+     * @return true if value was removed otherwise false
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public boolean deleteValue(K key, V value) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        if (!containsKey(key) || !Objects.equals(value, get(key))) return false;
+        delete(key);
+        return true;
+    }
+
+    private void removeFromStash(int pos) {
+        stashSize--;
+        stashKeys[pos] = stashKeys[stashSize];
+        stashValues[pos] = stashValues[stashSize];
+        stashHashes[pos] = stashHashes[stashSize];
+        stashKeys[stashSize] = null;
+        stashValues[stashSize] = null;
+    }
+
+    /**
+     * Moves stashed entries back to the table if one of their buckets has free slot
+     */
+    private void drainStash() {
+        for (int i = stashSize - 1; i >= 0; i--) {
+            int bucket = firstBucket(stashHashes[i]);
+            if (putInBucket(bucket, stashKeys[i], stashValues[i], stashHashes[i])
+                    || putInBucket(altBucket(bucket, stashHashes[i]), stashKeys[i], stashValues[i], stashHashes[i])) {
+                removeFromStash(i);
+            }
+        }
+    }
+
+    /**
+     * Replaces oldKey by newKey with saving the value of the oldKey
+     *
+     * @param oldKey old key of item to replace
+     * @param newKey new key to replace oldKey
+     * @return true if replacement done otherwise false
+     * @throws NullableArgumentException if (oldKey or newKey) is null
+     */
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        if (oldKey == null || newKey == null) throw new NullableArgumentException("Specified key must be not null");
+        if (!containsKey(oldKey)) return false;
+        add(newKey, delete(oldKey));
+        return true;
+    }
+
+    /**
+     * Performs the given action for each key and value of the CuckooHashTable
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) throw new NullableArgumentException();
+        if (keys != null) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != null) action.accept((K) keys[slot], (V) values[slot]);
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            action.accept((K) stashKeys[i], (V) stashValues[i]);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns number of the slots in the table without the stash
+     */
+    public int getCapacity() {
+        return buckets * SLOTS;
+    }
+
+    /**
+     * Returns share of the occupied slots
+     */
+    public double getLoadFactor() {
+        return (double) (size - stashSize) / (buckets * SLOTS);
+    }
+
+    /**
+     * Returns number of the entries which didn't find place in their buckets
+     */
+    public int getStashSize() {
+        return stashSize;
+    }
+
+    /**
+     * Returns number of the entries moved to the alternative bucket by insertions
+     */
+    public long getKickCount() {
+        return kickCount;
+    }
+
+    /**
+     * Returns number of the insertions which couldn't place entry in the table after MAX_KICKS relocations
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Returns number of the table rebuilds, growth of the table is counted too
+     */
+    public long getRehashCount() {
+        return rehashCount;
+    }
+
+    /**
+     * Clear current CuckooHashTable, counters aren't reset
+     */
+    @Override
+    public void clear() {
+        if (keys != null) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                keys[slot] = null;
+                values[slot] = null;
+            }
+        }
+        clearStash();
+        size = 0;
+    }
+
+    private int getPowerOfTwoBuckets(int buckets) {
+        if (buckets <= MIN_BUCKETS) return MIN_BUCKETS;
+        if (buckets >= MAX_BUCKETS) return MAX_BUCKETS;
+        return Integer.highestOneBit(buckets - 1) << 1;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new SelfIterator();
+    }
+
+    private class SelfIterator implements Iterator<K> {
+        private int pos = nextOccupied(0);
+
+        @Override
+        public boolean hasNext() {
+            return pos < end();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (pos >= end()) throw new NoSuchElementException();
+            int tableSize = keys == null ? 0 : keys.length;
+            K key = (K) (pos < tableSize ? keys[pos] : stashKeys[pos - tableSize]);
+            pos = nextOccupied(pos + 1);
+            return key;
+        }
+    }
+
+    private int end() {
+        return (keys == null ? 0 : keys.length) + stashSize;
+    }
+
+    /**
+     * Returns position of the next key, positions after the table slots address the stash
+     */
+    private int nextOccupied(int from) {
+        int tableSize = keys == null ? 0 : keys.length;
+        while (from < tableSize && keys[from] == null) from++;
+        return from;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "{}";
+        }
+        DynamicString res = new DynamicLinkedString("{");
+        forEach((key, value) -> res.add("[").add(key).add(":").add(value).add("], "));
+        return res.replace(res.getSize() - 2, "}").toString();
+    }
+}
@@ -0,0 +1,364 @@
+package hashtables;
+
+import additional.exceptions.NullableArgumentException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache which keeps every key for its time-to-live.
+ * Entries are indexed by the HashTable and scheduled in the hierarchical timer wheel,
+ * scheduling and removal take O(1), expiration is amortized O(1).
+ * <p>
+ * No background thread is used: read of the expired key removes it lazily,
+ * every write advances the wheel and removes the keys which are expired by this time.
+ * Size may include expired keys which aren't reached yet, cleanUp() removes all of them.
+ * Every key holds a single value, add replaces the previous value of the key and restarts its time-to-live.
+ */
+public class ExpiringHashTable<K, V> implements Map<K, V> {
+
+    /**
+     * Level i has BUCKETS[i] buckets of 2^SHIFT[i] nanoseconds (~1.07s at the first level)
+     * and spans SPANS[i] = BUCKETS[i] << SHIFT[i]: ~1.14m, ~1.22h, ~1.63d, ~6.5d.
+     * The last level has one bucket for the rest, so it has no span
+     */
+    private static final long[] SPANS = {1L << 36, 1L << 42, 1L << 47, 1L << 49};
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final int[] SHIFT = {30, 36, 42, 47, 49};
+    private static final long MAX_TTL = Long.MAX_VALUE >> 2;
+
+    private final HashTable<K, TimedEntry<K, V>> index;
+    private final TimedEntry<K, V>[][] wheel;
+    private final LongSupplier ticker;
+    private final long origin;
+    private final long defaultTtl;
+    private long wheelTime;
+    private ExpiryListener<K, V> listener;
+    private long hitCount;
+    private long missCount;
+    private long expiredCount;
+
+    /**
+     * Listener which is notified about every expired key
+     */
+    @FunctionalInterface
+    public interface ExpiryListener<K, V> {
+        void onExpired(K key, V value);
+    }
+
+    private static final class TimedEntry<K, V> {
+        final K key;
+        V value;
+        long expiresAt;
+        TimedEntry<K, V> prev;
+        TimedEntry<K, V> next;
+
+        TimedEntry(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.prev = this;
+            this.next = this;
+        }
+    }
+
+    /**
+     * @param defaultTtl time-to-live of the keys added without explicit time-to-live
+     */
+    public ExpiringHashTable(long defaultTtl, TimeUnit unit) {
+        this(defaultTtl, unit, System::nanoTime);
+    }
+
+    /**
+     * @param ticker source of the current time in nanoseconds
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ExpiringHashTable(long defaultTtl, TimeUnit unit, LongSupplier ticker) {
+        if (unit == null || ticker == null) throw new NullableArgumentException();
+        this.defaultTtl = toNanos(defaultTtl, unit);
+        this.ticker = ticker;
+        this.origin = ticker.getAsLong();
+        this.index = new HashTable<>();
+        this.wheel = new TimedEntry[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = new TimedEntry[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                wheel[i][j] = new TimedEntry<>(null, null, 0);
+            }
+        }
+    }
+
+    private static long toNanos(long ttl, TimeUnit unit) {
+        if (ttl <= 0) throw new IllegalArgumentException("Time-to-live must be positive");
+        return Math.min(unit.toNanos(ttl), MAX_TTL);
+    }
+
+    /**
+     * Returns current time relatively to the creation of the table, so it is never negative
+     */
+    private long now() {
+        return ticker.getAsLong() - origin;
+    }
+
+    private boolean isExpired(TimedEntry<K, V> entry, long now) {
+        return entry.expiresAt - now <= 0;
+    }
+
+    /**
+     * Returns sentinel of the wheel bucket for the specified expiration time
+     */
+    private TimedEntry<K, V> findBucket(long time) {
+        long duration = time - wheelTime;
+        for (int i = 0; i < SPANS.length; i++) {
+            if (duration < SPANS[i]) {
+                int ticks = (int) (time >>> SHIFT[i]);
+                return wheel[i][ticks & (BUCKETS[i] - 1)];
+            }
+        }
+        return wheel[SPANS.length][0];
+    }
+
+    private void schedule(TimedEntry<K, V> entry) {
+        TimedEntry<K, V> sentinel = findBucket(entry.expiresAt);
+        entry.prev = sentinel.prev;
+        entry.next = sentinel;
+        sentinel.prev.next = entry;
+        sentinel.prev = entry;
+    }
+
+    private void unschedule(TimedEntry<K, V> entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = entry;
+        entry.next = entry;
+    }
+
+    /**
+     * Moves the wheel to the specified time, buckets which are passed by every level are expired
+     */
+    private void advance(long now) {
+        long previousTime = wheelTime;
+        wheelTime = now;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previousTime >>> SHIFT[i];
+            long delta = (now >>> SHIFT[i]) - previousTicks;
+            if (delta <= 0) break;
+            expireBuckets(i, previousTicks, delta);
+        }
+    }
+
+    /**
+     * Removes the expired entries of the passed buckets and schedules the rest of them into the lower levels
+     */
+    private void expireBuckets(int level, long previousTicks, long delta) {
+        TimedEntry<K, V>[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(delta + 1, buckets.length);
+        int start = (int) (previousTicks & mask);
+        for (int i = start; i < start + steps; i++) {
+            TimedEntry<K, V> sentinel = buckets[i & mask];
+            TimedEntry<K, V> current = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (current != sentinel) {
+                TimedEntry<K, V> next = current.next;
+                current.prev = current;
+                current.next = current;
+                if (isExpired(current, wheelTime)) expire(current);
+                else schedule(current);
+                current = next;
+            }
+        }
+    }
+
+    private void expire(TimedEntry<K, V> entry) {
+        unschedule(entry);
+        index.delete(entry.key);
+        expiredCount++;
+        if (listener != null) listener.onExpired(entry.key, entry.value);
+    }
+
+    /**
+     * Returns live entry of the key, the expired entry is removed
+     */
+    private TimedEntry<K, V> getEntry(K key) {
+        TimedEntry<K, V> entry = index.get(key);
+        if (entry == null) return null;
+        if (isExpired(entry, now())) {
+            expire(entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Associates specified key with specified value for the default time-to-live
+     *
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public void add(K key, V value) {
+        add(key, value, defaultTtl, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Associates specified key with specified value for the specified time-to-live
+     *
+     * @throws NullableArgumentException if the specified key is null
+     * @throws IllegalArgumentException  if the specified time-to-live isn't positive
+     */
+    public void add(K key, V value, long ttl, TimeUnit unit) {
+        if (key == null || unit == null) throw new NullableArgumentException();
+        long now = now();
+        long expiresAt = now + toNanos(ttl, unit);
+        advance(now);
+        TimedEntry<K, V> entry = index.get(key);
+        if (entry == null) {
+            entry = new TimedEntry<>(key, value, expiresAt);
+            index.add(key, entry);
+        } else {
+            unschedule(entry);
+            entry.value = value;
+            entry.expiresAt = expiresAt;
+        }
+        schedule(entry);
+    }
+
+    /**
+     * Returns value of the key or null if key not found or expired
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) return null;
+        TimedEntry<K, V> entry = getEntry(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && getEntry(key) != null;
+    }
+
+    /**
+     * Returns remaining time-to-live of the key in the specified unit or -1 if key not found or expired
+     */
+    public long getTtl(K key, TimeUnit unit) {
+        if (key == null) return -1;
+        TimedEntry<K, V> entry = getEntry(key);
+        return entry == null ? -1 : unit.convert(entry.expiresAt - now(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes key with associated value
+     *
+     * @return value of the key or null if key not found or expired
+     */
+    @Override
+    public V delete(K key) {
+        if (key == null) throw new NullableArgumentException();
+        advance(now());
+        TimedEntry<K, V> entry = getEntry(key);
+        if (entry == null) return null;
+        unschedule(entry);
+        index.delete(key);
+        return entry.value;
+    }
+
+    @Override
+    public boolean deleteValue(K key, V value) {
+        if (key == null) throw new NullableArgumentException();
+        advance(now());
+        TimedEntry<K, V> entry = getEntry(key);
+        if (entry == null || !(value == null ? entry.value == null : value.equals(entry.value))) return false;
+        unschedule(entry);
+        index.delete(key);
+        return true;
+    }
+
+    /**
+     * Moves value of the oldKey to the newKey keeping its expiration time,
+     * the previous value of the newKey is removed
+     *
+     * @return true if replacement done otherwise false
+     */
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        if (oldKey == null || newKey == null) throw new NullableArgumentException();
+        advance(now());
+        TimedEntry<K, V> entry = getEntry(oldKey);
+        if (entry == null) return false;
+        if (oldKey.equals(newKey)) return true;
+        delete(newKey);
+        unschedule(entry);
+        index.delete(oldKey);
+        TimedEntry<K, V> moved = new TimedEntry<>(newKey, entry.value, entry.expiresAt);
+        index.add(newKey, moved);
+        schedule(moved);
+        return true;
+    }
+
+    /**
+     * Removes all the expired keys
+     */
+    public void cleanUp() {
+        advance(now());
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+        for (TimedEntry<K, V>[] buckets : wheel) {
+            for (TimedEntry<K, V> sentinel : buckets) {
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Returns count of the keys including expired keys which aren't removed yet
+     */
+    @Override
+    public int getSize() {
+        return index.getSize();
+    }
+
+    public ExpiringHashTable<K, V> setExpiryListener(ExpiryListener<K, V> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns count of the keys which were removed by expiration
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * Returns part of the reads which found the key, from 0 to 1
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1 : (double) hitCount / requests;
+    }
+
+    public void resetStats() {
+        hitCount = 0;
+        missCount = 0;
+        expiredCount = 0;
+    }
+}
@@ -0,0 +1,255 @@
+package hashtables;
+
+import additional.exceptions.NullableArgumentException;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable map built once from the HashTable by the minimal perfect hash (CHD: compress, hash and displace).
+ * Keys are hashed into buckets, every bucket gets a seed which maps all its keys to the free slots
+ * of the dense keys and values arrays, so every key owns exactly one slot.
+ * Lookup takes one seed read, one slot probe and one equality check.
+ * <p>
+ * Keys which hashCode equals to the hashCode of the other key can't be separated by the seeds,
+ * such keys are kept in the small overflow table which is asked only if the slot holds the other key.
+ * Every key holds the latest value of the key in the source HashTable.
+ * Keys are hashed and compared by the {@link HashingStrategy} of the source HashTable if it has one,
+ * so the table of the CharSequence keys can be probed by the reusable mutable key without allocation.
+ */
+public final class FrozenHashTable<K, V> implements Iterable<K>, Map<K, V> {
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int MAX_SEED_ATTEMPTS = 1 << 16;
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int[] seeds;
+    private final HashTable<K, V> overflow;
+    private final HashingStrategy<? super K> strategy;
+    private final int size;
+
+    private FrozenHashTable(Object[] keys, Object[] values, int[] seeds, HashTable<K, V> overflow,
+                            HashingStrategy<? super K> strategy) {
+        this.keys = keys;
+        this.values = values;
+        this.seeds = seeds;
+        this.overflow = overflow;
+        this.strategy = strategy;
+        this.size = keys.length + (overflow == null ? 0 : overflow.getKeyCount());
+    }
+
+    /**
+     * Builds frozen copy of the specified HashTable, later changes of the HashTable aren't visible in the copy
+     *
+     * @throws NullableArgumentException if the specified table is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> FrozenHashTable<K, V> of(HashTable<K, V> table) {
+        if (table == null) throw new NullableArgumentException();
+        HashingStrategy<? super K> strategy = table.getHashingStrategy();
+        HashTable<Integer, K> byHash = new HashTable<>(table.getKeyCount() * 2);
+        HashTable<K, V> overflow = null;
+        Object[] distinct = new Object[table.getKeyCount()];
+        int count = 0;
+        for (K key : table.keySet()) {
+            int hash = spread(hashOf(key, strategy));
+            if (byHash.putIfAbsent(hash, key) == null) {
+                distinct[count++] = key;
+            } else {
+                if (overflow == null) overflow = new HashTable<>(strategy);
+                overflow.add(key, table.get(key));
+            }
+        }
+        int[] hashes = new int[count];
+        for (int i = 0; i < count; i++) hashes[i] = spread(hashOf((K) distinct[i], strategy));
+        int[] slots = new int[count];
+        for (int bucketCount = Math.max(1, count / BUCKET_SIZE); ; bucketCount <<= 1) {
+            int[] seeds = place(hashes, bucketCount, slots);
+            if (seeds == null) continue;
+            Object[] keys = new Object[count];
+            Object[] values = new Object[count];
+            for (int i = 0; i < count; i++) {
+                keys[slots[i]] = distinct[i];
+                values[slots[i]] = table.get((K) distinct[i]);
+            }
+            return new FrozenHashTable<>(keys, values, seeds, overflow, strategy);
+        }
+    }
+
+    /**
+     * Finds seed of every bucket and slot of every key, buckets are placed from the largest to the smallest one.
+     * Seed of the single key bucket is the negative index of the free slot
+     *
+     * @return seeds of the buckets or null if some bucket can't be placed with this count of buckets
+     */
+    private static int[] place(int[] hashes, int bucketCount, int[] slots) {
+        int count = hashes.length;
+        int[] bucketStarts = new int[bucketCount + 1];
+        for (int hash : hashes) bucketStarts[bucketOf(hash, bucketCount) + 1]++;
+        int maxBucketSize = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            maxBucketSize = Math.max(maxBucketSize, bucketStarts[b + 1]);
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        int[] members = new int[count];
+        int[] filled = new int[bucketCount];
+        for (int i = 0; i < count; i++) {
+            int b = bucketOf(hashes[i], bucketCount);
+            members[bucketStarts[b] + filled[b]++] = i;
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) order[b] = b;
+        Arrays.sort(order, (a, b) -> filled[b] - filled[a]);
+
+        int[] seeds = new int[bucketCount];
+        boolean[] taken = new boolean[count];
+        int[] candidate = new int[maxBucketSize];
+        int freeSlot = 0;
+        for (int b : order) {
+            int bucketSize = filled[b], start = bucketStarts[b];
+            if (bucketSize == 0) break;
+            if (bucketSize == 1) {
+                while (taken[freeSlot]) freeSlot++;
+                taken[freeSlot] = true;
+                slots[members[start]] = freeSlot;
+                seeds[b] = -freeSlot - 1;
+                continue;
+            }
+            for (int seed = 1; seeds[b] == 0; seed++) {
+                if (seed > MAX_SEED_ATTEMPTS) return null;
+                boolean placed = true;
+                for (int j = 0; j < bucketSize && placed; j++) {
+                    int slot = slotOf(hashes[members[start + j]], seed, count);
+                    if (taken[slot]) placed = false;
+                    for (int t = 0; t < j && placed; t++) {
+                        if (candidate[t] == slot) placed = false;
+                    }
+                    candidate[j] = slot;
+                }
+                if (!placed) continue;
+                for (int j = 0; j < bucketSize; j++) {
+                    taken[candidate[j]] = true;
+                    slots[members[start + j]] = candidate[j];
+                }
+                seeds[b] = seed;
+            }
+        }
+        return seeds;
+    }
+
+    private static <K> int hashOf(K key, HashingStrategy<? super K> strategy) {
+        return strategy == null ? key.hashCode() : strategy.hash(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean keyEquals(K key, Object other) {
+        if (other == null) return false;
+        return strategy == null ? key.equals(other) : strategy.equals(key, (K) other);
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ h >>> 16;
+    }
+
+    private static int bucketOf(int hash, int bucketCount) {
+        return (int) (((hash & 0xFFFFFFFFL) * bucketCount) >>> 32);
+    }
+
+    private static int slotOf(int hash, int seed, int count) {
+        int h = spread(hash ^ seed * 0x9E3779B9);
+        return (int) (((h & 0xFFFFFFFFL) * count) >>> 32);
+    }
+
+    /**
+     * Returns slot of the key, the slot may hold the other key
+     */
+    private int findSlot(K key) {
+        int hash = spread(hashOf(key, strategy));
+        int seed = seeds[bucketOf(hash, seeds.length)];
+        return seed < 0 ? -seed - 1 : slotOf(hash, seed, keys.length);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null || keys.length == 0) return null;
+        int slot = findSlot(key);
+        if (keyEquals(key, keys[slot])) return (V) values[slot];
+        return overflow == null ? null : overflow.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null || keys.length == 0) return defaultValue;
+        int slot = findSlot(key);
+        if (keyEquals(key, keys[slot])) return (V) values[slot];
+        return overflow == null ? defaultValue : overflow.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null || keys.length == 0) return false;
+        return keyEquals(key, keys[findSlot(key)]) || overflow != null && overflow.containsKey(key);
+    }
+
+    /**
+     * @return count of the keys
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new Iterator<>() {
+            private int pos;
+            private final Iterator<K> overflowKeys = overflow == null ? null : overflow.keySet().iterator();
+
+            @Override
+            public boolean hasNext() {
+                return pos < keys.length || overflowKeys != null && overflowKeys.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (pos < keys.length) return (K) keys[pos++];
+                if (overflowKeys == null) throw new NoSuchElementException();
+                return overflowKeys.next();
+            }
+        };
+    }
+
+    @Override
+    public void add(K key, V value) {
+        throw new UnsupportedOperationException("FrozenHashTable is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("FrozenHashTable is read-only");
+    }
+
+    @Override
+    public V delete(K key) {
+        throw new UnsupportedOperationException("FrozenHashTable is read-only");
+    }
+
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        throw new UnsupportedOperationException("FrozenHashTable is read-only");
+    }
+
+    @Override
+    public boolean deleteValue(K key, V value) {
+        throw new UnsupportedOperationException("FrozenHashTable is read-only");
+    }
+}
@@ -5,29 +5,64 @@ import additional.dynamicstring.DynamicString;
 import additional.dynamicstring.DynamicLinkedString;
 import additional.exceptions.NullableArgumentException;
 import additional.nodes.HashNode;
+import additional.nodes.Pair;
+import sets.HashedSet;
+import sets.RBTSet;
 
-import java.util.HashSet;
+import java.security.SecureRandom;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
 
     private Node<K, V>[] table;
+    private Node<K, V>[] oldTable;
+    private RBTSet<TreeEntry<K, V>>[] trees;
 
     public static final int DEFAULT_CAPACITY = 32;
     private static final int MAX_CAPACITY = 1 << 30;
     private static final int MIN_CAPACITY = 1 << 1;
     private static final double LOAD_FACTOR = 0.8;
+    private static final double SHRINK_LOAD_FACTOR = 0.2;
+    private static final int MIGRATION_STEP = 8;
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int PARALLEL_BUILD_THRESHOLD = 1 << 13;
+    private static final int GET_ALL_BATCH = 16;
     private int capacity;
+    private int oldCapacity;
+    private int migrationPos;
     private int size;
+    private int keyCount;
+    private boolean incrementalResize;
+    private boolean shrinkOnDelete;
+    private int hashSeed;
+    private final HashingStrategy<? super K> strategy;
+    private Counters stats;
     public final Items items;
+    private final KeySet keySet;
+    private final ValueSet valueSet;
 
-    private static class Node<K, V> implements HashNode<K, V> {
+    static class Node<K, V> implements HashNode<K, V> {
         final K key;
         final int hash;
         V value;
         Node<K, V> next;
+        Node<K, V> prev;
 
         public Node(K key, V value, int hash) {
             this.key = key;
@@ -52,39 +87,223 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
         }
     }
 
+    /**
+     * Live counters of the enabled stats
+     */
+    private static final class Counters {
+        long lookups;
+        long probes;
+        long inserts;
+        long removes;
+        long resizes;
+        long resizeNanos;
+    }
+
+    /**
+     * Index of the long bucket which keys are comparable.
+     * Bucket keeps its chain of nodes, tree stores the first (latest) node of every key in the bucket,
+     * so lookup in the bucket takes O(log n) even if all keys have the same hashCode.
+     * Keys which compareTo isn't consistent with equals can't be told apart by the tree,
+     * so the bucket which gets two different keys comparing as equal stays a plain chain
+     */
+    private static final class TreeEntry<K, V> implements Comparable<TreeEntry<K, V>> {
+        final K key;
+        final int hash;
+        Node<K, V> first;
+        int count;
+
+        TreeEntry(K key, int hash, Node<K, V> first) {
+            this.key = key;
+            this.hash = hash;
+            this.first = first;
+            this.count = 1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compareTo(TreeEntry<K, V> o) {
+            if (hash != o.hash) return Integer.compare(hash, o.hash);
+            if (key.getClass() != o.key.getClass()) return key.getClass().getName().compareTo(o.key.getClass().getName());
+            return ((Comparable<Object>) key).compareTo(o.key);
+        }
+
+        /**
+         * Consistent with compareTo, so the tree finds the entry of the key which compares as equal
+         * and the caller decides whether the keys are really equal
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TreeEntry)) return false;
+            return compareTo((TreeEntry<K, V>) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     public HashTable() {
         this(DEFAULT_CAPACITY);
     }
 
     public HashTable(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param strategy hash and equality of the keys, natural hashCode and equals are used if strategy is null
+     */
+    public HashTable(HashingStrategy<? super K> strategy) {
+        this(DEFAULT_CAPACITY, strategy);
+    }
+
+    /**
+     * @param strategy hash and equality of the keys, natural hashCode and equals are used if strategy is null
+     */
+    public HashTable(int capacity, HashingStrategy<? super K> strategy) {
+        this.strategy = strategy;
         this.capacity = DEFAULT_CAPACITY;
         this.capacity = getPowerOfTwoCap(capacity);
         this.size = 0;
         items = new Items();
+        keySet = new KeySet();
+        valueSet = new ValueSet();
     }
 
     @SuppressWarnings("unchecked")
     private void initTable(int capacity) {
         table = new Node[capacity];
+        trees = null;
     }
 
     /**
      * Resize Table if current Table full more than LOAD_FACTOR %
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
     private void resizeTable() {
         if (capacity == MAX_CAPACITY) return;
-        int newCapacity = getPowerOfTwoCap(capacity << 1);
-        Node[] newTab = new Node[newCapacity];
-        for (int i = 0; i < capacity; i++) {
-            if (table[i] != null) {
-                for (Node<K, V> current = table[i]; current != null; current = current.next) {
-                    addToBucket(getPosByKey(current.key, newCapacity), new Node<>(current.key, current.value, current.hash), newTab);
-                }
-            }
-        }
-        table = newTab;
+        startMigration(getPowerOfTwoCap(capacity << 1));
+    }
+
+    /**
+     * Halves the Table if shrink on delete enabled and current Table full less than SHRINK_LOAD_FACTOR %
+     */
+    private void shrinkTable() {
+        if (!shrinkOnDelete || capacity <= DEFAULT_CAPACITY || size >= capacity * SHRINK_LOAD_FACTOR) return;
+        startMigration(capacity >> 1);
+    }
+
+    /**
+     * Allocates the new table and moves buckets of the current one into it.
+     * In incremental mode buckets are moved by the following operations, otherwise all of them are moved at once
+     */
+    private void startMigration(int newCapacity) {
+        completeMigration();
+        long start = stats == null ? 0 : System.nanoTime();
+        oldTable = table;
+        oldCapacity = capacity;
+        migrationPos = 0;
+        initTable(newCapacity);
         capacity = newCapacity;
+        if (stats != null) {
+            stats.resizes++;
+            stats.resizeNanos += System.nanoTime() - start;
+        }
+        if (!incrementalResize) completeMigration();
+    }
+
+    /**
+     * Moves the old bucket of the specified hash if it is not moved yet and next MIGRATION_STEP buckets,
+     * so the bucket of the hash is always in the current table after this call
+     */
+    private void migrate(int hash) {
+        if (oldTable == null) return;
+        long start = stats == null ? 0 : System.nanoTime();
+        migrateBucket(indexFor(hash, oldCapacity));
+        for (int i = 0; i < MIGRATION_STEP && migrationPos < oldCapacity; i++) {
+            migrateBucket(migrationPos++);
+        }
+        if (migrationPos == oldCapacity) oldTable = null;
+        if (stats != null) stats.resizeNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Moves all the rest buckets of the old table
+     */
+    private void completeMigration() {
+        if (oldTable == null) return;
+        long start = stats == null ? 0 : System.nanoTime();
+        while (migrationPos < oldCapacity) {
+            migrateBucket(migrationPos++);
+        }
+        oldTable = null;
+        if (stats != null) stats.resizeNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Relinks nodes of the old bucket into the current table without copying.
+     * Chain is reversed first, so pushing its nodes into the new buckets keeps their relative order
+     */
+    private void migrateBucket(int pos) {
+        Node<K, V> reversed = null;
+        for (Node<K, V> current = oldTable[pos], next; current != null; current = next) {
+            next = current.next;
+            current.next = reversed;
+            reversed = current;
+        }
+        oldTable[pos] = null;
+        int firstTarget = -1, secondTarget = -1;
+        for (Node<K, V> current = reversed, next; current != null; current = next) {
+            next = current.next;
+            int newPos = indexFor(current.hash, capacity);
+            pushNode(newPos, current);
+            if (firstTarget == -1) firstTarget = newPos;
+            else if (newPos != firstTarget) secondTarget = newPos;
+        }
+        if (firstTarget != -1) rebuildTree(firstTarget);
+        if (secondTarget != -1) rebuildTree(secondTarget);
+    }
+
+    /**
+     * Drops index of the bucket and treeifies the bucket again if it is still long
+     */
+    private void rebuildTree(int pos) {
+        if (trees != null) trees[pos] = null;
+        if (isLongChain(pos)) treeify(pos);
+    }
+
+    /**
+     * Returns true if the bucket has at least TREEIFY_THRESHOLD nodes, walks no more than TREEIFY_THRESHOLD nodes
+     */
+    private boolean isLongChain(int pos) {
+        int length = 0;
+        for (Node<K, V> current = table[pos]; current != null && length < TREEIFY_THRESHOLD; current = current.next) {
+            length++;
+        }
+        return length >= TREEIFY_THRESHOLD;
+    }
+
+    /**
+     * Builds index of the bucket if all its keys are comparable
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void treeify(int pos) {
+        if (strategy != null) return;
+        for (Node<K, V> current = table[pos]; current != null; current = current.next) {
+            if (!(current.key instanceof Comparable)) return;
+        }
+        RBTSet<TreeEntry<K, V>> tree = new RBTSet<>();
+        for (Node<K, V> current = table[pos]; current != null; current = current.next) {
+            TreeEntry<K, V> entry = new TreeEntry<>(current.key, current.hash, current);
+            TreeEntry<K, V> found = tree.find(entry);
+            if (found == null) tree.add(entry);
+            else if (keyEquals(found.key, current.key)) found.count++;
+            else return;
+        }
+        if (trees == null) trees = new RBTSet[capacity];
+        trees[pos] = tree;
     }
 
     /**
@@ -93,7 +312,13 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
      * @return computed hashCode for specified key
      */
     private int generateHash(K key) {
-        return key.hashCode() ^ key.hashCode() >>> 16;
+        int h = strategy == null ? key.hashCode() : strategy.hash(key);
+        if (hashSeed != 0) h = (h ^ hashSeed) * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+
+    private boolean keyEquals(K key, K other) {
+        return strategy == null ? key.equals(other) : strategy.equals(key, other);
     }
 
     /**
@@ -106,10 +331,24 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
         if (key == null) {
             throw new NullableArgumentException("Specified key must be not null");
         }
-        int pos = generateHash(key) % capacity;
+        return indexFor(generateHash(key), capacity);
+    }
+
+    private int indexFor(int hash, int capacity) {
+        int pos = hash % capacity;
         return pos < 0 ? -pos : pos;
     }
 
+    /**
+     * Makes the bucket of the specified key available in the current table
+     *
+     * @throws NullableArgumentException if the specified key is null
+     */
+    private void migrate(K key) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        if (oldTable != null) migrate(generateHash(key));
+    }
+
     /**
      * Appends and associate specified key with specified value in the HashTable
      * If the current table size equals or higher than threshold param(table capacity * table load factor) table will be resized
@@ -126,7 +365,8 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
         if ((++size) >= capacity * LOAD_FACTOR) {
             resizeTable();
         }
-        addToBucket(getPosByKey(key, capacity), new Node<>(key, value, generateHash(key)), table);
+        migrate(key);
+        addToBucket(getPosByKey(key, capacity), newNode(key, value, generateHash(key)));
     }
 
     /**
@@ -135,20 +375,185 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
      * @param pos  position in the HashTable to insert the bucket(node)
      * @param node bucket for insertion
      */
-    private void addToBucket(int pos, Node<K, V> node, Node<K, V>[] table) {
-        if (table[pos] != null) {
-            for (Node<K, V> current = table[pos]; current != null; current = current.next) {
-                if (node.hash == current.hash && node.key.equals(current.key)) {
-                    if (node.value.equals(current.value)) {
-                        size--;
-                        return;
-                    }
-                    break;
+    private void addToBucket(int pos, Node<K, V> node) {
+        Node<K, V> first = findNode(pos, node.key, node.hash);
+        if (first != null && Objects.equals(node.value, first.value)) {
+            size--;
+            afterNodeAccess(first);
+            return;
+        }
+        linkFirst(pos, node, first);
+    }
+
+    /**
+     * Pushes node into the head of the bucket and updates index of the bucket
+     *
+     * @param first current first node of the same key or null if key is absent
+     */
+    private void linkFirst(int pos, Node<K, V> node, Node<K, V> first) {
+        pushNode(pos, node);
+        if (first == null) keyCount++;
+        if (stats != null) stats.inserts++;
+        RBTSet<TreeEntry<K, V>> tree = trees == null ? null : trees[pos];
+        if (tree == null) {
+            if (first == null && isLongChain(pos)) treeify(pos);
+        } else if (first != null) {
+            TreeEntry<K, V> entry = tree.find(new TreeEntry<>(node.key, node.hash, null));
+            entry.first = node;
+            entry.count++;
+        } else if (!(node.key instanceof Comparable) || !tree.add(new TreeEntry<>(node.key, node.hash, node))) {
+            trees[pos] = null;
+        }
+        afterNodeInsertion(node);
+    }
+
+    private void pushNode(int pos, Node<K, V> node) {
+        node.prev = null;
+        node.next = table[pos];
+        if (node.next != null) node.next.prev = node;
+        table[pos] = node;
+    }
+
+    /**
+     * Creates HashTable of the specified pairs, the table is sized for all of them before the first insertion
+     *
+     * @throws NullableArgumentException if pairs or any key is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> HashTable<K, V> from(Iterable<? extends Pair<? extends K, ? extends V>> pairs) {
+        if (pairs == null) throw new NullableArgumentException();
+        ArrayList<Pair<? extends K, ? extends V>> list = new ArrayList<>();
+        for (Pair<? extends K, ? extends V> pair : pairs) list.add(pair);
+        K[] keys = (K[]) new Object[list.size()];
+        V[] values = (V[]) new Object[list.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = list.get(i).getKey();
+            values[i] = list.get(i).getValue();
+        }
+        HashTable<K, V> hashTable = new HashTable<>();
+        hashTable.addAll(keys, values);
+        return hashTable;
+    }
+
+    /**
+     * Adds keys[i] with values[i] for every i in the order of the arrays, so the result is the same
+     * as of the sequential add calls. The table is resized once for all the pairs.
+     * Large inputs are hashed in parallel and then buckets are filled in parallel: every task owns
+     * the contiguous range of buckets and links only the pairs which fall into it
+     *
+     * @throws NullableArgumentException if the arrays or any key is null
+     * @throws IllegalArgumentException  if the arrays have different lengths
+     */
+    public void addAll(K[] keys, V[] values) {
+        if (keys == null || values == null) throw new NullableArgumentException();
+        if (keys.length != values.length) throw new IllegalArgumentException("Keys and values must have the same length");
+        for (K key : keys) {
+            if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        }
+        if (size + keys.length < 0) throw new NullableArgumentException("Out of the HashTable memory");
+        ensureCapacity(size + keys.length);
+        if (keys.length < PARALLEL_BUILD_THRESHOLD || hasNodeHooks() || stats != null) {
+            for (int i = 0; i < keys.length; i++) add(keys[i], values[i]);
+            return;
+        }
+        int n = keys.length;
+        int[] hashes = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> hashes[i] = generateHash(keys[i]));
+        int parts = Math.min(capacity, ForkJoinPool.getCommonPoolParallelism() * 4);
+        int[] starts = new int[parts + 1];
+        for (int hash : hashes) starts[partOf(hash, parts) + 1]++;
+        for (int part = 0; part < parts; part++) starts[part + 1] += starts[part];
+        int[] order = new int[n];
+        int[] fill = Arrays.copyOf(starts, parts);
+        for (int i = 0; i < n; i++) order[fill[partOf(hashes[i], parts)]++] = i;
+        int[] added = new int[parts], newKeys = new int[parts];
+        trees = null;
+        IntStream.range(0, parts).parallel().forEach(part -> {
+            for (int j = starts[part]; j < starts[part + 1]; j++) {
+                int i = order[j], pos = indexFor(hashes[i], capacity);
+                Node<K, V> first = findNode(pos, keys[i], hashes[i]);
+                if (first != null && Objects.equals(values[i], first.value)) continue;
+                pushNode(pos, newNode(keys[i], values[i], hashes[i]));
+                added[part]++;
+                if (first == null) newKeys[part]++;
+            }
+        });
+        for (int part = 0; part < parts; part++) {
+            size += added[part];
+            keyCount += newKeys[part];
+        }
+        for (int pos = 0; pos < capacity; pos++) {
+            if (isLongChain(pos)) treeify(pos);
+        }
+    }
+
+    private int partOf(int hash, int parts) {
+        return (int) ((long) indexFor(hash, capacity) * parts / capacity);
+    }
+
+    /**
+     * Allocates the table for the expected number of pairs at once and completes current resize
+     */
+    private void ensureCapacity(int expectedSize) {
+        int needed = (int) Math.min(MAX_CAPACITY, (long) (expectedSize / LOAD_FACTOR) + 1);
+        if (table == null) {
+            if (needed > capacity) capacity = getPowerOfTwoCap(needed);
+            initTable(capacity);
+        } else if (needed > capacity) {
+            startMigration(getPowerOfTwoCap(needed));
+        }
+        completeMigration();
+    }
+
+    /**
+     * Looks up the latest values of the keys into out[i] (null if the key is absent).
+     * Keys are processed by batches: hashes and bucket heads of the whole batch are loaded before
+     * the first chain is walked, so the cache misses of the different keys overlap
+     *
+     * @return number of the found keys
+     * @throws NullableArgumentException if the arrays or any key is null
+     * @throws IllegalArgumentException  if out is shorter than keys
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int getAll(K[] keys, V[] out) {
+        if (keys == null || out == null) throw new NullableArgumentException();
+        if (out.length < keys.length) throw new IllegalArgumentException("Out array is shorter than keys array");
+        int found = 0;
+        int[] hashes = new int[GET_ALL_BATCH], positions = new int[GET_ALL_BATCH];
+        Node<K, V>[] heads = new Node[GET_ALL_BATCH];
+        for (int from = 0; from < keys.length; from += GET_ALL_BATCH) {
+            int count = Math.min(GET_ALL_BATCH, keys.length - from);
+            for (int j = 0; j < count; j++) {
+                K key = keys[from + j];
+                if (key == null) throw new NullableArgumentException("Specified key must be not null");
+                hashes[j] = generateHash(key);
+                migrate(hashes[j]);
+            }
+            if (table == null) {
+                Arrays.fill(out, from, from + count, null);
+                continue;
+            }
+            for (int j = 0; j < count; j++) {
+                positions[j] = indexFor(hashes[j], capacity);
+                heads[j] = table[positions[j]];
+            }
+            for (int j = 0; j < count; j++) {
+                K key = keys[from + j];
+                Node<K, V> node;
+                if (trees != null && trees[positions[j]] != null) {
+                    node = findNode(positions[j], key, hashes[j]);
+                } else {
+                    node = heads[j];
+                    while (node != null && (node.hash != hashes[j] || !keyEquals(key, node.key))) node = node.next;
                 }
+                if (node != null) {
+                    afterNodeAccess(node);
+                    found++;
+                }
+                out[from + j] = node == null ? null : node.value;
             }
-            node.next = table[pos];
         }
-        table[pos] = node;
+        return found;
     }
 
     /**
@@ -161,28 +566,29 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
      */
     @Override
     public boolean deleteValue(K key, V value) {
+        migrate(key);
         int pos = getPosByKey(key, capacity);
         if (table == null || table[pos] == null) return false;
-        int keyHash;
-        if (table[pos].hash == (keyHash = generateHash(key)) && table[pos].value.equals(value)) {
-            table[pos] = table[pos].next;
-            size--;
-            return true;
-        }
-        for (Node<K, V> current = table[pos]; current.next != null; current = current.next) {
-            if (current.next.hash == keyHash && current.next.value.equals(value)) {// if node with specified value found
-                if (current.next.next == null) { // if removed item is last in the bucket
-                    current.next = null;
-                } else {
-                    current.next = current.next.next; //if removed item isn't last in the bucket
-                }
-                size--;
+        final int hash = generateHash(key);
+        for (Node<K, V> current = findNode(pos, key, hash); current != null; current = nextNodeOfKey(current)) {
+            if (Objects.equals(value, current.value)) {
+                unlinkNode(pos, current);
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Returns next node of the same key in the bucket
+     */
+    private Node<K, V> nextNodeOfKey(Node<K, V> node) {
+        for (Node<K, V> current = node.next; current != null; current = current.next) {
+            if (current.hash == node.hash && keyEquals(node.key, current.key)) return current;
+        }
+        return null;
+    }
+
     /**
      * Remove bucket with specified hash in the HashTable
      *
@@ -191,26 +597,10 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
      * @return removed bucket with specified hash
      */
     private V removeKey(int pos, K key) {
-        final int hash = generateHash(key);
-        V value = table[pos].value;
-        if (table[pos].hash == hash && table[pos].key.equals(key)) {
-            table[pos] = table[pos].next;
-            size--;
-            return value;
-        }
-        for (Node<K, V> current = table[pos]; current.next != null; current = current.next) {
-            if (current.next.hash == hash) {
-                value = current.next.value;
-                if (current.next.next == null) { // if remove item is last in the bucket
-                    current.next = null;
-                } else {
-                    current.next = current.next.next; //if remove item isn't last in the bucket
-                }
-                size--;
-                return value;
-            }
-        }
-        return null;
+        Node<K, V> node = findNode(pos, key, generateHash(key));
+        if (node == null) return null;
+        unlinkNode(pos, node);
+        return node.value;
     }
 
     /**
@@ -222,6 +612,7 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
      */
     @Override
     public V delete(K key) {
+        migrate(key);
         int pos = getPosByKey(key, capacity);
         if (table == null || table[pos] == null) {
             return null;
@@ -240,170 +631,701 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
     public V updateValue(K key, V value) {
         if (key == null) throw new NullableArgumentException("Specified key must be not null");
         if (table == null) return null;
-        int keyHash = generateHash(key);
-        V oldVal = null;
-        for (Node<K, V> current = table[getPosByKey(key, capacity)]; current != null; current = current.next) {
-            if (current.hash == keyHash && key.equals(current.key)) {
-                oldVal = current.value;
-                current.value = value;
-                break;
-            }
-        }
+        migrate(key);
+        Node<K, V> node = findNode(getPosByKey(key, capacity), key, generateHash(key));
+        if (node == null) return null;
+        V oldVal = node.value;
+        node.value = value;
+        afterNodeUpdate(node, oldVal);
+        afterNodeAccess(node);
         return oldVal;
     }
 
     /**
-     * Replaces oldKey by newKey with saving merging oldKey and newKey values
-     *
-     * @param oldKey old key of item to replace
-     * @param newKey new key to replace oldKey
-     * @return true if replacement done otherwise false
-     * @throws NullableArgumentException if (oldKey or newKey) is null
+     * Returns the first node of the specified key in the bucket
      */
-    @Override
-    public boolean replace(K oldKey, K newKey) {
-        int pos = getPosByKey(oldKey, capacity);
-        if (table == null || table[pos] == null || !containsKey(oldKey)) {
-            return false;
+    private Node<K, V> findNode(int pos, K key, int hash) {
+        if (stats != null) return countedFindNode(pos, key, hash);
+        if (trees != null && trees[pos] != null) {
+            if (!(key instanceof Comparable)) return null;
+            TreeEntry<K, V> entry = trees[pos].find(new TreeEntry<>(key, hash, null));
+            return entry == null || !keyEquals(key, entry.key) ? null : entry.first;
         }
-        addToBucket(
-                getPosByKey(newKey, capacity),
-                new Node<>(newKey, removeKey(pos, oldKey), generateHash(newKey)),
-                table);
-        size++;
-        return true;
+        for (Node<K, V> current = table[pos]; current != null; current = current.next) {
+            if (current.hash == hash && keyEquals(key, current.key)) return current;
+        }
+        return null;
     }
 
     /**
-     * Returns value by key in the HashTable
-     *
-     * @param key key of value in the HashTable
-     * @return value by the specified key if key not equals null otherwise null
-     * @throws NullableArgumentException if the specified key is null
+     * Same as findNode but also counts the lookup and its probes, probes of the tree bucket are
+     * estimated by the height of the balanced tree
      */
-    @Override
-    public V get(K key) {
-        if (table == null) return null;
-        int pos = getPosByKey(key, capacity);
-        int keyHash = generateHash(key);
-        if (table[pos] != null) {
-            for (Node<K, V> current = table[pos]; current != null; current = current.next) {
-                if (current.hash == keyHash && key.equals(current.key)) {
-                    return current.value;
-                }
-            }
+    private Node<K, V> countedFindNode(int pos, K key, int hash) {
+        stats.lookups++;
+        if (trees != null && trees[pos] != null) {
+            stats.probes += 32 - Integer.numberOfLeadingZeros(trees[pos].getSize());
+            if (!(key instanceof Comparable)) return null;
+            TreeEntry<K, V> entry = trees[pos].find(new TreeEntry<>(key, hash, null));
+            return entry == null || !keyEquals(key, entry.key) ? null : entry.first;
+        }
+        for (Node<K, V> current = table[pos]; current != null; current = current.next) {
+            stats.probes++;
+            if (current.hash == hash && keyEquals(key, current.key)) return current;
         }
         return null;
     }
 
     /**
-     * Return if HashTable contains specified value
-     *
-     * @param value value of the all values in the HashTable
-     * @return true if value founded else false
+     * Pushes new node of the key which is known to be absent into its bucket without duplicates check
      */
-    public boolean containsValue(V value) {
-        if (value == null) return getNVKey() != null;
-        if (table == null) return false;
-        for (int i = 0; i < capacity; i++) {
-            if (table[i] != null) {
-                for (Node<K, V> current = table[i]; current != null; current = current.next) {
-                    if (current.value.equals(value)) {
-                        return true;
-                    }
-                }
-            }
+    private void addAbsent(K key, V value, int hash) {
+        if ((++size) >= capacity * LOAD_FACTOR) {
+            resizeTable();
+            migrate(hash);
         }
-        return false;
+        int pos = indexFor(hash, capacity);
+        linkFirst(pos, newNode(key, value, hash), null);
     }
 
     /**
-     * Returns first key with nullable value
+     * Unlinks specified node from the bucket
      */
-    private K getNVKey() {
-        if (table == null) return null;
-        for (int i = 0; i < capacity; i++) {
-            if (table[i] != null) {
-                for (Node<K, V> current = table[i]; current != null; current = current.next) {
-                    if (current.value == null) {
-                        return current.key;
-                    }
-                }
+    private void unlinkNode(int pos, Node<K, V> node) {
+        RBTSet<TreeEntry<K, V>> tree = trees == null ? null : trees[pos];
+        if (tree != null) {
+            TreeEntry<K, V> entry = tree.find(new TreeEntry<>(node.key, node.hash, null));
+            if (--entry.count == 0) {
+                keyCount--;
+                if (tree.getSize() <= UNTREEIFY_THRESHOLD) trees[pos] = null;
+                else tree.delete(entry);
+            } else if (entry.first == node) {
+                entry.first = nextNodeOfKey(node);
             }
+        } else if (isLastOfKey(pos, node)) {
+            keyCount--;
         }
-        return null;
+        if (node.prev == null) table[pos] = node.next;
+        else node.prev.next = node.next;
+        if (node.next != null) node.next.prev = node.prev;
+        size--;
+        if (stats != null) stats.removes++;
+        afterNodeRemoval(node);
+        shrinkTable();
     }
 
     /**
-     * Return first key by the specified value in the HashTable
-     *
-     * @param value value
-     * @return key which associated specified value in the HashTable if not found returns null
+     * Returns true if the bucket has no other nodes of the key of the specified node
      */
-    public K getKeyByValue(V value) {
-        if (table == null) return null;
-        if (value == null) return getNVKey();
-        for (int i = 0; i < capacity; i++) {
-            if (table[i] != null) {
-                for (Node<K, V> current = table[i]; current != null; current = current.next) {
-                    if (current.value.equals(value)) {
-                        return current.key;
-                    }
-                }
-            }
+    private boolean isLastOfKey(int pos, Node<K, V> node) {
+        for (Node<K, V> current = table[pos]; current != null; current = current.next) {
+            if (current != node && current.hash == node.hash && keyEquals(node.key, current.key)) return false;
         }
-        return null;
+        return true;
     }
 
-    public Set<K> keySet() {
-        Set<K> keySet = new HashSet<>(capacity);
-        if (table == null) return keySet();
-        for (int i = 0; i < capacity; i++) {
-            if (table[i] != null) {
-                for (Node<K, V> current = table[i]; current != null; current = current.next) {
-                    keySet.add(current.getKey());
-                }
-            }
-        }
-        return keySet;
+    /**
+     * Unlinks specified node wherever it is placed, also during incremental resize
+     */
+    void removeNode(Node<K, V> node) {
+        migrate(node.hash);
+        unlinkNode(indexFor(node.hash, capacity), node);
     }
 
-    public Set<V> valueSet() {
-        Set<V> valueSet = new HashSet<>(capacity);
-        if (table == null) return valueSet();
-        for (int i = 0; i < capacity; i++) {
-            if (table[i] != null) {
-                for (Node<K, V> current = table[i]; current != null; current = current.next) {
-                    valueSet.add(current.getValue());
-                }
-            }
-        }
-        return valueSet;
+    /**
+     * Creates node for the new key-value pair, subclasses can create extended nodes
+     */
+    Node<K, V> newNode(K key, V value, int hash) {
+        return new Node<>(key, value, hash);
     }
 
     /**
-     * Returns true if HashTable contains key
-     *
-     * @param key key of the values in the HashTable
-     * @return true if HashTable contains specified key, otherwise false
-     * @throws NullableArgumentException if the specified key is null
+     * Returns true if subclass listens to the node events, then bulk operations call them for every node
      */
-    @Override
-    public boolean containsKey(K key) {
-        if (table == null || key == null) return false;
-        int keyHash = generateHash(key);
-        for (Node<K, V> current = table[getPosByKey(key, capacity)]; current != null; current = current.next) {
-            if (current.hash == keyHash && key.equals(current.key)) {
-                return true;
+    boolean hasNodeHooks() {
+        return false;
+    }
+
+    /**
+     * Called after the new node is linked into its bucket
+     */
+    void afterNodeInsertion(Node<K, V> node) {
+    }
+
+    /**
+     * Called after the existing node is read or updated by its key
+     */
+    void afterNodeAccess(Node<K, V> node) {
+    }
+
+    /**
+     * Called after the node is unlinked from its bucket
+     */
+    void afterNodeRemoval(Node<K, V> node) {
+    }
+
+    /**
+     * Called after the value of the existing node is replaced
+     */
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+    }
+
+    /**
+     * Performs the action for every value of the key starting from the latest one
+     */
+    void forEachValueOf(K key, Consumer<? super V> action) {
+        if (table == null || key == null) return;
+        migrate(key);
+        int hash = generateHash(key);
+        for (Node<K, V> node = findNode(indexFor(hash, capacity), key, hash); node != null; node = nextNodeOfKey(node)) {
+            action.accept(node.value);
+        }
+    }
+
+    /**
+     * Sets value of the found node, adds new node if nothing found or removes the found node if value is null
+     */
+    private V setNodeValue(int pos, Node<K, V> node, K key, int hash, V value) {
+        if (value == null) {
+            if (node != null) unlinkNode(pos, node);
+        } else if (node != null) {
+            V oldValue = node.value;
+            node.value = value;
+            afterNodeUpdate(node, oldValue);
+            afterNodeAccess(node);
+        } else {
+            addAbsent(key, value, hash);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the latest value by key or defaultValue if key not found
+     *
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        if (table == null) return defaultValue;
+        migrate(key);
+        Node<K, V> node = findNode(getPosByKey(key, capacity), key, generateHash(key));
+        if (node == null) return defaultValue;
+        afterNodeAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Associates value with the key if key has no value yet, bucket is traversed once
+     *
+     * @return current value of the key or null if value was added
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        if (table == null) initTable(capacity);
+        migrate(key);
+        int hash = generateHash(key), pos = indexFor(hash, capacity);
+        Node<K, V> node = findNode(pos, key, hash);
+        if (node != null && node.value != null) {
+            afterNodeAccess(node);
+            return node.value;
+        }
+        setNodeValue(pos, node, key, hash, value);
+        return null;
+    }
+
+    /**
+     * Computes value for the key if key has no value yet, bucket is traversed once
+     *
+     * @return current or computed value of the key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (table == null) initTable(capacity);
+        migrate(key);
+        int hash = generateHash(key), pos = indexFor(hash, capacity);
+        Node<K, V> node = findNode(pos, key, hash);
+        if (node != null && node.value != null) {
+            afterNodeAccess(node);
+            return node.value;
+        }
+        V value = mappingFunction.apply(key);
+        return value == null ? null : setNodeValue(pos, node, key, hash, value);
+    }
+
+    /**
+     * Recomputes the latest value of the key if key has a value, the key is removed if function returns null.
+     * Bucket is traversed once
+     *
+     * @return new value of the key or null if key has no value
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (table == null) return null;
+        migrate(key);
+        int hash = generateHash(key), pos = indexFor(hash, capacity);
+        Node<K, V> node = findNode(pos, key, hash);
+        if (node == null || node.value == null) return null;
+        return setNodeValue(pos, node, key, hash, remappingFunction.apply(key, node.value));
+    }
+
+    /**
+     * Computes new value for the key from the latest one (null if key not found),
+     * the key is removed if function returns null. Bucket is traversed once
+     *
+     * @return new value of the key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (table == null) initTable(capacity);
+        migrate(key);
+        int hash = generateHash(key), pos = indexFor(hash, capacity);
+        Node<K, V> node = findNode(pos, key, hash);
+        return setNodeValue(pos, node, key, hash, remappingFunction.apply(key, node == null ? null : node.value));
+    }
+
+    /**
+     * Associates value with the key if key has no value, otherwise combines the latest value of the key with
+     * the specified one, the key is removed if function returns null. Bucket is traversed once
+     * {@code words.merge(word, 1, Integer::sum)} counts words with one hash and one bucket traversal per word
+     *
+     * @return new value of the key
+     * @throws NullableArgumentException if the specified key or value is null
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null) throw new NullableArgumentException("Specified value must be not null");
+        if (table == null) initTable(capacity);
+        migrate(key);
+        int hash = generateHash(key), pos = indexFor(hash, capacity);
+        Node<K, V> node = findNode(pos, key, hash);
+        V newValue = node == null || node.value == null ? value : remappingFunction.apply(node.value, value);
+        return setNodeValue(pos, node, key, hash, newValue);
+    }
+
+    /**
+     * Replaces oldKey by newKey with saving merging oldKey and newKey values
+     *
+     * @param oldKey old key of item to replace
+     * @param newKey new key to replace oldKey
+     * @return true if replacement done otherwise false
+     * @throws NullableArgumentException if (oldKey or newKey) is null
+     */
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        migrate(oldKey);
+        int pos = getPosByKey(oldKey, capacity);
+        if (table == null || table[pos] == null || !containsKey(oldKey)) {
+            return false;
+        }
+        V value = removeKey(pos, oldKey);
+        migrate(newKey);
+        size++;
+        addToBucket(getPosByKey(newKey, capacity), newNode(newKey, value, generateHash(newKey)));
+        return true;
+    }
+
+    /**
+     * Returns value by key in the HashTable
+     *
+     * @param key key of value in the HashTable
+     * @return value by the specified key if key not equals null otherwise null
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public V get(K key) {
+        if (table == null) return null;
+        migrate(key);
+        Node<K, V> node = findNode(getPosByKey(key, capacity), key, generateHash(key));
+        if (node == null) return null;
+        afterNodeAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Return if HashTable contains specified value
+     *
+     * @param value value of the all values in the HashTable
+     * @return true if value founded else false
+     */
+    public boolean containsValue(V value) {
+        if (value == null) return getNVKey() != null;
+        if (table == null) return false;
+        completeMigration();
+        for (int i = 0; i < capacity; i++) {
+            if (table[i] != null) {
+                for (Node<K, V> current = table[i]; current != null; current = current.next) {
+                    if (value.equals(current.value)) {
+                        return true;
+                    }
+                }
             }
         }
         return false;
     }
 
+    /**
+     * Returns first key with nullable value
+     */
+    private K getNVKey() {
+        if (table == null) return null;
+        completeMigration();
+        for (int i = 0; i < capacity; i++) {
+            if (table[i] != null) {
+                for (Node<K, V> current = table[i]; current != null; current = current.next) {
+                    if (current.value == null) {
+                        return current.key;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return first key by the specified value in the HashTable
+     *
+     * @param value value
+     * @return key which associated specified value in the HashTable if not found returns null
+     */
+    public K getKeyByValue(V value) {
+        if (table == null) return null;
+        if (value == null) return getNVKey();
+        completeMigration();
+        for (int i = 0; i < capacity; i++) {
+            if (table[i] != null) {
+                for (Node<K, V> current = table[i]; current != null; current = current.next) {
+                    if (value.equals(current.value)) {
+                        return current.key;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns live view of the distinct keys which is backed by the HashTable, nothing is copied.
+     * Deletion of the key from the view removes all its values from the HashTable
+     */
+    public KeySet keySet() {
+        return keySet;
+    }
+
+    /**
+     * Returns live view of the distinct values which is backed by the HashTable, nothing is copied.
+     * Iteration and size remember the met values, so they take O(size) time and memory.
+     * Deletion of the value from the view removes all the pairs with this value
+     */
+    public ValueSet valueSet() {
+        return valueSet;
+    }
+
+    /**
+     * Base of the live views, set operations return new HashedSets
+     */
+    private abstract class View<E> extends AbstractSet<E> implements sets.Set<E> {
+
+        @Override
+        public int getSize() {
+            return size();
+        }
+
+        @Override
+        public void clear() {
+            HashTable.this.clear();
+        }
+
+        @Override
+        public Object[] toObjectArray() {
+            return toArray();
+        }
+
+        @Override
+        public <T extends Iterable<E>> void addFrom(T iterable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashedSet<E> left(sets.Set<E> set) {
+            if (set == null) throw new NullableArgumentException();
+            HashedSet<E> left = new HashedSet<>();
+            for (E element : set) {
+                if (!contains(element)) left.add(element);
+            }
+            return left;
+        }
+
+        @Override
+        public HashedSet<E> right(sets.Set<E> set) {
+            if (set == null) throw new NullableArgumentException();
+            HashedSet<E> right = new HashedSet<>();
+            for (E element : this) {
+                if (!set.contains(element)) right.add(element);
+            }
+            return right;
+        }
+
+        @Override
+        public HashedSet<E> between(sets.Set<E> set) {
+            if (set == null) throw new NullableArgumentException();
+            HashedSet<E> mid = new HashedSet<>();
+            for (E element : set) {
+                if (contains(element)) mid.add(element);
+            }
+            return mid;
+        }
+
+        @Override
+        public HashedSet<E> union(sets.Set<E> set) {
+            if (set == null) throw new NullableArgumentException();
+            HashedSet<E> union = new HashedSet<>();
+            union.addFrom(this);
+            union.addFrom(set);
+            return union;
+        }
+    }
+
+    public final class KeySet extends View<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeysIterator();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return o != null && containsKey((K) o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return o != null && deleteKey((K) o);
+        }
+
+        @Override
+        public boolean delete(K key) {
+            return deleteKey(key);
+        }
+
+        @Override
+        public int size() {
+            return keyCount;
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            completeMigration();
+            return new ViewSpliterator<>(nodesSpliterator(), node -> node.key, true,
+                    Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+    }
+
+    public final class ValueSet extends View<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            return new DistinctValuesIterator();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return containsValue((V) o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return deleteAllValues((V) o);
+        }
+
+        @Override
+        public boolean delete(V value) {
+            return deleteAllValues(value);
+        }
+
+        /**
+         * Counts the distinct values
+         */
+        @Override
+        public int size() {
+            int count = 0;
+            for (Iterator<V> iterator = iterator(); iterator.hasNext(); iterator.next()) count++;
+            return count;
+        }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.DISTINCT);
+        }
+    }
+
+    /**
+     * Iterates the values of the nodes in the order of nodesIterator skipping the values which were met before
+     */
+    private class DistinctValuesIterator implements Iterator<V> {
+        private final Iterator<HashNode<K, V>> nodes = nodesIterator();
+        private final HashedSet<V> met = new HashedSet<>();
+        private boolean nullMet;
+        private boolean found;
+        private V next;
+
+        @Override
+        public boolean hasNext() {
+            while (!found && nodes.hasNext()) {
+                V value = nodes.next().getValue();
+                if (value == null ? !nullMet : met.add(value)) {
+                    nullMet |= value == null;
+                    next = value;
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            V value = next;
+            next = null;
+            found = false;
+            return value;
+        }
+    }
+
+    /**
+     * Iterates every key once: node is skipped if the bucket has the later node of the same key
+     */
+    private class KeysIterator implements Iterator<K> {
+        private final Iterator<HashNode<K, V>> nodes;
+        private Node<K, V> next;
+
+        KeysIterator() {
+            completeMigration();
+            nodes = nodesIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && nodes.hasNext()) {
+                Node<K, V> node = (Node<K, V>) nodes.next();
+                if (isFirstOfKey(node)) next = node;
+            }
+            return next != null;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            K key = next.key;
+            next = null;
+            return key;
+        }
+    }
+
+    /**
+     * Returns true if the node is the latest node of its key
+     */
+    private boolean isFirstOfKey(Node<K, V> node) {
+        int pos = indexFor(node.hash, capacity);
+        if (trees != null && trees[pos] != null) return findNode(pos, node.key, node.hash) == node;
+        for (Node<K, V> current = node.prev; current != null; current = current.prev) {
+            if (current.hash == node.hash && keyEquals(node.key, current.key)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes all the values of the key
+     *
+     * @return true if key was found
+     */
+    private boolean deleteKey(K key) {
+        if (table == null || key == null) return false;
+        migrate(key);
+        int hash = generateHash(key);
+        Node<K, V> node = findNode(indexFor(hash, capacity), key, hash);
+        if (node == null) return false;
+        for (Node<K, V> next; node != null; node = next) {
+            next = nextNodeOfKey(node);
+            removeNode(node);
+        }
+        return true;
+    }
+
+    /**
+     * Removes all the nodes with the specified value
+     *
+     * @return true if value was found
+     */
+    private boolean deleteAllValues(V value) {
+        if (table == null) return false;
+        completeMigration();
+        ArrayList<Node<K, V>> found = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            for (Node<K, V> current = table[i]; current != null; current = current.next) {
+                if (Objects.equals(value, current.value)) found.add(current);
+            }
+        }
+        for (Node<K, V> node : found) removeNode(node);
+        return !found.isEmpty();
+    }
+
+    /**
+     * Performs the action for every key-value pair in the order of nodesIterator without creating of any wrappers
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) throw new NullableArgumentException();
+        for (Iterator<HashNode<K, V>> nodes = nodesIterator(); nodes.hasNext(); ) {
+            HashNode<K, V> node = nodes.next();
+            action.accept(node.getKey(), node.getValue());
+        }
+    }
+
+    /**
+     * Returns count of the distinct keys, every key may have several values
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Returns true if HashTable contains key
+     *
+     * @param key key of the values in the HashTable
+     * @return true if HashTable contains specified key, otherwise false
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public boolean containsKey(K key) {
+        if (table == null || key == null) return false;
+        migrate(key);
+        return findNode(getPosByKey(key, capacity), key, generateHash(key)) != null;
+    }
+
     public final class Items implements Iterable<HashNode<K, V>> {
         @Override
         public Iterator<HashNode<K, V>> iterator() {
-            return new NodesIterator();
+            return nodesIterator();
+        }
+
+        @Override
+        public Spliterator<HashNode<K, V>> spliterator() {
+            return nodesSpliterator();
+        }
+
+        public Stream<HashNode<K, V>> stream() {
+            return StreamSupport.stream(spliterator(), false);
+        }
+
+        public Stream<HashNode<K, V>> parallelStream() {
+            return StreamSupport.stream(spliterator(), true);
         }
 
         private class NodesIterator implements Iterator<HashNode<K, V>> {
@@ -411,6 +1333,7 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
             private Node<K, V> current;
 
             NodesIterator() {
+                completeMigration();
                 pos = 0;
                 current = null;
             }
@@ -441,6 +1364,153 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
         }
     }
 
+    /**
+     * Returns spliterator over nodes of the HashTable, subclasses can change the order of iteration
+     */
+    Spliterator<HashNode<K, V>> nodesSpliterator() {
+        completeMigration();
+        if (table == null) return Spliterators.emptySpliterator();
+        return new NodesSpliterator(table, 0, capacity, size, true);
+    }
+
+    /**
+     * Spliterator over the range of buckets, splits the range in halves while it has not started.
+     * Size is exact until the first split, then it is estimated as a half of the parent one
+     */
+    private final class NodesSpliterator implements Spliterator<HashNode<K, V>> {
+        private final Node<K, V>[] table;
+        private final int end;
+        private int pos;
+        private Node<K, V> current;
+        private long estimate;
+        private boolean exact;
+
+        NodesSpliterator(Node<K, V>[] table, int pos, int end, long estimate, boolean exact) {
+            this.table = table;
+            this.pos = pos;
+            this.end = end;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+
+        /**
+         * Returns the next node of the range or null if range is over
+         */
+        private Node<K, V> nextNode() {
+            while (current == null && pos < end) current = table[pos++];
+            if (current == null) return null;
+            Node<K, V> node = current;
+            current = node.next;
+            return node;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super HashNode<K, V>> action) {
+            if (action == null) throw new NullableArgumentException();
+            Node<K, V> node = nextNode();
+            if (node == null) return false;
+            action.accept(node);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super HashNode<K, V>> action) {
+            if (action == null) throw new NullableArgumentException();
+            for (Node<K, V> node = nextNode(); node != null; node = nextNode()) {
+                action.accept(node);
+            }
+        }
+
+        @Override
+        public Spliterator<HashNode<K, V>> trySplit() {
+            int mid = (pos + end) >>> 1;
+            if (current != null || mid <= pos) return null;
+            exact = false;
+            estimate >>>= 1;
+            Spliterator<HashNode<K, V>> prefix = new NodesSpliterator(table, pos, mid, estimate, false);
+            pos = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | (exact ? Spliterator.SIZED : 0);
+        }
+    }
+
+    /**
+     * Maps the nodes of the nodesSpliterator, so the views keep the order and the splits of the subclass
+     */
+    private final class ViewSpliterator<E> implements Spliterator<E> {
+        private final Spliterator<HashNode<K, V>> nodes;
+        private final Function<Node<K, V>, E> mapper;
+        private final boolean firstOfKeyOnly;
+        private final int characteristics;
+        private Node<K, V> found;
+
+        /**
+         * @param firstOfKeyOnly skip the nodes which aren't the latest nodes of their keys
+         */
+        ViewSpliterator(Spliterator<HashNode<K, V>> nodes, Function<Node<K, V>, E> mapper, boolean firstOfKeyOnly,
+                        int characteristics) {
+            this.nodes = nodes;
+            this.mapper = mapper;
+            this.firstOfKeyOnly = firstOfKeyOnly;
+            this.characteristics = characteristics;
+        }
+
+        private boolean accepts(Node<K, V> node) {
+            return !firstOfKeyOnly || isFirstOfKey(node);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) throw new NullableArgumentException();
+            while (found == null && nodes.tryAdvance(node -> {
+                if (accepts((Node<K, V>) node)) found = (Node<K, V>) node;
+            })) ;
+            if (found == null) return false;
+            Node<K, V> node = found;
+            found = null;
+            action.accept(mapper.apply(node));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null) throw new NullableArgumentException();
+            nodes.forEachRemaining(node -> {
+                if (accepts((Node<K, V>) node)) action.accept(mapper.apply((Node<K, V>) node));
+            });
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            Spliterator<HashNode<K, V>> prefix = nodes.trySplit();
+            return prefix == null ? null : new ViewSpliterator<>(prefix, mapper, firstOfKeyOnly, characteristics);
+        }
+
+        @Override
+        public long estimateSize() {
+            return nodes.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            int inherited = Spliterator.ORDERED | (firstOfKeyOnly ? 0 : Spliterator.SIZED | Spliterator.SUBSIZED);
+            return (nodes.characteristics() & inherited) | characteristics;
+        }
+    }
+
+    Iterator<HashNode<K, V>> nodesIterator() {
+        return items.new NodesIterator();
+    }
+
     /**
      * Provides get size of the HashTable
      *
@@ -465,10 +1535,13 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
      */
     public void clear() {
         if (table == null) return;
+        oldTable = null;
+        trees = null;
         for (int i = 0; i < capacity; i++) {
             table[i] = null;
         }
         this.size = 0;
+        this.keyCount = 0;
     }
 
     /**
@@ -479,6 +1552,93 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
         return this;
     }
 
+    /**
+     * Enables incremental resizing: instead of rehashing the whole table at once
+     * every following operation moves a bounded number of buckets into the new table
+     */
+    public HashTable<K, V> setIncrementalResize(boolean incrementalResize) {
+        if (!incrementalResize) completeMigration();
+        this.incrementalResize = incrementalResize;
+        return this;
+    }
+
+    /**
+     * Enables halving of the table when it becomes full less than SHRINK_LOAD_FACTOR % after deletion,
+     * table never shrinks below DEFAULT_CAPACITY
+     */
+    public HashTable<K, V> setShrinkOnDelete(boolean shrinkOnDelete) {
+        this.shrinkOnDelete = shrinkOnDelete;
+        return this;
+    }
+
+    /**
+     * Enables per-instance random hash seed which is mixed into every hash,
+     * so positions of the keys in the table can't be predicted from their hashCodes
+     *
+     * @throws IllegalStateException if the HashTable isn't empty
+     */
+    public HashTable<K, V> setRandomHashSeed() {
+        if (size != 0) throw new IllegalStateException("Hash seed can be changed only in the empty HashTable");
+        int seed;
+        do {
+            seed = new SecureRandom().nextInt();
+        } while (seed == 0);
+        hashSeed = seed;
+        return this;
+    }
+
+    /**
+     * Enables counting of lookups, probes, insertions, removals and resizes. Disabled stats cost
+     * one null check per operation; disabling drops the collected counters
+     */
+    public HashTable<K, V> setStatsEnabled(boolean enabled) {
+        if (!enabled) stats = null;
+        else if (stats == null) stats = new Counters();
+        return this;
+    }
+
+    public boolean isStatsEnabled() {
+        return stats != null;
+    }
+
+    /**
+     * Returns snapshot of the counters together with the current chain length histogram,
+     * the histogram is computed by the walk over the whole table
+     *
+     * @throws IllegalStateException if stats aren't enabled
+     */
+    public HashTableStats getStats() {
+        if (stats == null) throw new IllegalStateException("Stats of the HashTable aren't enabled");
+        completeMigration();
+        int[] histogram = new int[1];
+        if (table != null) {
+            for (int pos = 0; pos < capacity; pos++) {
+                int length = 0;
+                for (Node<K, V> current = table[pos]; current != null; current = current.next) length++;
+                if (length >= histogram.length) histogram = Arrays.copyOf(histogram, length + 1);
+                histogram[length]++;
+            }
+        } else {
+            histogram[0] = capacity;
+        }
+        return new HashTableStats(size, capacity, histogram, stats.lookups, stats.probes, stats.inserts,
+                stats.removes, stats.resizes, stats.resizeNanos);
+    }
+
+    /**
+     * Returns hashing strategy of the keys or null if natural hashCode and equals are used
+     */
+    public HashingStrategy<? super K> getHashingStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns true if buckets of the previous table are still being moved into the current one
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
     private int getPowerOfTwoCap(int cap) {
         if (cap == capacity || cap < MIN_CAPACITY || cap <= size) return capacity;
         int powerOfTwoCap = capacity;
@@ -501,11 +1661,28 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
         return new SelfIterator();
     }
 
+    /**
+     * Returns spliterator over the key of every node, order and splits follow nodesSpliterator
+     */
+    @Override
+    public Spliterator<K> spliterator() {
+        return new ViewSpliterator<>(nodesSpliterator(), node -> node.key, false, Spliterator.NONNULL);
+    }
+
+    public Stream<K> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<K> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     private class SelfIterator implements Iterator<K> {
         private int pos;
         private Node<K, V> current;
 
         SelfIterator() {
+            completeMigration();
             pos = 0;
             current = null;
         }
@@ -558,6 +1735,7 @@ public class HashTable<K, V> implements Iterable<K>, Map<K, V> {
         if (size == 0) {
             return "{}";
         }
+        completeMigration();
         DynamicString res = new DynamicLinkedString("{");
         for (int i = 0; i < capacity; i++) {
             if (table[i] != null) {
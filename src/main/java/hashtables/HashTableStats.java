@@ -0,0 +1,109 @@
+package hashtables;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of the internals of the {@link HashTable} with enabled stats.
+ * Lookups are counted for every search of the key in its bucket, also for the ones made by add and delete,
+ * probes are the nodes compared during these searches
+ */
+public final class HashTableStats {
+
+    private final int size;
+    private final int capacity;
+    private final int[] chainLengthHistogram;
+    private final long lookupCount;
+    private final long probeCount;
+    private final long insertCount;
+    private final long removeCount;
+    private final long resizeCount;
+    private final long resizeNanos;
+
+    /**
+     * Creates snapshot, public for the hash sets of the other packages
+     */
+    public HashTableStats(int size, int capacity, int[] chainLengthHistogram, long lookupCount, long probeCount,
+                   long insertCount, long removeCount, long resizeCount, long resizeNanos) {
+        this.size = size;
+        this.capacity = capacity;
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.lookupCount = lookupCount;
+        this.probeCount = probeCount;
+        this.insertCount = insertCount;
+        this.removeCount = removeCount;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getLoadFactor() {
+        return capacity == 0 ? 0 : (double) size / capacity;
+    }
+
+    /**
+     * Returns number of buckets by chain length: histogram[i] buckets have exactly i nodes
+     */
+    public int[] getChainLengthHistogram() {
+        return Arrays.copyOf(chainLengthHistogram, chainLengthHistogram.length);
+    }
+
+    public int getLongestChain() {
+        return chainLengthHistogram.length - 1;
+    }
+
+    public long getLookupCount() {
+        return lookupCount;
+    }
+
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+    public double getAverageProbes() {
+        return lookupCount == 0 ? 0 : (double) probeCount / lookupCount;
+    }
+
+    /**
+     * Returns number of the nodes linked into the table
+     */
+    public long getInsertCount() {
+        return insertCount;
+    }
+
+    /**
+     * Returns number of the nodes unlinked from the table
+     */
+    public long getRemoveCount() {
+        return removeCount;
+    }
+
+    /**
+     * Returns number of the started resizes, shrinks are counted too
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns time spent on moving buckets into the resized tables, incremental steps are summed up
+     */
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HashTableStats{size=%d, capacity=%d, loadFactor=%.3f, longestChain=%d, "
+                        + "chainLengthHistogram=%s, lookups=%d, averageProbes=%.3f, inserts=%d, removes=%d, "
+                        + "resizes=%d, resizeNanos=%d}",
+                size, capacity, getLoadFactor(), getLongestChain(), Arrays.toString(chainLengthHistogram),
+                lookupCount, getAverageProbes(), insertCount, removeCount, resizeCount, resizeNanos);
+    }
+}
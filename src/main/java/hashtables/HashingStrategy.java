@@ -0,0 +1,116 @@
+package hashtables;
+
+import additional.dynamicstring.DynamicArrayString;
+import additional.dynamicstring.DynamicString;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Replaces hashCode and equals of the keys, so the HashTable can compare keys by content
+ * and be probed by the reusable mutable key without creating of the new key object.
+ * Keys which are equal by the strategy must have the same hash
+ */
+public interface HashingStrategy<K> {
+
+    /**
+     * Compares CharSequences by their chars, hash is equal to the String hashCode of the same chars,
+     * so Strings, StringBuilders and {@link CharSlice} are interchangeable keys
+     */
+    HashingStrategy<CharSequence> CHAR_SEQUENCE = new HashingStrategy<>() {
+        @Override
+        public int hash(CharSequence key) {
+            int h = 0;
+            for (int i = 0, length = key.length(); i < length; i++) {
+                h = 31 * h + key.charAt(i);
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(CharSequence first, CharSequence second) {
+            if (first == second) return true;
+            int length = first.length();
+            if (length != second.length()) return false;
+            for (int i = 0; i < length; i++) {
+                if (first.charAt(i) != second.charAt(i)) return false;
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Compares char arrays by their chars, hash is equal to the String hashCode of the same chars
+     */
+    HashingStrategy<char[]> CHAR_ARRAY = new HashingStrategy<>() {
+        @Override
+        public int hash(char[] key) {
+            int h = 0;
+            for (char c : key) {
+                h = 31 * h + c;
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(char[] first, char[] second) {
+            return Arrays.equals(first, second);
+        }
+    };
+
+    /**
+     * Compares DynamicStrings by their chars, hash is equal to the String hashCode of the same chars.
+     * Chars of DynamicArrayString are read by index, chars of the other DynamicStrings are read by iterator,
+     * so hashing and comparing of DynamicArrayStrings allocate nothing
+     */
+    HashingStrategy<DynamicString> DYNAMIC_STRING = new HashingStrategy<>() {
+        @Override
+        public int hash(DynamicString key) {
+            int h = 0;
+            if (key instanceof DynamicArrayString) {
+                for (int i = 0, size = key.getSize(); i < size; i++) {
+                    h = 31 * h + key.get(i);
+                }
+            } else {
+                for (char c : key) {
+                    h = 31 * h + c;
+                }
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(DynamicString first, DynamicString second) {
+            if (first == second) return true;
+            int size = first.getSize();
+            if (size != second.getSize()) return false;
+            if (!(first instanceof DynamicArrayString)) {
+                DynamicString swap = first;
+                first = second;
+                second = swap;
+            }
+            if (first instanceof DynamicArrayString) {
+                if (second instanceof DynamicArrayString) {
+                    for (int i = 0; i < size; i++) {
+                        if (first.get(i) != second.get(i)) return false;
+                    }
+                } else {
+                    int i = 0;
+                    for (char c : second) {
+                        if (first.get(i++) != c) return false;
+                    }
+                }
+                return true;
+            }
+            Iterator<Character> firstChars = first.iterator(), secondChars = second.iterator();
+            while (firstChars.hasNext()) {
+                if (firstChars.next().charValue() != secondChars.next().charValue()) return false;
+            }
+            return true;
+        }
+    };
+
+    int hash(K key);
+
+    boolean equals(K first, K second);
+}
@@ -0,0 +1,234 @@
+package hashtables;
+
+import additional.dynamicstring.DynamicLinkedString;
+import additional.dynamicstring.DynamicString;
+
+/**
+ * HashTable specialized for primitive int keys and values. Keys and values are kept in flat arrays
+ * with linear probing, so neither keys nor values are boxed and the entries aren't wrapped into nodes.
+ * Unlike the {@link HashTable} every key holds a single value, add replaces the previous value of the key
+ */
+public class IntIntHashTable {
+
+    public static final int DEFAULT_CAPACITY = 32;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MIN_CAPACITY = 1 << 1;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int FREE_KEY = 0;
+
+    private int[] keys;
+    private int[] values;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+    private int capacity;
+    private int mask;
+    private int size;
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int key, int value);
+    }
+
+    public IntIntHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntIntHashTable(int capacity) {
+        this.capacity = getPowerOfTwoCap(capacity);
+        this.mask = this.capacity - 1;
+        this.size = 0;
+    }
+
+    private void initTable(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Returns home position of the specified key
+     */
+    private int getPosByKey(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    /**
+     * Returns position of the specified key or -1 if key not found, free key isn't stored in the table
+     */
+    private int findPos(int key) {
+        if (keys == null) return -1;
+        for (int pos = getPosByKey(key); ; pos = (pos + 1) & mask) {
+            if (keys[pos] == key) return pos;
+            if (keys[pos] == FREE_KEY) return -1;
+        }
+    }
+
+    /**
+     * Associates specified key with specified value, the previous value of the key will be replaced
+     *
+     * @param key   key to associate with specified value
+     * @param value value to associate with specified key
+     * @throws IllegalStateException if the table of the max capacity is full
+     */
+    public void add(int key, int value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) size++;
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+        if (keys == null) initTable(capacity);
+        for (int pos = getPosByKey(key); ; pos = (pos + 1) & mask) {
+            if (keys[pos] == key) {
+                values[pos] = value;
+                return;
+            }
+            if (keys[pos] == FREE_KEY) {
+                if (size + 1 >= capacity) throw new IllegalStateException("Out of the IntIntHashTable memory");
+                keys[pos] = key;
+                values[pos] = value;
+                if (++size >= capacity * LOAD_FACTOR) resizeTable();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns value by key
+     *
+     * @param key key of value
+     * @return value by the specified key if key present otherwise 0
+     */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns value by key
+     *
+     * @param key          key of value
+     * @param defaultValue value to return if key not found
+     * @return value by the specified key if key present otherwise defaultValue
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE_KEY) return hasFreeKey ? freeKeyValue : defaultValue;
+        int pos = findPos(key);
+        return pos == -1 ? defaultValue : values[pos];
+    }
+
+    /**
+     * Returns true if table contains specified key
+     */
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) return hasFreeKey;
+        return findPos(key) != -1;
+    }
+
+    /**
+     * Removes key with associated value
+     *
+     * @param key key to remove
+     * @return true if key was removed otherwise false
+     */
+    public boolean delete(int key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) return false;
+            hasFreeKey = false;
+            freeKeyValue = 0;
+            size--;
+            return true;
+        }
+        int pos = findPos(key);
+        if (pos == -1) return false;
+        removeAt(pos);
+        return true;
+    }
+
+    /**
+     * Removes element at the specified position and moves back following elements of the cluster
+     * which can be reached from their home positions after removal
+     */
+    private void removeAt(int pos) {
+        int last = pos;
+        for (int next = (pos + 1) & mask; keys[next] != FREE_KEY; next = (next + 1) & mask) {
+            if (((next - getPosByKey(keys[next])) & mask) >= ((next - last) & mask)) {
+                keys[last] = keys[next];
+                values[last] = values[next];
+                last = next;
+            }
+        }
+        keys[last] = FREE_KEY;
+        values[last] = 0;
+        size--;
+    }
+
+    /**
+     * Doubles the table, table of MAX_CAPACITY isn't resized and add throws when only one free slot is left,
+     * so the probe loops always meet the free slot
+     */
+    private void resizeTable() {
+        if (capacity == MAX_CAPACITY) return;
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        capacity <<= 1;
+        mask = capacity - 1;
+        initTable(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                int pos = getPosByKey(oldKeys[i]);
+                while (keys[pos] != FREE_KEY) pos = (pos + 1) & mask;
+                keys[pos] = oldKeys[i];
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Visits all the pairs of key and value without allocation of the entry objects
+     *
+     * @param visitor visitor of the pairs
+     */
+    public void forEach(Visitor visitor) {
+        if (hasFreeKey) visitor.visit(FREE_KEY, freeKeyValue);
+        if (keys == null) return;
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != FREE_KEY) visitor.visit(keys[i], values[i]);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Clear current table
+     */
+    public void clear() {
+        hasFreeKey = false;
+        freeKeyValue = 0;
+        size = 0;
+        if (keys == null) return;
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = FREE_KEY;
+            values[i] = 0;
+        }
+    }
+
+    private int getPowerOfTwoCap(int cap) {
+        if (cap <= MIN_CAPACITY) return MIN_CAPACITY;
+        if (cap >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit(cap - 1) << 1;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) return "{}";
+        DynamicString res = new DynamicLinkedString("{");
+        forEach((key, value) -> res.add("[").add(key).add(":").add(value).add("], "));
+        return res.replace(res.getSize() - 2, "}").toString();
+    }
+}
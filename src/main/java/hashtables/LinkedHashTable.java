@@ -0,0 +1,187 @@
+package hashtables;
+
+import additional.nodes.HashNode;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * HashTable which threads doubly linked list through its nodes.
+ * In insertion order mode nodes are listed in order of addition, in access order mode
+ * every read or update of the key moves its latest node to the end of the list.
+ * Iteration of the table, its views and forEach follow the list, so they take O(size) instead of O(capacity).
+ * In access order mode reads of the keys during iteration move nodes and must be avoided.
+ * <p>
+ * After every insertion removeEldest is asked whether the eldest node should be removed,
+ * {@link #lruCache(int)} creates the bounded LRU cache
+ */
+public class LinkedHashTable<K, V> extends HashTable<K, V> {
+
+    private final boolean accessOrder;
+    private LinkedNode<K, V> head;
+    private LinkedNode<K, V> tail;
+
+    static final class LinkedNode<K, V> extends Node<K, V> {
+        LinkedNode<K, V> before;
+        LinkedNode<K, V> after;
+
+        LinkedNode(K key, V value, int hash) {
+            super(key, value, hash);
+        }
+    }
+
+    public LinkedHashTable() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    public LinkedHashTable(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param accessOrder true for access order, false for insertion order
+     */
+    public LinkedHashTable(int capacity, boolean accessOrder) {
+        super(capacity);
+        this.accessOrder = accessOrder;
+    }
+
+    /**
+     * Creates access ordered table which removes the least recently used node when its size exceeds maxSize
+     *
+     * @throws IllegalArgumentException if maxSize isn't positive
+     */
+    public static <K, V> LinkedHashTable<K, V> lruCache(int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("Max size must be positive");
+        return new LinkedHashTable<>(maxSize, true) {
+            @Override
+            protected boolean removeEldest(HashNode<K, V> eldest) {
+                return getSize() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns true if the eldest node should be removed after insertion of the new node.
+     * Table never removes nodes by default
+     *
+     * @param eldest the least recently inserted or accessed node
+     */
+    protected boolean removeEldest(HashNode<K, V> eldest) {
+        return false;
+    }
+
+    /**
+     * Returns the least recently inserted or accessed node or null if the table is empty
+     */
+    public HashNode<K, V> getEldest() {
+        return head;
+    }
+
+    public boolean isAccessOrder() {
+        return accessOrder;
+    }
+
+    @Override
+    Node<K, V> newNode(K key, V value, int hash) {
+        return new LinkedNode<>(key, value, hash);
+    }
+
+    @Override
+    boolean hasNodeHooks() {
+        return true;
+    }
+
+    @Override
+    void afterNodeInsertion(Node<K, V> node) {
+        linkLast((LinkedNode<K, V>) node);
+        LinkedNode<K, V> eldest = head;
+        if (eldest != null && removeEldest(eldest)) removeNode(eldest);
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        if (!accessOrder || node == tail) return;
+        LinkedNode<K, V> linkedNode = (LinkedNode<K, V>) node;
+        unlink(linkedNode);
+        linkLast(linkedNode);
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        unlink((LinkedNode<K, V>) node);
+    }
+
+    private void linkLast(LinkedNode<K, V> node) {
+        node.before = tail;
+        node.after = null;
+        if (tail == null) head = node;
+        else tail.after = node;
+        tail = node;
+    }
+
+    private void unlink(LinkedNode<K, V> node) {
+        if (node.before == null) head = node.after;
+        else node.before.after = node.after;
+        if (node.after == null) tail = node.before;
+        else node.after.before = node.before;
+        node.before = null;
+        node.after = null;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        head = null;
+        tail = null;
+    }
+
+    @Override
+    Iterator<HashNode<K, V>> nodesIterator() {
+        return new LinkedNodesIterator();
+    }
+
+    /**
+     * Link order can't be split by buckets, so the nodes are traversed sequentially in link order
+     */
+    @Override
+    Spliterator<HashNode<K, V>> nodesSpliterator() {
+        return Spliterators.spliterator(nodesIterator(), getSize(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new Iterator<>() {
+            private final LinkedNodesIterator nodes = new LinkedNodesIterator();
+
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return nodes.next().getKey();
+            }
+        };
+    }
+
+    private class LinkedNodesIterator implements Iterator<HashNode<K, V>> {
+        private LinkedNode<K, V> current = head;
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        public HashNode<K, V> next() {
+            if (current == null) throw new NoSuchElementException();
+            LinkedNode<K, V> node = current;
+            current = current.after;
+            return node;
+        }
+    }
+}
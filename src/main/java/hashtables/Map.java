@@ -1,5 +1,8 @@
 package hashtables;
 
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 public interface Map<K, V> {
 
     void add(K key, V value);
@@ -18,4 +21,81 @@ public interface Map<K, V> {
 
     int getSize();
 
+    /**
+     * Returns the latest value of the key or defaultValue if key not found
+     */
+    default V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null || containsKey(key) ? value : defaultValue;
+    }
+
+    /**
+     * Associates value with the key if key has no value yet
+     *
+     * @return current value of the key or null if value was added
+     */
+    default V putIfAbsent(K key, V value) {
+        V current = get(key);
+        if (current == null) setLatest(key, value);
+        return current;
+    }
+
+    /**
+     * Computes value for the key if key has no value yet
+     *
+     * @return current or computed value of the key
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V current = get(key);
+        if (current != null) return current;
+        V value = mappingFunction.apply(key);
+        if (value != null) setLatest(key, value);
+        return value;
+    }
+
+    /**
+     * Recomputes the latest value of the key if key has a value, the key is removed if function returns null
+     *
+     * @return new value of the key or null if key has no value
+     */
+    default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        V current = get(key);
+        if (current == null) return null;
+        V value = remappingFunction.apply(key, current);
+        setLatest(key, value);
+        return value;
+    }
+
+    /**
+     * Computes new value for the key from the latest one (null if key not found),
+     * the key is removed if function returns null
+     *
+     * @return new value of the key
+     */
+    default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        V value = remappingFunction.apply(key, get(key));
+        setLatest(key, value);
+        return value;
+    }
+
+    /**
+     * Associates value with the key if key has no value, otherwise combines the latest value of the key with
+     * the specified one, the key is removed if function returns null
+     *
+     * @return new value of the key
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        V current = get(key);
+        V newValue = current == null ? value : remappingFunction.apply(current, value);
+        setLatest(key, newValue);
+        return newValue;
+    }
+
+    /**
+     * Replaces the latest value of the key by the specified value or removes it if the value is null
+     */
+    private void setLatest(K key, V value) {
+        if (containsKey(key)) delete(key);
+        if (value != null) add(key, value);
+    }
 }
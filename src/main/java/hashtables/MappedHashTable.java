@@ -0,0 +1,274 @@
+package hashtables;
+
+import additional.exceptions.NullableArgumentException;
+import additional.nodes.HashNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of the HashTable snapshot file which is mapped into memory and queried without deserializing.
+ * <p>
+ * Snapshot layout: header, entries [key length][value length][key][value] in order of HashTable.items,
+ * then the open-addressing index of entry hashes and entry offsets with linear probing.
+ * Entries never cross the boundaries of the mapped segments, so files larger than 2GB are supported.
+ * Values of the same key follow in the probe sequence in the order of HashTable.items,
+ * so get returns the latest value of the key like HashTable does.
+ */
+public class MappedHashTable<K, V> implements Map<K, V> {
+
+    private static final int MAGIC = 0x48545331;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_HEADER_SIZE = 8;
+    private static final int SEGMENT_SIZE = 1 << 30;
+    /**
+     * Offsets index of MAX_CAPACITY slots takes 1 GB, the larger one doesn't fit into the one mapped buffer,
+     * writer and reader both reject larger snapshots
+     */
+    private static final int MAX_CAPACITY = 1 << 27;
+    private static final int NULL_VALUE = -1;
+    private static final long EMPTY = 0;
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final MappedByteBuffer[] segments;
+    private final IntBuffer hashes;
+    private final LongBuffer offsets;
+    private final int size;
+    private final int mask;
+
+    private MappedHashTable(FileChannel channel, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) ;
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("File is not a HashTable snapshot");
+        }
+        this.size = header.getInt();
+        int capacity = header.getInt();
+        long indexOffset = header.getLong();
+        if (capacity <= 0 || capacity > MAX_CAPACITY || Integer.bitCount(capacity) != 1) {
+            throw new IOException("Index capacity of the snapshot is not supported");
+        }
+        this.mask = capacity - 1;
+        this.segments = new MappedByteBuffer[(int) ((indexOffset + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i * SEGMENT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, indexOffset - start));
+        }
+        this.hashes = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long) capacity * Integer.BYTES).asIntBuffer();
+        this.offsets = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset + (long) capacity * Integer.BYTES,
+                (long) capacity * Long.BYTES).asLongBuffer();
+    }
+
+    /**
+     * Maps the snapshot file into memory, the file may be changed or removed only after the view is collected
+     *
+     * @throws IOException if the file can't be read or it isn't a HashTable snapshot
+     */
+    public static <K, V> MappedHashTable<K, V> open(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        if (file == null || keyCodec == null || valueCodec == null) throw new NullableArgumentException();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedHashTable<>(channel, keyCodec, valueCodec);
+        }
+    }
+
+    /**
+     * Writes snapshot of the specified HashTable to the file streaming through HashTable.items,
+     * only the index of the snapshot is built in memory
+     *
+     * @throws IOException              if the file can't be written
+     * @throws IllegalArgumentException if the index of the table needs more than MAX_CAPACITY slots
+     */
+    public static <K, V> void write(HashTable<K, V> table, Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        if (table == null || file == null || keyCodec == null || valueCodec == null) {
+            throw new NullableArgumentException();
+        }
+        int capacity = getIndexCapacity(table.getSize());
+        int mask = capacity - 1;
+        int[] hashes = new int[capacity];
+        long[] offsets = new long[capacity];
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            SnapshotWriter writer = new SnapshotWriter(channel, HEADER_SIZE);
+            for (HashNode<K, V> node : table.items) {
+                byte[] key = keyCodec.encode(node.getKey());
+                byte[] value = node.getValue() == null ? null : valueCodec.encode(node.getValue());
+                long entrySize = ENTRY_HEADER_SIZE + (long) key.length + (value == null ? 0 : value.length);
+                if (entrySize > SEGMENT_SIZE) throw new IllegalArgumentException("Entry is too large for the snapshot");
+                long segmentEnd = (writer.position / SEGMENT_SIZE + 1) * SEGMENT_SIZE;
+                if (writer.position + entrySize > segmentEnd) writer.skip(segmentEnd - writer.position);
+                if (++count > mask) throw new IllegalStateException("HashTable was changed while writing the snapshot");
+                int hash = generateHash(key);
+                int slot = hash & mask;
+                while (offsets[slot] != EMPTY) slot = (slot + 1) & mask;
+                hashes[slot] = hash;
+                offsets[slot] = writer.position + 1;
+                writer.putInt(key.length);
+                writer.putInt(value == null ? NULL_VALUE : value.length);
+                writer.put(key);
+                if (value != null) writer.put(value);
+            }
+            writer.skip((Long.BYTES - writer.position % Long.BYTES) % Long.BYTES);
+            long indexOffset = writer.position;
+            for (int hash : hashes) writer.putInt(hash);
+            for (long offset : offsets) writer.putLong(offset);
+            writer.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(capacity).putLong(indexOffset).clear();
+            while (header.hasRemaining()) channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Buffered sequential writer which tracks position in the file
+     */
+    private static final class SnapshotWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        private long position;
+
+        SnapshotWriter(FileChannel channel, long position) throws IOException {
+            this.channel = channel;
+            this.position = position;
+            channel.position(position);
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        void putLong(long value) throws IOException {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+            position += Long.BYTES;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int written = 0; written < bytes.length; ) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+            position += bytes.length;
+        }
+
+        void skip(long count) throws IOException {
+            flush();
+            position += count;
+            channel.position(position);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        private void ensureRemaining(int count) throws IOException {
+            if (buffer.remaining() < count) flush();
+        }
+    }
+
+    private static int getIndexCapacity(int size) {
+        long cap = Math.max(2, Long.highestOneBit(Math.max(1, (long) size * 2) - 1) << 1);
+        if (cap > MAX_CAPACITY) throw new IllegalArgumentException("HashTable is too large for the snapshot");
+        return (int) cap;
+    }
+
+    private static int generateHash(byte[] key) {
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ h >>> 13;
+    }
+
+    /**
+     * Returns offset of the first entry of the specified key or -1 if key not found
+     */
+    private long findEntry(byte[] key) {
+        int hash = generateHash(key);
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long offset = offsets.get(slot);
+            if (offset == EMPTY) return -1;
+            if (hashes.get(slot) == hash && keyEquals(offset - 1, key)) return offset - 1;
+        }
+    }
+
+    private boolean keyEquals(long offset, byte[] key) {
+        ByteBuffer segment = segments[(int) (offset / SEGMENT_SIZE)];
+        int pos = (int) (offset % SEGMENT_SIZE);
+        if (segment.getInt(pos) != key.length) return false;
+        pos += ENTRY_HEADER_SIZE;
+        for (int i = 0; i < key.length; i++) {
+            if (segment.get(pos + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) return null;
+        long offset = findEntry(keyCodec.encode(key));
+        if (offset == -1) return null;
+        ByteBuffer segment = segments[(int) (offset / SEGMENT_SIZE)];
+        int pos = (int) (offset % SEGMENT_SIZE);
+        int keyLength = segment.getInt(pos), valueLength = segment.getInt(pos + 4);
+        if (valueLength == NULL_VALUE) return null;
+        return valueCodec.decode(segment, pos + ENTRY_HEADER_SIZE + keyLength, valueLength);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && findEntry(keyCodec.encode(key)) != -1;
+    }
+
+    /**
+     * @return count of the key-value pairs in the snapshot
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void add(K key, V value) {
+        throw new UnsupportedOperationException("MappedHashTable is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("MappedHashTable is read-only");
+    }
+
+    @Override
+    public V delete(K key) {
+        throw new UnsupportedOperationException("MappedHashTable is read-only");
+    }
+
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        throw new UnsupportedOperationException("MappedHashTable is read-only");
+    }
+
+    @Override
+    public boolean deleteValue(K key, V value) {
+        throw new UnsupportedOperationException("MappedHashTable is read-only");
+    }
+}
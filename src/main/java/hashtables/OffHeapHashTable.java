@@ -0,0 +1,447 @@
+package hashtables;
+
+import additional.exceptions.NullableArgumentException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HashTable which keeps keys, values and its index out of the java heap in direct ByteBuffers,
+ * so the count of java objects doesn't depend on the count of entries and GC never scans them.
+ * <p>
+ * Entries are appended to the slabs of slabSize bytes as [key length][value length][key][value],
+ * index is an open-addressing table of entry addresses and hashes with linear probing.
+ * Deleted and replaced entries leave garbage in the slabs which can be reclaimed by compact().
+ * Every key holds a single value, add replaces the previous value of the key.
+ * <p>
+ * Methods which accept ByteBuffer read bytes between its position and limit and don't change them,
+ * reads into the caller-supplied buffer don't allocate anything
+ */
+public class OffHeapHashTable implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_SLAB_SIZE = 1 << 26;
+    /**
+     * Address index of MAX_CAPACITY slots takes 1 GB, the next doubling doesn't fit into the one direct buffer
+     */
+    private static final int MAX_CAPACITY = 1 << 27;
+    private static final int MIN_CAPACITY = 1 << 1;
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int ENTRY_HEADER_SIZE = 8;
+    private static final long EMPTY = 0;
+
+    private final int slabSize;
+    private ByteBuffer[] slabs;
+    private int slabCount;
+    private int slabPos;
+    private LongBuffer addresses;
+    private IntBuffer hashes;
+    private int capacity;
+    private int mask;
+    private int size;
+    private long liveBytes;
+    private long garbageBytes;
+    private boolean closed;
+
+    public OffHeapHashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * @param capacity initial count of the index slots
+     * @param slabSize size of the every data slab in bytes, the largest entry must fit into the one slab
+     */
+    public OffHeapHashTable(int capacity, int slabSize) {
+        if (slabSize <= ENTRY_HEADER_SIZE) throw new IllegalArgumentException("Slab size is too small");
+        this.slabSize = slabSize;
+        this.slabs = new ByteBuffer[4];
+        initIndex(getPowerOfTwoCap(capacity));
+    }
+
+    private void initIndex(int capacity) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.addresses = ByteBuffer.allocateDirect(capacity << 3).asLongBuffer();
+        this.hashes = ByteBuffer.allocateDirect(capacity << 2).asIntBuffer();
+    }
+
+    /**
+     * Compute hash of the bytes between position and limit of the key
+     */
+    private int generateHash(ByteBuffer key) {
+        int h = 1;
+        for (int i = key.position(); i < key.limit(); i++) {
+            h = 31 * h + key.get(i);
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ h >>> 13;
+    }
+
+    private ByteBuffer slabOf(long address) {
+        return slabs[(int) (address >>> 32)];
+    }
+
+    private int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private int entrySize(long address) {
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        return ENTRY_HEADER_SIZE + slab.getInt(offset) + slab.getInt(offset + 4);
+    }
+
+    private boolean keyEquals(long address, ByteBuffer key) {
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        int keyLength = key.remaining();
+        if (slab.getInt(offset) != keyLength) return false;
+        offset += ENTRY_HEADER_SIZE;
+        for (int i = 0, keyPos = key.position(); i < keyLength; i++) {
+            if (slab.get(offset + i) != key.get(keyPos + i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns slot of the specified key or the empty slot where the key should be placed
+     */
+    private int findSlot(ByteBuffer key, int hash) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long address = addresses.get(slot);
+            if (address == EMPTY) return slot;
+            if (hashes.get(slot) == hash && keyEquals(address - 1, key)) return slot;
+        }
+    }
+
+    /**
+     * Appends entry to the current slab, opens the new slab if entry doesn't fit
+     *
+     * @return address of the written entry
+     */
+    private long writeEntry(ByteBuffer key, ByteBuffer value) {
+        int entrySize = ENTRY_HEADER_SIZE + key.remaining() + value.remaining();
+        if (entrySize > slabSize || entrySize < 0) {
+            throw new IllegalArgumentException("Entry of " + entrySize + " bytes doesn't fit into the slab");
+        }
+        if (slabCount == 0 || slabPos + entrySize > slabSize) openSlab();
+        ByteBuffer slab = slabs[slabCount - 1];
+        long address = ((long) (slabCount - 1) << 32) | slabPos;
+        slab.putInt(slabPos, key.remaining());
+        slab.putInt(slabPos + 4, value.remaining());
+        slab.position(slabPos + ENTRY_HEADER_SIZE);
+        int keyPos = key.position(), valuePos = value.position();
+        slab.put(key).put(value);
+        key.position(keyPos);
+        value.position(valuePos);
+        slabPos += entrySize;
+        liveBytes += entrySize;
+        return address;
+    }
+
+    private void openSlab() {
+        if (slabCount == slabs.length) {
+            ByteBuffer[] newSlabs = new ByteBuffer[slabCount << 1];
+            System.arraycopy(slabs, 0, newSlabs, 0, slabCount);
+            slabs = newSlabs;
+        }
+        slabs[slabCount++] = ByteBuffer.allocateDirect(slabSize);
+        slabPos = 0;
+    }
+
+    /**
+     * Associates specified key with specified value, the previous value of the key becomes garbage
+     *
+     * @param key   bytes of the key between its position and limit
+     * @param value bytes of the value between its position and limit
+     * @throws NullableArgumentException if the specified key or value is null
+     * @throws IllegalStateException     if the table is closed or its index of the max capacity is full
+     */
+    public void add(ByteBuffer key, ByteBuffer value) {
+        ensureOpen();
+        if (key == null || value == null) throw new NullableArgumentException();
+        int hash = generateHash(key);
+        int slot = findSlot(key, hash);
+        long previous = addresses.get(slot);
+        if (previous == EMPTY && size + 1 >= capacity) {
+            throw new IllegalStateException("Out of the OffHeapHashTable index memory");
+        }
+        long address = writeEntry(key, value);
+        addresses.put(slot, address + 1);
+        hashes.put(slot, hash);
+        if (previous != EMPTY) {
+            releaseEntry(previous - 1);
+        } else if (++size >= capacity * LOAD_FACTOR) {
+            resizeIndex();
+        }
+    }
+
+    public void add(byte[] key, byte[] value) {
+        if (key == null || value == null) throw new NullableArgumentException();
+        add(ByteBuffer.wrap(key), ByteBuffer.wrap(value));
+    }
+
+    public void add(String key, String value) {
+        if (key == null || value == null) throw new NullableArgumentException();
+        add(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Copies value of the specified key into the out buffer starting from its position
+     * and advances the position of the out buffer, nothing is allocated
+     *
+     * @return length of the value or -1 if key not found
+     * @throws BufferOverflowException if the value doesn't fit into the remaining of the out buffer
+     * @throws IllegalStateException   if the table is closed
+     */
+    public int get(ByteBuffer key, ByteBuffer out) {
+        ensureOpen();
+        if (key == null || out == null) throw new NullableArgumentException();
+        long address = addresses.get(findSlot(key, generateHash(key)));
+        if (address == EMPTY) return -1;
+        ByteBuffer slab = slabOf(--address);
+        int offset = offsetOf(address);
+        int keyLength = slab.getInt(offset), valueLength = slab.getInt(offset + 4);
+        if (valueLength > out.remaining()) throw new BufferOverflowException();
+        int start = offset + ENTRY_HEADER_SIZE + keyLength;
+        slab.limit(start + valueLength).position(start);
+        out.put(slab);
+        slab.limit(slab.capacity());
+        return valueLength;
+    }
+
+    /**
+     * Returns length of the value of the specified key or -1 if key not found
+     */
+    public int getValueLength(ByteBuffer key) {
+        ensureOpen();
+        if (key == null) throw new NullableArgumentException();
+        long address = addresses.get(findSlot(key, generateHash(key)));
+        if (address == EMPTY) return -1;
+        return slabOf(address - 1).getInt(offsetOf(address - 1) + 4);
+    }
+
+    /**
+     * Returns copy of the value of the specified key or null if key not found
+     */
+    public byte[] get(byte[] key) {
+        if (key == null) throw new NullableArgumentException();
+        ByteBuffer wrappedKey = ByteBuffer.wrap(key);
+        int length = getValueLength(wrappedKey);
+        if (length == -1) return null;
+        byte[] value = new byte[length];
+        get(wrappedKey, ByteBuffer.wrap(value));
+        return value;
+    }
+
+    public String get(String key) {
+        if (key == null) throw new NullableArgumentException();
+        byte[] value = get(key.getBytes(StandardCharsets.UTF_8));
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    public boolean containsKey(ByteBuffer key) {
+        ensureOpen();
+        if (key == null) return false;
+        return addresses.get(findSlot(key, generateHash(key))) != EMPTY;
+    }
+
+    public boolean containsKey(byte[] key) {
+        return key != null && containsKey(ByteBuffer.wrap(key));
+    }
+
+    public boolean containsKey(String key) {
+        return key != null && containsKey(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Removes key with associated value, bytes of the entry become garbage
+     *
+     * @return true if key was removed otherwise false
+     * @throws IllegalStateException if the table is closed
+     */
+    public boolean delete(ByteBuffer key) {
+        ensureOpen();
+        if (key == null) throw new NullableArgumentException();
+        int slot = findSlot(key, generateHash(key));
+        long address = addresses.get(slot);
+        if (address == EMPTY) return false;
+        releaseEntry(address - 1);
+        removeSlot(slot);
+        size--;
+        return true;
+    }
+
+    public boolean delete(byte[] key) {
+        if (key == null) throw new NullableArgumentException();
+        return delete(ByteBuffer.wrap(key));
+    }
+
+    public boolean delete(String key) {
+        if (key == null) throw new NullableArgumentException();
+        return delete(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void releaseEntry(long address) {
+        int entrySize = entrySize(address);
+        liveBytes -= entrySize;
+        garbageBytes += entrySize;
+    }
+
+    /**
+     * Empties the slot and moves back following slots of the cluster which can be reached from their home slots
+     */
+    private void removeSlot(int slot) {
+        int last = slot;
+        for (int next = (slot + 1) & mask; addresses.get(next) != EMPTY; next = (next + 1) & mask) {
+            int hash = hashes.get(next);
+            if (((next - (hash & mask)) & mask) >= ((next - last) & mask)) {
+                addresses.put(last, addresses.get(next));
+                hashes.put(last, hash);
+                last = next;
+            }
+        }
+        addresses.put(last, EMPTY);
+    }
+
+    /**
+     * Doubles the index, entries in the slabs aren't touched.
+     * Index of MAX_CAPACITY isn't resized, add throws when only one free slot is left
+     */
+    private void resizeIndex() {
+        if (capacity == MAX_CAPACITY) return;
+        LongBuffer oldAddresses = addresses;
+        IntBuffer oldHashes = hashes;
+        int oldCapacity = capacity;
+        initIndex(capacity << 1);
+        for (int i = 0; i < oldCapacity; i++) {
+            long address = oldAddresses.get(i);
+            if (address != EMPTY) {
+                int hash = oldHashes.get(i);
+                int slot = hash & mask;
+                while (addresses.get(slot) != EMPTY) slot = (slot + 1) & mask;
+                addresses.put(slot, address);
+                hashes.put(slot, hash);
+            }
+        }
+    }
+
+    /**
+     * Rewrites live entries into the new slabs and releases the old ones, so garbage bytes become zero
+     *
+     * @throws IllegalStateException if the table is closed
+     */
+    public void compact() {
+        ensureOpen();
+        ByteBuffer[] oldSlabs = slabs;
+        slabs = new ByteBuffer[4];
+        slabCount = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long address = addresses.get(slot);
+            if (address == EMPTY) continue;
+            address--;
+            ByteBuffer slab = oldSlabs[(int) (address >>> 32)];
+            int offset = offsetOf(address);
+            int keyLength = slab.getInt(offset), valueLength = slab.getInt(offset + 4);
+            int keyStart = offset + ENTRY_HEADER_SIZE;
+            ByteBuffer key = slab.duplicate();
+            key.limit(keyStart + keyLength).position(keyStart);
+            ByteBuffer value = slab.duplicate();
+            value.limit(keyStart + keyLength + valueLength).position(keyStart + keyLength);
+            addresses.put(slot, writeEntry(key, value) + 1);
+        }
+    }
+
+    /**
+     * Clear current table, slabs are kept for the following entries
+     */
+    public void clear() {
+        ensureOpen();
+        for (int i = 0; i < capacity; i++) {
+            addresses.put(i, EMPTY);
+        }
+        if (slabCount > 0) {
+            slabs[0].clear();
+            for (int i = 1; i < slabCount; i++) slabs[i] = null;
+            slabCount = 1;
+        }
+        slabPos = 0;
+        size = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+    }
+
+    /**
+     * Drops all the buffers of the table, their memory is returned to the system when they are collected.
+     * Any operation with the closed table throws IllegalStateException
+     */
+    @Override
+    public void close() {
+        closed = true;
+        slabs = null;
+        addresses = null;
+        hashes = null;
+        size = 0;
+        slabCount = 0;
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("OffHeapHashTable is closed");
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return count of the index slots
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSlabCount() {
+        return slabCount;
+    }
+
+    /**
+     * @return bytes allocated for the slabs and the index
+     */
+    public long getAllocatedBytes() {
+        return (long) slabCount * slabSize + (long) capacity * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * @return bytes of the entries which are reachable by keys
+     */
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * @return bytes of the deleted and replaced entries which are still kept in the slabs
+     */
+    public long getGarbageBytes() {
+        return garbageBytes;
+    }
+
+    /**
+     * @return part of the written slab bytes which are garbage, from 0 to 1
+     */
+    public double getFragmentation() {
+        long written = liveBytes + garbageBytes;
+        return written == 0 ? 0 : (double) garbageBytes / written;
+    }
+
+    private int getPowerOfTwoCap(int cap) {
+        if (cap <= MIN_CAPACITY) return MIN_CAPACITY;
+        if (cap >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit(cap - 1) << 1;
+    }
+}
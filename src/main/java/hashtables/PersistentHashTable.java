@@ -0,0 +1,446 @@
+package hashtables;
+
+import additional.exceptions.NullableArgumentException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash array mapped trie with structural sharing.
+ * Every level of the trie takes 5 bits of the key hash, nodes keep only present children in the compact arrays
+ * addressed by the bitmap, keys with the same full hash are kept in the collision nodes.
+ * <p>
+ * snapshot() takes O(1): snapshot shares the whole trie with this table and nodes shared by snapshots are never changed.
+ * Writes are transient: nodes created after the last snapshot are owned by this table and changed in place,
+ * shared nodes on the path of the write are copied first. So bulk load between snapshots costs like a mutable table
+ * and every snapshot is the consistent point-in-time version, which can be safely published to the readers.
+ * Every key holds a single value, add replaces the previous value of the key.
+ */
+public class PersistentHashTable<K, V> implements Iterable<K>, Map<K, V> {
+
+    private static final Object NOT_FOUND = new Object();
+    private static final int BITS = 5;
+    private static final int MAX_DEPTH = 8;
+
+    private Node root;
+    private int size;
+    private Object edit;
+
+    public PersistentHashTable() {
+        this(null, 0);
+    }
+
+    private PersistentHashTable(Node root, int size) {
+        this.root = root;
+        this.size = size;
+        this.edit = new Object();
+    }
+
+    /**
+     * Result of the write: whether the key was added or removed and the previous value of the key
+     */
+    private static final class Change {
+        boolean changed;
+        Object oldValue;
+    }
+
+    private abstract static class Node {
+        final Object edit;
+
+        Node(Object edit) {
+            this.edit = edit;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node assoc(Object edit, int shift, int hash, Object key, Object value, Change change);
+
+        abstract Node without(Object edit, int shift, int hash, Object key, Change change);
+
+        /**
+         * Returns keys and values of the node, key is null if the value is the child node
+         */
+        abstract Object[] array();
+    }
+
+    private static final class BitmapNode extends Node {
+        int bitmap;
+        Object[] array;
+
+        BitmapNode(Object edit, int bitmap, Object[] array) {
+            super(edit);
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) return NOT_FOUND;
+            int idx = index(bit) << 1;
+            Object k = array[idx], v = array[idx + 1];
+            if (k == null) return ((Node) v).find(shift + BITS, hash, key);
+            return key.equals(k) ? v : NOT_FOUND;
+        }
+
+        @Override
+        Node assoc(Object edit, int shift, int hash, Object key, Object value, Change change) {
+            int bit = bitpos(hash, shift);
+            int idx = index(bit) << 1;
+            if ((bitmap & bit) != 0) {
+                Object k = array[idx], v = array[idx + 1];
+                if (k == null) {
+                    Node child = ((Node) v).assoc(edit, shift + BITS, hash, key, value, change);
+                    return child == v ? this : editAndSet(edit, idx + 1, child);
+                }
+                if (key.equals(k)) {
+                    change.oldValue = v;
+                    return v == value ? this : editAndSet(edit, idx + 1, value);
+                }
+                change.changed = true;
+                Node child = createNode(edit, shift + BITS, k, v, hash, key, value);
+                BitmapNode node = ensureEditable(edit);
+                node.array[idx] = null;
+                node.array[idx + 1] = child;
+                return node;
+            }
+            change.changed = true;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            newArray[idx] = key;
+            newArray[idx + 1] = value;
+            System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+            if (this.edit == edit) {
+                bitmap |= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node without(Object edit, int shift, int hash, Object key, Change change) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int idx = index(bit) << 1;
+            Object k = array[idx], v = array[idx + 1];
+            if (k == null) {
+                Node child = ((Node) v).without(edit, shift + BITS, hash, key, change);
+                if (child == v) return this;
+                if (child == null) return removePair(edit, bit, idx);
+                if (child instanceof BitmapNode && child.array().length == 2 && child.array()[0] != null) {
+                    BitmapNode node = ensureEditable(edit);
+                    node.array[idx] = child.array()[0];
+                    node.array[idx + 1] = child.array()[1];
+                    return node;
+                }
+                return editAndSet(edit, idx + 1, child);
+            }
+            if (!key.equals(k)) return this;
+            change.changed = true;
+            change.oldValue = v;
+            return removePair(edit, bit, idx);
+        }
+
+        private Node removePair(Object edit, int bit, int idx) {
+            if (bitmap == bit) return null;
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+            if (this.edit == edit) {
+                bitmap ^= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap ^ bit, newArray);
+        }
+
+        private BitmapNode ensureEditable(Object edit) {
+            return this.edit == edit ? this : new BitmapNode(edit, bitmap, array.clone());
+        }
+
+        private BitmapNode editAndSet(Object edit, int i, Object value) {
+            BitmapNode node = ensureEditable(edit);
+            node.array[i] = value;
+            return node;
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        final int hash;
+        Object[] array;
+
+        CollisionNode(Object edit, int hash, Object[] array) {
+            super(edit);
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int idx = indexOf(key);
+            return idx == -1 ? NOT_FOUND : array[idx + 1];
+        }
+
+        @Override
+        Node assoc(Object edit, int shift, int hash, Object key, Object value, Change change) {
+            if (hash != this.hash) {
+                return new BitmapNode(edit, bitpos(this.hash, shift), new Object[]{null, this})
+                        .assoc(edit, shift, hash, key, value, change);
+            }
+            int idx = indexOf(key);
+            if (idx != -1) {
+                change.oldValue = array[idx + 1];
+                if (array[idx + 1] == value) return this;
+                CollisionNode node = ensureEditable(edit);
+                node.array[idx + 1] = value;
+                return node;
+            }
+            change.changed = true;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (this.edit == edit) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        @Override
+        Node without(Object edit, int shift, int hash, Object key, Change change) {
+            int idx = indexOf(key);
+            if (idx == -1) return this;
+            change.changed = true;
+            change.oldValue = array[idx + 1];
+            if (array.length == 2) return null;
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, array.length - idx - 2);
+            if (this.edit == edit) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        private CollisionNode ensureEditable(Object edit) {
+            return this.edit == edit ? this : new CollisionNode(edit, hash, array.clone());
+        }
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 0x1F);
+    }
+
+    private static int hashOf(Object key) {
+        int h = key.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Creates node of two keys which hashes are equal at the previous levels
+     */
+    private static Node createNode(Object edit, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hashOf(key1);
+        if (hash1 == hash2) return new CollisionNode(edit, hash1, new Object[]{key1, value1, key2, value2});
+        Change change = new Change();
+        return new BitmapNode(edit, 0, new Object[0])
+                .assoc(edit, shift, hash1, key1, value1, change)
+                .assoc(edit, shift, hash2, key2, value2, change);
+    }
+
+    /**
+     * Returns point-in-time version of the table in O(1).
+     * Snapshot and this table share all the nodes and can be changed independently, changes of one of them
+     * are never visible in the other one
+     */
+    public PersistentHashTable<K, V> snapshot() {
+        edit = new Object();
+        return new PersistentHashTable<>(root, size);
+    }
+
+    /**
+     * Associates specified key with specified value
+     *
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public void add(K key, V value) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        Change change = new Change();
+        int hash = hashOf(key);
+        if (root == null) root = new BitmapNode(edit, 0, new Object[0]);
+        root = root.assoc(edit, 0, hash, key, value, change);
+        if (change.changed) size++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null || root == null) return null;
+        Object value = root.find(0, hashOf(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null || root == null) return defaultValue;
+        Object value = root.find(0, hashOf(key), key);
+        return value == NOT_FOUND ? defaultValue : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && root != null && root.find(0, hashOf(key), key) != NOT_FOUND;
+    }
+
+    /**
+     * Removes key with associated value
+     *
+     * @return value of the specified key or null if key not found
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V delete(K key) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        if (root == null) return null;
+        Change change = new Change();
+        root = root.without(edit, 0, hashOf(key), key, change);
+        if (!change.changed) return null;
+        size--;
+        return (V) change.oldValue;
+    }
+
+    @Override
+    public boolean deleteValue(K key, V value) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        if (!containsKey(key)) return false;
+        V current = get(key);
+        if (value == null ? current != null : !value.equals(current)) return false;
+        delete(key);
+        return true;
+    }
+
+    /**
+     * Moves value of the oldKey to the newKey, the previous value of the newKey is replaced
+     *
+     * @return true if replacement done otherwise false
+     */
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        if (oldKey == null || newKey == null) throw new NullableArgumentException("Specified key must be not null");
+        if (!containsKey(oldKey)) return false;
+        add(newKey, delete(oldKey));
+        return true;
+    }
+
+    /**
+     * Clears this table, snapshots keep their keys
+     */
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Performs the action for every key-value pair
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null) throw new NullableArgumentException();
+        for (NodesIterator iterator = new NodesIterator(root); iterator.advance(); ) {
+            action.accept((K) iterator.key, (V) iterator.value);
+        }
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        NodesIterator nodes = new NodesIterator(root);
+        return new Iterator<>() {
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) ready = nodes.advance();
+                return ready;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ready = false;
+                return (K) nodes.key;
+            }
+        };
+    }
+
+    /**
+     * Depth-first traversal of the trie with the explicit stack
+     */
+    private static final class NodesIterator {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        Object key;
+        Object value;
+
+        NodesIterator(Node root) {
+            if (root == null) depth = -1;
+            else arrays[0] = root.array();
+        }
+
+        boolean advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int pos = positions[depth];
+                if (pos == array.length) {
+                    depth--;
+                    continue;
+                }
+                positions[depth] = pos + 2;
+                if (array[pos] == null) {
+                    arrays[++depth] = ((Node) array[pos + 1]).array();
+                    positions[depth] = 0;
+                    continue;
+                }
+                key = array[pos];
+                value = array[pos + 1];
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package hashtables;
+
+import additional.dynamicstring.DynamicLinkedString;
+import additional.dynamicstring.DynamicString;
+import additional.exceptions.NullableArgumentException;
+import additional.nodes.HashNode;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Open-addressing implementation of the {@link Map} which keeps keys, values and hashes in flat parallel arrays
+ * and resolves collisions by Robin Hood linear probing with backward-shift deletion.
+ * Like the {@link HashTable} it allows several values per key: the most recently added value is returned by get
+ */
+public class RobinHoodHashTable<K, V> implements Iterable<K>, Map<K, V> {
+
+    public static final int DEFAULT_CAPACITY = 32;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MIN_CAPACITY = 1 << 1;
+    private static final double LOAD_FACTOR = 0.8;
+    private static final int EMPTY = 0;
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int capacity;
+    private int mask;
+    private int size;
+    public final Items items;
+
+    private static class Entry<K, V> implements HashNode<K, V> {
+        final K key;
+        final V value;
+        final int hash;
+
+        Entry(K key, V value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public int getHash() {
+            return hash;
+        }
+    }
+
+    public RobinHoodHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RobinHoodHashTable(int capacity) {
+        this.capacity = getPowerOfTwoCap(capacity);
+        this.mask = this.capacity - 1;
+        this.size = 0;
+        items = new Items();
+    }
+
+    private void initTable(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+    }
+
+    /**
+     * Compute hashCode by key, zero hash is reserved for the empty slots
+     *
+     * @return computed non zero hashCode for specified key
+     */
+    private int generateHash(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return h == EMPTY ? 1 : h;
+    }
+
+    /**
+     * Returns distance between the slot and the home position of the element stored in it
+     */
+    private int probeDistance(int hash, int slot) {
+        return (slot - (hash & mask)) & mask;
+    }
+
+    /**
+     * Returns position of the first (the most recently added) element with specified key or -1 if key not found
+     */
+    private int findPos(K key, int hash) {
+        if (hashes == null) return -1;
+        for (int pos = hash & mask, dist = 0; ; pos = (pos + 1) & mask, dist++) {
+            int h = hashes[pos];
+            if (h == EMPTY || probeDistance(h, pos) < dist) return -1;
+            if (h == hash && key.equals(keys[pos])) return pos;
+        }
+    }
+
+    /**
+     * Returns position of the element with specified key and value or -1 if pair not found
+     */
+    private int findPos(K key, V value, int hash) {
+        if (hashes == null) return -1;
+        for (int pos = hash & mask, dist = 0; ; pos = (pos + 1) & mask, dist++) {
+            int h = hashes[pos];
+            if (h == EMPTY || probeDistance(h, pos) < dist) return -1;
+            if (h == hash && key.equals(keys[pos]) && Objects.equals(value, values[pos])) return pos;
+        }
+    }
+
+    /**
+     * Appends and associate specified key with specified value in the RobinHoodHashTable
+     * If the specified value equals the latest value of the key nothing will be changed
+     *
+     * @param key   key to associate with specified value
+     * @param value value to associate with specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public void add(K key, V value) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        if (hashes == null) initTable(capacity);
+        int hash = generateHash(key);
+        int latest = findPos(key, hash);
+        if (latest != -1 && Objects.equals(value, values[latest])) return;
+        if (size + 1 >= capacity * LOAD_FACTOR) resizeTable();
+        insert(key, value, hash);
+        size++;
+    }
+
+    /**
+     * Inserts entry by Robin Hood rule: the element takes the slot of the first element which is closer
+     * to its home position, so every cluster stays ordered by the home positions.
+     * The new value is also placed before the other values of the same key,
+     * so the first element of the key in the probe sequence always holds the latest value
+     */
+    private void insert(K key, V value, int hash) {
+        for (int pos = hash & mask, dist = 0; ; pos = (pos + 1) & mask, dist++) {
+            int h = hashes[pos];
+            if (h == EMPTY || probeDistance(h, pos) < dist || (h == hash && key.equals(keys[pos]))) {
+                shiftInsert(pos, key, value, hash);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Resize RobinHoodHashTable if current table full more than LOAD_FACTOR %
+     * Migration starts right after an empty slot, so the elements of one key keep their order in the new table
+     */
+    private void resizeTable() {
+        if (capacity == MAX_CAPACITY) {
+            if (size + 1 >= capacity) throw new IllegalStateException("Out of the RobinHoodHashTable memory");
+            return;
+        }
+        Object[] oldKeys = keys, oldValues = values;
+        int[] oldHashes = hashes;
+        int oldCapacity = capacity;
+        capacity <<= 1;
+        mask = capacity - 1;
+        initTable(capacity);
+        int start = 0;
+        while (oldHashes[start] != EMPTY) start++;
+        for (int i = 1; i <= oldCapacity; i++) {
+            int pos = (start + i) & (oldCapacity - 1);
+            if (oldHashes[pos] != EMPTY) {
+                placeAfterResize(oldKeys[pos], oldValues[pos], oldHashes[pos]);
+            }
+        }
+    }
+
+    /**
+     * Places the element into the new table by Robin Hood rule after the elements with the same home position
+     */
+    private void placeAfterResize(Object key, Object value, int hash) {
+        for (int pos = hash & mask, dist = 0; ; pos = (pos + 1) & mask, dist++) {
+            int h = hashes[pos];
+            if (h == EMPTY || probeDistance(h, pos) < dist) {
+                shiftInsert(pos, key, value, hash);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts the element to the specified position and shifts the rest of the cluster one slot forward
+     */
+    private void shiftInsert(int pos, Object key, Object value, int hash) {
+        while (hashes[pos] != EMPTY) {
+            Object k = keys[pos], v = values[pos];
+            int h = hashes[pos];
+            keys[pos] = key;
+            values[pos] = value;
+            hashes[pos] = hash;
+            key = k;
+            value = v;
+            hash = h;
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        hashes[pos] = hash;
+    }
+
+    /**
+     * Removes element at the specified position and shifts following displaced elements one slot back
+     */
+    private void removeAt(int pos) {
+        int next = (pos + 1) & mask;
+        while (hashes[next] != EMPTY && probeDistance(hashes[next], next) > 0) {
+            keys[pos] = keys[next];
+            values[pos] = values[next];
+            hashes[pos] = hashes[next];
+            pos = next;
+            next = (next + 1) & mask;
+        }
+        keys[pos] = null;
+        values[pos] = null;
+        hashes[pos] = EMPTY;
+        size--;
+    }
+
+    /**
+     * Removes key with the latest associated value
+     *
+     * @param key key for associated value from which to remove
+     * @return value of the specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V delete(K key) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        int pos = findPos(key, generateHash(key));
+        if (pos == -1) return null;
+        V value = (V) values[pos];
+        removeAt(pos);
+        return value;
+    }
+
+    /**
+     * Removes specified value which associated with the key
+     *
+     * @param key   key associated with value
+     * @param value value associated with key to remove
+     * @return true if value was removed otherwise false
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public boolean deleteValue(K key, V value) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        int pos = findPos(key, value, generateHash(key));
+        if (pos == -1) return false;
+        removeAt(pos);
+        return true;
+    }
+
+    /**
+     * Returns the latest value by key in the RobinHoodHashTable
+     *
+     * @param key key of value in the RobinHoodHashTable
+     * @return value by the specified key if key present otherwise null
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        int pos = findPos(key, generateHash(key));
+        return pos == -1 ? null : (V) values[pos];
+    }
+
+    /**
+     * Updates the latest value by the specified key
+     *
+     * @param key   key which associated value updates
+     * @param value value to update
+     * @return updated value if RobinHoodHashTable contains value by specified key
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V updateValue(K key, V value) {
+        if (key == null) throw new NullableArgumentException("Specified key must be not null");
+        int pos = findPos(key, generateHash(key));
+        if (pos == -1) return null;
+        V oldVal = (V) values[pos];
+        values[pos] = value;
+        return oldVal;
+    }
+
+    /**
+     * Replaces oldKey by newKey with saving the latest value of the oldKey
+     *
+     * @param oldKey old key of item to replace
+     * @param newKey new key to replace oldKey
+     * @return true if replacement done otherwise false
+     * @throws NullableArgumentException if (oldKey or newKey) is null
+     */
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        if (oldKey == null || newKey == null) throw new NullableArgumentException("Specified key must be not null");
+        if (findPos(oldKey, generateHash(oldKey)) == -1) return false;
+        add(newKey, delete(oldKey));
+        return true;
+    }
+
+    /**
+     * Returns true if RobinHoodHashTable contains key
+     *
+     * @param key key of the values in the RobinHoodHashTable
+     * @return true if RobinHoodHashTable contains specified key, otherwise false
+     */
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) return false;
+        return findPos(key, generateHash(key)) != -1;
+    }
+
+    /**
+     * Return if RobinHoodHashTable contains specified value
+     *
+     * @param value value of the all values in the RobinHoodHashTable
+     * @return true if value founded else false
+     */
+    public boolean containsValue(V value) {
+        return findValuePos(value) != -1;
+    }
+
+    /**
+     * Return first key by the specified value in the RobinHoodHashTable
+     *
+     * @param value value
+     * @return key which associated specified value in the RobinHoodHashTable if not found returns null
+     */
+    @SuppressWarnings("unchecked")
+    public K getKeyByValue(V value) {
+        int pos = findValuePos(value);
+        return pos == -1 ? null : (K) keys[pos];
+    }
+
+    private int findValuePos(V value) {
+        if (hashes == null) return -1;
+        for (int i = 0; i < capacity; i++) {
+            if (hashes[i] != EMPTY && Objects.equals(value, values[i])) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Provides get size of the RobinHoodHashTable
+     *
+     * @return size of the RobinHoodHashTable
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Provides get capacity of the RobinHoodHashTable
+     *
+     * @return capacity of the RobinHoodHashTable
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Clear current RobinHoodHashTable
+     */
+    @Override
+    public void clear() {
+        if (hashes == null) return;
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = null;
+            values[i] = null;
+            hashes[i] = EMPTY;
+        }
+        size = 0;
+    }
+
+    private int getPowerOfTwoCap(int cap) {
+        if (cap <= MIN_CAPACITY) return MIN_CAPACITY;
+        if (cap >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit(cap - 1) << 1;
+    }
+
+    public final class Items implements Iterable<HashNode<K, V>> {
+        @Override
+        public Iterator<HashNode<K, V>> iterator() {
+            return new NodesIterator();
+        }
+
+        private class NodesIterator implements Iterator<HashNode<K, V>> {
+            private int pos = nextOccupied(0);
+
+            @Override
+            public boolean hasNext() {
+                return pos < capacity;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public HashNode<K, V> next() {
+                if (pos >= capacity) throw new NoSuchElementException();
+                HashNode<K, V> node = new Entry<>((K) keys[pos], (V) values[pos], hashes[pos]);
+                pos = nextOccupied(pos + 1);
+                return node;
+            }
+        }
+    }
+
+    private int nextOccupied(int from) {
+        if (hashes == null) return capacity;
+        while (from < capacity && hashes[from] == EMPTY) from++;
+        return from;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new SelfIterator();
+    }
+
+    private class SelfIterator implements Iterator<K> {
+        private int pos = nextOccupied(0);
+
+        @Override
+        public boolean hasNext() {
+            return pos < capacity;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (pos >= capacity) throw new NoSuchElementException();
+            K key = (K) keys[pos];
+            pos = nextOccupied(pos + 1);
+            return key;
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "{}";
+        }
+        DynamicString res = new DynamicLinkedString("{");
+        for (int i = 0; i < capacity; i++) {
+            if (hashes[i] != EMPTY) {
+                res.add("[").add(keys[i]).add(":").add(values[i]).add("], ");
+            }
+        }
+        return res.replace(res.getSize() - 2, "}").toString();
+    }
+}
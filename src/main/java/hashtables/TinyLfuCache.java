@@ -0,0 +1,391 @@
+package hashtables;
+
+import additional.exceptions.NullableArgumentException;
+import sets.BloomFilter;
+
+/**
+ * Bounded cache with W-TinyLFU admission policy.
+ * New keys enter the small window LRU, keys which leave the window compete with the eldest key
+ * of the probation segment of the main SLRU region and only the more frequent of them stays.
+ * Keys read again in the probation segment are promoted to the protected segment.
+ * <p>
+ * Frequencies are estimated by the count-min sketch of 4-bit counters.
+ * BloomFilter doorkeeper takes the first occurrence of every key, so one-hit wonders never reach the sketch.
+ * After every sampleSize recorded accesses counters are halved and doorkeeper is cleared,
+ * so the old popularity fades away.
+ * Every key holds a single value, add replaces the previous value of the key.
+ */
+public class TinyLfuCache<K, V> implements Map<K, V> {
+
+    public static final int DEFAULT_WINDOW_PERCENT = 1;
+    private static final double PROTECTED_PERCENT = 0.8;
+    private static final int SAMPLE_FACTOR = 10;
+
+    private final HashTable<K, CacheNode<K, V>> index;
+    private final AccessQueue<K, V> window;
+    private final AccessQueue<K, V> probation;
+    private final AccessQueue<K, V> protectedQueue;
+    private final FrequencySketch sketch;
+    private final int maximumSize;
+    private final int maxWindowSize;
+    private final int maxProtectedSize;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final class CacheNode<K, V> {
+        final K key;
+        final int hash;
+        V value;
+        int queue;
+        CacheNode<K, V> prev;
+        CacheNode<K, V> next;
+
+        CacheNode(K key, V value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * LRU queue of the cache nodes, the eldest node is placed at the head
+     */
+    private static final class AccessQueue<K, V> {
+        private final CacheNode<K, V> sentinel = new CacheNode<>(null, null, 0);
+        private int size;
+
+        AccessQueue() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        CacheNode<K, V> peekFirst() {
+            return size == 0 ? null : sentinel.next;
+        }
+
+        void addLast(CacheNode<K, V> node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+            size++;
+        }
+
+        void remove(CacheNode<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(CacheNode<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+
+        void clear() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            size = 0;
+        }
+    }
+
+    /**
+     * Count-min sketch of four rows, 4-bit counters are packed by 16 into the long words.
+     * Counters of the one key are placed in the different words and the same group of the every word
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final BloomFilter<Object> doorkeeper;
+        private final int sampleSize;
+        private int additions;
+        private long resetCount;
+
+        FrequencySketch(int maximumSize) {
+            int length = Integer.highestOneBit(Math.max(2, maximumSize) - 1) << 1;
+            this.table = new long[length];
+            this.tableMask = length - 1;
+            this.doorkeeper = new BloomFilter<>(length);
+            this.sampleSize = (int) Math.min((long) SAMPLE_FACTOR * maximumSize, Integer.MAX_VALUE);
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & tableMask;
+        }
+
+        /**
+         * Records access to the key, the first occurrence is kept by doorkeeper only
+         */
+        void increment(int hash) {
+            if (doorkeeper.addHash(hash)) {
+                if (++additions >= sampleSize) reset();
+                return;
+            }
+            int start = (hash & 3) << 2;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = indexOf(hash, row);
+                int offset = (start + row) << 2;
+                if (((table[index] >>> offset) & 0xFL) != 0xFL) table[index] += 1L << offset;
+            }
+            if (++additions >= sampleSize) reset();
+        }
+
+        int frequency(int hash) {
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int count = (int) ((table[indexOf(hash, row)] >>> ((start + row) << 2)) & 0xFL);
+                frequency = Math.min(frequency, count);
+            }
+            return doorkeeper.containsHash(hash) ? frequency + 1 : frequency;
+        }
+
+        /**
+         * Halves all the counters and clears doorkeeper
+         */
+        void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            doorkeeper.clear();
+            additions >>>= 1;
+            resetCount++;
+        }
+
+        void clear() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = 0;
+            }
+            doorkeeper.clear();
+            additions = 0;
+        }
+    }
+
+    public TinyLfuCache(int maximumSize) {
+        this(maximumSize, DEFAULT_WINDOW_PERCENT);
+    }
+
+    /**
+     * @param maximumSize   maximum count of the keys in the cache
+     * @param windowPercent part of the maximumSize in percents which is taken by the window LRU
+     * @throws IllegalArgumentException if maximumSize isn't positive or windowPercent isn't between 0 and 100
+     */
+    public TinyLfuCache(int maximumSize, int windowPercent) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("Maximum size must be positive");
+        if (windowPercent < 0 || windowPercent > 100) throw new IllegalArgumentException("Window percent must be between 0 and 100");
+        this.maximumSize = maximumSize;
+        this.maxWindowSize = Math.max(1, (int) ((long) maximumSize * windowPercent / 100));
+        this.maxProtectedSize = (int) ((maximumSize - maxWindowSize) * PROTECTED_PERCENT);
+        this.index = new HashTable<>();
+        this.window = new AccessQueue<>();
+        this.probation = new AccessQueue<>();
+        this.protectedQueue = new AccessQueue<>();
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45D9F3B;
+        x = ((x >>> 16) ^ x) * 0x45D9F3B;
+        return (x >>> 16) ^ x;
+    }
+
+    private AccessQueue<K, V> queueOf(CacheNode<K, V> node) {
+        if (node.queue == WINDOW) return window;
+        return node.queue == PROBATION ? probation : protectedQueue;
+    }
+
+    /**
+     * Moves node to the tail of its queue, node of the probation segment is promoted to the protected one
+     */
+    private void onAccess(CacheNode<K, V> node) {
+        if (node.queue != PROBATION) {
+            queueOf(node).moveToLast(node);
+            return;
+        }
+        probation.remove(node);
+        node.queue = PROTECTED;
+        protectedQueue.addLast(node);
+        if (protectedQueue.size > maxProtectedSize) {
+            CacheNode<K, V> demoted = protectedQueue.peekFirst();
+            protectedQueue.remove(demoted);
+            demoted.queue = PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * Moves the eldest node of the overflowed window into the probation segment
+     * and evicts the less frequent of it and the probation victim if the cache is full
+     */
+    private void evict() {
+        if (window.size <= maxWindowSize) return;
+        CacheNode<K, V> candidate = window.peekFirst();
+        window.remove(candidate);
+        candidate.queue = PROBATION;
+        probation.addLast(candidate);
+        while (index.getSize() > maximumSize) {
+            CacheNode<K, V> victim = probation.peekFirst();
+            if (victim == candidate || victim == null) victim = protectedQueue.peekFirst();
+            if (victim == null || candidate != null && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                victim = candidate;
+            }
+            if (victim == candidate) candidate = null;
+            removeNode(victim);
+            evictionCount++;
+        }
+    }
+
+    private void removeNode(CacheNode<K, V> node) {
+        queueOf(node).remove(node);
+        index.delete(node.key);
+    }
+
+    /**
+     * Associates specified key with specified value, may evict other key if cache is full
+     *
+     * @throws NullableArgumentException if the specified key is null
+     */
+    @Override
+    public void add(K key, V value) {
+        if (key == null) throw new NullableArgumentException();
+        CacheNode<K, V> node = index.get(key);
+        sketch.increment(node == null ? spread(key.hashCode()) : node.hash);
+        if (node != null) {
+            node.value = value;
+            onAccess(node);
+            return;
+        }
+        node = new CacheNode<>(key, value, spread(key.hashCode()));
+        index.add(key, node);
+        window.addLast(node);
+        evict();
+    }
+
+    /**
+     * Returns value of the key or null if key not found, access is recorded in the frequency sketch
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) return null;
+        CacheNode<K, V> node = index.get(key);
+        sketch.increment(node == null ? spread(key.hashCode()) : node.hash);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && index.containsKey(key);
+    }
+
+    @Override
+    public V delete(K key) {
+        if (key == null) throw new NullableArgumentException();
+        CacheNode<K, V> node = index.get(key);
+        if (node == null) return null;
+        removeNode(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean deleteValue(K key, V value) {
+        if (key == null) throw new NullableArgumentException();
+        CacheNode<K, V> node = index.get(key);
+        if (node == null || !(value == null ? node.value == null : value.equals(node.value))) return false;
+        removeNode(node);
+        return true;
+    }
+
+    /**
+     * Moves value of the oldKey to the newKey, the previous value of the newKey is removed
+     *
+     * @return true if replacement done otherwise false
+     */
+    @Override
+    public boolean replace(K oldKey, K newKey) {
+        if (oldKey == null || newKey == null) throw new NullableArgumentException();
+        CacheNode<K, V> node = index.get(oldKey);
+        if (node == null) return false;
+        if (oldKey.equals(newKey)) return true;
+        delete(newKey);
+        removeNode(node);
+        add(newKey, node.value);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+        window.clear();
+        probation.clear();
+        protectedQueue.clear();
+        sketch.clear();
+    }
+
+    @Override
+    public int getSize() {
+        return index.getSize();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns estimated frequency of the key
+     */
+    public int frequency(K key) {
+        if (key == null) throw new NullableArgumentException();
+        return sketch.frequency(spread(key.hashCode()));
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns count of the sketch agings, every aging halves all the frequencies
+     */
+    public long getAgingCount() {
+        return sketch.resetCount;
+    }
+
+    /**
+     * Returns part of the reads which found the key, from 0 to 1
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1 : (double) hitCount / requests;
+    }
+
+    public void resetStats() {
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+    }
+}
@@ -0,0 +1,159 @@
+package sets;
+
+import additional.exceptions.NullableArgumentException;
+
+/**
+ * Bloom filter which keeps all the bits of the element in one 64-byte block of eight long words,
+ * so add and contains touch one cache line instead of k random ones.
+ * Blocks start after the padding which moves the first of them past the array header to the 64-byte boundary:
+ * G1 allocates the arrays of the filters larger than half of the region at the start of the region and never moves them,
+ * so every block of such a filter is exactly one cache line.
+ * The block is chosen by the first half of the 128-bit hash, the second half sets one bit in every word of the block
+ * (k = 8). Confined bits give higher false positive probability than the classic layout with the same size,
+ * so the builder takes more bits per element for the same target probability
+ */
+public class BlockedBloomFilter<T> {
+
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BYTES = BLOCK_WORDS * Long.BYTES;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int FIRST_WORD = (BLOCK_BYTES - ARRAY_HEADER_BYTES) / Long.BYTES;
+    private static final int BLOCK_BITS = BLOCK_WORDS * Long.SIZE;
+    private static final int MAX_BLOCKS = (Integer.MAX_VALUE - 8 - FIRST_WORD) / BLOCK_WORDS;
+    private static final long[] SALTS = {
+            0x47B6137B44974D91L, 0x8824AD5BA2B7289DL, 0x705495C72DF1424BL, 0x9EFC49475C6BFB31L,
+            0xA2B0A7F5B6E3D9C5L, 0x3D2F5E8C1B4A6F97L, 0xD6E8FEB86659FD93L, 0xC13FA9A902A6328FL
+    };
+
+    private final long[] blocks;
+    private final int blockCount;
+    private final Funnel<? super T> funnel;
+    private int size;
+
+    private BlockedBloomFilter(int blockCount, Funnel<? super T> funnel) {
+        this.blocks = new long[FIRST_WORD + blockCount * BLOCK_WORDS];
+        this.blockCount = blockCount;
+        this.funnel = funnel;
+    }
+
+    public static <T> BloomFilterBuilder<T, BlockedBloomFilter<T>> builder(Funnel<? super T> funnel) {
+        if (funnel == null) throw new NullableArgumentException();
+        return new BloomFilterBuilder<>(funnel, BlockedBloomFilter::create);
+    }
+
+    /**
+     * Creates filter with the least number of bits per element which gives the target probability
+     *
+     * @throws IllegalArgumentException if the filter needs more blocks than the array can hold
+     */
+    private static <T> BlockedBloomFilter<T> create(Funnel<? super T> funnel, long expectedInsertions,
+                                                    double falsePositiveProbability) {
+        double bitsPerElement = 1;
+        while (bitsPerElement < BLOCK_BITS && falsePositiveProbability(bitsPerElement) > falsePositiveProbability) {
+            bitsPerElement += 0.25;
+        }
+        double blocks = Math.ceil(expectedInsertions * bitsPerElement / BLOCK_BITS);
+        if (blocks > MAX_BLOCKS) throw new IllegalArgumentException("Filter is too large");
+        return new BlockedBloomFilter<>((int) blocks, funnel);
+    }
+
+    /**
+     * Returns false positive probability of the full filter with the specified bits per element:
+     * number of elements in the block is Poisson distributed, probability is averaged over it
+     */
+    static double falsePositiveProbability(double bitsPerElement) {
+        double mean = BLOCK_BITS / bitsPerElement;
+        double poisson = Math.exp(-mean), probability = 0;
+        int last = (int) (mean + 10 * Math.sqrt(mean) + 10);
+        for (int elements = 0; elements <= last; elements++) {
+            if (elements > 0) poisson *= mean / elements;
+            double wordFill = 1 - Math.pow(1 - 1.0 / Long.SIZE, elements);
+            probability += poisson * Math.pow(wordFill, BLOCK_WORDS);
+        }
+        return probability;
+    }
+
+    /**
+     * Returns index of the first word of the block
+     */
+    private int blockOf(long h1) {
+        return (int) (((h1 >>> 32) * blockCount) >>> 32) * BLOCK_WORDS + FIRST_WORD;
+    }
+
+    /**
+     * @return true if at least one bit of the value wasn't set before
+     * @throws NullableArgumentException if value is null
+     */
+    public boolean add(T value) {
+        if (value == null) throw new NullableArgumentException();
+        BloomFilter.Hasher hasher = hash(value);
+        int block = blockOf(hasher.h1);
+        long changed = 0;
+        for (int i = 0; i < BLOCK_WORDS; i++) {
+            int index = block + i;
+            long word = blocks[index], bit = 1L << ((hasher.h2 * SALTS[i]) >>> 58);
+            changed |= ~word & bit;
+            blocks[index] = word | bit;
+        }
+        if (changed == 0) return false;
+        size++;
+        return true;
+    }
+
+    /**
+     * Tests all the bits of the block without branching
+     *
+     * @return false if the value was never added, true if it was probably added
+     */
+    public boolean contains(T value) {
+        if (value == null) return false;
+        BloomFilter.Hasher hasher = hash(value);
+        int block = blockOf(hasher.h1);
+        long missing = 0;
+        for (int i = 0; i < BLOCK_WORDS; i++) {
+            missing |= ~blocks[block + i] & 1L << ((hasher.h2 * SALTS[i]) >>> 58);
+        }
+        return missing == 0;
+    }
+
+    private BloomFilter.Hasher hash(T value) {
+        BloomFilter.Hasher hasher = new BloomFilter.Hasher();
+        funnel.funnel(value, hasher);
+        hasher.finish();
+        return hasher;
+    }
+
+    /**
+     * Resets all the bits of the filter
+     */
+    public void clear() {
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns number of additions which set at least one bit
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public long getBitCount() {
+        return (long) blockCount * BLOCK_BITS;
+    }
+
+    public int getHashCount() {
+        return BLOCK_WORDS;
+    }
+
+    /**
+     * Returns probability of the false positive for the current fill of the filter
+     */
+    public double getExpectedFalsePositiveProbability() {
+        long setBits = 0;
+        for (long word : blocks) setBits += Long.bitCount(word);
+        return Math.pow((double) setBits / getBitCount(), BLOCK_WORDS);
+    }
+}
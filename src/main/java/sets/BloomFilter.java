@@ -1,36 +1,230 @@
 package sets;
 
-import java.util.function.ToIntFunction;
+import additional.exceptions.NullableArgumentException;
 
-public class BloomFilter {
+/**
+ * Bloom filter with k bit positions per element derived by Kirsch–Mitzenmacher double hashing:
+ * position i is h1 + i * h2 modulo the number of bits.
+ * Filter created by the constructor hashes elements by hashCode and sets one bit per element,
+ * {@link #builder(Funnel)} sizes the filter by expected insertions and target false positive probability
+ * and hashes elements funneled into 128 bits
+ */
+public class BloomFilter<T> {
 
     private final long[] array;
+    private final long bitCount;
+    private final int hashCount;
+    private final Funnel<? super T> funnel;
     private int size;
-    private final ToIntFunction<String> hashFunction;
 
     public BloomFilter(int size) {
-        this.array = new long[size];
+        this(new long[size], 1, null);
+    }
+
+    private BloomFilter(long[] array, int hashCount, Funnel<? super T> funnel) {
+        this.array = array;
+        this.bitCount = (long) array.length << 6;
+        this.hashCount = hashCount;
+        this.funnel = funnel;
         this.size = 0;
-        this.hashFunction = String::hashCode;
     }
 
-    public boolean add(String value) {
-        int hash = getHash(hashFunction.applyAsInt(value));
-        long isContains = (array[hash >>> 6] |= 1L << hash);
-        if (isContains != 0) size++;
-        return isContains != 0;
+    public static <T> BloomFilterBuilder<T, BloomFilter<T>> builder(Funnel<? super T> funnel) {
+        if (funnel == null) throw new NullableArgumentException();
+        return new BloomFilterBuilder<>(funnel, BloomFilter::create);
+    }
+
+    /**
+     * Creates filter of m = -n * ln(p) / ln(2)^2 bits rounded up to the long words and k = m / n * ln(2) hashes
+     *
+     * @throws IllegalArgumentException if the filter needs more bits than the array can hold
+     */
+    private static <T> BloomFilter<T> create(Funnel<? super T> funnel, long expectedInsertions,
+                                             double falsePositiveProbability) {
+        double bits = Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        double words = Math.ceil(bits / 64);
+        if (words > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Filter is too large");
+        int hashCount = (int) Math.max(1, Math.round(bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter<>(new long[(int) words], hashCount, funnel);
+    }
+
+    /**
+     * @return true if at least one bit of the value wasn't set before
+     * @throws NullableArgumentException if value is null
+     */
+    public boolean add(T value) {
+        if (value == null) throw new NullableArgumentException();
+        if (funnel == null) return addHash(value.hashCode());
+        Hasher hasher = new Hasher();
+        funnel.funnel(value, hasher);
+        hasher.finish();
+        return setBits(hasher.h1, hasher.h2);
+    }
+
+    /**
+     * @return false if the value was never added, true if it was probably added
+     */
+    public boolean contains(T value) {
+        if (value == null) return false;
+        if (funnel == null) return containsHash(value.hashCode());
+        Hasher hasher = new Hasher();
+        funnel.funnel(value, hasher);
+        hasher.finish();
+        return testBits(hasher.h1, hasher.h2);
+    }
+
+    /**
+     * Adds element by its precomputed hash, so the filter can screen elements of any type
+     *
+     * @return true if at least one bit of the hash wasn't set before
+     */
+    public boolean addHash(int hash) {
+        return setBits(hash, secondHash(hash));
+    }
+
+    public boolean containsHash(int hash) {
+        return testBits(hash, secondHash(hash));
+    }
+
+    private static long secondHash(int hash) {
+        return Hasher.mix(hash) | 1;
+    }
+
+    private boolean setBits(long h1, long h2) {
+        boolean changed = false;
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++, combined += h2) {
+            long bit = Math.floorMod(combined, bitCount);
+            long word = array[(int) (bit >>> 6)];
+            if ((word & 1L << bit) == 0) {
+                array[(int) (bit >>> 6)] = word | 1L << bit;
+                changed = true;
+            }
+        }
+        if (changed) size++;
+        return changed;
     }
 
-    public boolean contains(String value) {
-        int hash = getHash(hashFunction.applyAsInt(value));
-        return (array[hash >>> 6] & (1L << hash)) != 0;
+    private boolean testBits(long h1, long h2) {
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++, combined += h2) {
+            long bit = Math.floorMod(combined, bitCount);
+            if ((array[(int) (bit >>> 6)] & 1L << bit) == 0) return false;
+        }
+        return true;
     }
 
+    /**
+     * Resets all the bits of the filter
+     */
+    public void clear() {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns number of additions which set at least one bit
+     */
     public int getSize() {
         return size;
     }
 
-    private int getHash(int hash) {
-        return hash & (array.length - 1);
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Returns probability of the false positive for the current fill of the filter
+     */
+    public double getExpectedFalsePositiveProbability() {
+        long setBits = 0;
+        for (long word : array) setBits += Long.bitCount(word);
+        return Math.pow((double) setBits / bitCount, hashCount);
+    }
+
+    /**
+     * Sink which hashes the funneled primitives into two 64-bit lanes
+     */
+    static final class Hasher implements Funnel.Sink {
+        private static final long C1 = 0x87C37B91114253D5L;
+        private static final long C2 = 0x4CF5AD432745937FL;
+
+        long h1 = 0x9E3779B97F4A7C15L;
+        long h2 = 0xC2B2AE3D27D4EB4FL;
+        private long length;
+
+        /**
+         * Finalizer of MurmurHash3
+         */
+        static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            return h ^ h >>> 33;
+        }
+
+        private void word(long value) {
+            h1 = Long.rotateLeft(h1 ^ mix(value * C1), 27) * 5 + 0x52DCE729;
+            h2 = Long.rotateLeft(h2 ^ mix(value * C2), 31) * 5 + 0x38495AB5;
+            length++;
+        }
+
+        @Override
+        public Funnel.Sink putInt(int value) {
+            word(value);
+            return this;
+        }
+
+        @Override
+        public Funnel.Sink putLong(long value) {
+            word(value);
+            return this;
+        }
+
+        @Override
+        public Funnel.Sink putBytes(byte[] bytes) {
+            long value = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                value |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+                if ((i & 7) == 7) {
+                    word(value);
+                    value = 0;
+                }
+            }
+            word(value ^ (long) bytes.length << 56);
+            return this;
+        }
+
+        @Override
+        public Funnel.Sink putChars(CharSequence chars) {
+            long value = 0;
+            for (int i = 0; i < chars.length(); i++) {
+                value |= (long) chars.charAt(i) << ((i & 3) << 4);
+                if ((i & 3) == 3) {
+                    word(value);
+                    value = 0;
+                }
+            }
+            word(value ^ (long) chars.length() << 48);
+            return this;
+        }
+
+        void finish() {
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = mix(h1);
+            h2 = mix(h2);
+            h1 += h2;
+            h2 += h1;
+        }
     }
 }
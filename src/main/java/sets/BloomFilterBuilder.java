@@ -0,0 +1,59 @@
+package sets;
+
+/**
+ * Builder of the bloom filters sized by expected insertions and target false positive probability,
+ * see {@link BloomFilter#builder(Funnel)} and {@link BlockedBloomFilter#builder(Funnel)}
+ *
+ * @param <T> type of the filtered elements
+ * @param <F> type of the built filter
+ */
+public final class BloomFilterBuilder<T, F> {
+
+    /**
+     * Creates the filter of the specified parameters which are already validated
+     */
+    interface Factory<T, F> {
+        F create(Funnel<? super T> funnel, long expectedInsertions, double falsePositiveProbability);
+    }
+
+    private final Funnel<? super T> funnel;
+    private final Factory<T, F> factory;
+    private long expectedInsertions = -1;
+    private double falsePositiveProbability = 0.01;
+
+    BloomFilterBuilder(Funnel<? super T> funnel, Factory<T, F> factory) {
+        this.funnel = funnel;
+        this.factory = factory;
+    }
+
+    /**
+     * @throws IllegalArgumentException if expectedInsertions isn't positive
+     */
+    public BloomFilterBuilder<T, F> expectedInsertions(long expectedInsertions) {
+        if (expectedInsertions <= 0) throw new IllegalArgumentException("Expected insertions must be positive");
+        this.expectedInsertions = expectedInsertions;
+        return this;
+    }
+
+    /**
+     * Target false positive probability, 0.01 by default
+     *
+     * @throws IllegalArgumentException if probability isn't between 0 and 1 exclusive
+     */
+    public BloomFilterBuilder<T, F> falsePositiveProbability(double falsePositiveProbability) {
+        if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+        }
+        this.falsePositiveProbability = falsePositiveProbability;
+        return this;
+    }
+
+    /**
+     * @throws IllegalStateException    if expected insertions weren't specified
+     * @throws IllegalArgumentException if the filter is too large
+     */
+    public F build() {
+        if (expectedInsertions < 0) throw new IllegalStateException("Expected insertions must be specified");
+        return factory.create(funnel, expectedInsertions, falsePositiveProbability);
+    }
+}
@@ -0,0 +1,33 @@
+package sets;
+
+/**
+ * Describes how the value is decomposed into primitives which are hashed by the BloomFilter.
+ * Composite keys put their fields one after another: {@code (user, sink) -> sink.putLong(user.id).putChars(user.name)}
+ */
+@FunctionalInterface
+public interface Funnel<T> {
+
+    Funnel<Long> LONG = (value, sink) -> sink.putLong(value);
+    Funnel<Integer> INTEGER = (value, sink) -> sink.putInt(value);
+    Funnel<byte[]> BYTE_ARRAY = (value, sink) -> sink.putBytes(value);
+    Funnel<CharSequence> CHAR_SEQUENCE = (value, sink) -> sink.putChars(value);
+
+    /**
+     * Puts the primitives of the value into the sink
+     */
+    void funnel(T value, Sink sink);
+
+    /**
+     * Receiver of the primitives
+     */
+    interface Sink {
+
+        Sink putInt(int value);
+
+        Sink putLong(long value);
+
+        Sink putBytes(byte[] bytes);
+
+        Sink putChars(CharSequence chars);
+    }
+}
@@ -3,23 +3,142 @@ package sets;
 import additional.dynamicstring.DynamicString;
 import additional.dynamicstring.DynamicLinkedString;
 import additional.exceptions.NullableArgumentException;
-import hashtables.HashTable;
+import hashtables.HashTableStats;
+import hashtables.HashingStrategy;
 import lists.List;
 import lists.impl.ArrayList;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
+/**
+ * Hash set which keeps elements and their hashes in two flat arrays without node objects,
+ * collisions are resolved by linear probing with backward-shift deletion
+ */
 public class HashedSet<E> implements Iterable<E>, Set<E> {
 
-    private final HashTable<E, Object> hashTable;
-    private static final Object VALUE = new Object();
+    public static final int DEFAULT_CAPACITY = 32;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MIN_CAPACITY = 1 << 1;
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    private Object[] elements;
+    private int[] hashes;
+    private int capacity;
+    private int mask;
+    private int size;
+    private final HashingStrategy<? super E> strategy;
+    private Counters stats;
+    private boolean parallel;
+
+    /**
+     * Live counters of the enabled stats
+     */
+    private static final class Counters {
+        long lookups;
+        long probes;
+        long inserts;
+        long removes;
+        long resizes;
+        long resizeNanos;
+    }
 
     public HashedSet() {
-        hashTable = new HashTable<>();
+        this(DEFAULT_CAPACITY, null);
     }
 
     public HashedSet(int capacity) {
-        hashTable = new HashTable<>(capacity);
+        this(capacity, null);
+    }
+
+    /**
+     * @param strategy hash and equality of the elements, natural hashCode and equals are used if strategy is null
+     */
+    public HashedSet(HashingStrategy<? super E> strategy) {
+        this(DEFAULT_CAPACITY, strategy);
+    }
+
+    public HashedSet(int capacity, HashingStrategy<? super E> strategy) {
+        this.strategy = strategy;
+        this.capacity = getPowerOfTwoCap(capacity);
+        this.mask = this.capacity - 1;
+    }
+
+    private void initTable(int capacity) {
+        elements = new Object[capacity];
+        hashes = new int[capacity];
+    }
+
+    private int generateHash(E element) {
+        int h = strategy == null ? element.hashCode() : strategy.hash(element);
+        h *= 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean elementEquals(E element, Object other) {
+        return strategy == null ? element.equals(other) : strategy.equals(element, (E) other);
+    }
+
+    /**
+     * Returns slot of the element or -(slot + 1) of the empty slot where the element should be placed
+     */
+    private int findSlot(E element, int hash) {
+        if (stats != null) stats.lookups++;
+        for (int pos = hash & mask; ; pos = (pos + 1) & mask) {
+            if (stats != null) stats.probes++;
+            Object current = elements[pos];
+            if (current == null) return -pos - 1;
+            if (hashes[pos] == hash && elementEquals(element, current)) return pos;
+        }
+    }
+
+    /**
+     * Moves all the elements into the table of the specified capacity
+     */
+    private void rehash(int newCapacity) {
+        long start = stats == null ? 0 : System.nanoTime();
+        Object[] oldElements = elements;
+        int[] oldHashes = hashes;
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        initTable(newCapacity);
+        if (oldElements != null) {
+            for (int i = 0; i < oldElements.length; i++) {
+                if (oldElements[i] == null) continue;
+                int pos = oldHashes[i] & mask;
+                while (elements[pos] != null) pos = (pos + 1) & mask;
+                elements[pos] = oldElements[i];
+                hashes[pos] = oldHashes[i];
+            }
+        }
+        if (stats != null) {
+            stats.resizes++;
+            stats.resizeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Removes element at the specified slot and shifts back the following elements of the cluster
+     * which can be placed closer to their home slots
+     */
+    private void removeAt(int pos) {
+        for (int next = (pos + 1) & mask; elements[next] != null; next = (next + 1) & mask) {
+            int home = hashes[next] & mask;
+            if (((next - home) & mask) >= ((next - pos) & mask)) {
+                elements[pos] = elements[next];
+                hashes[pos] = hashes[next];
+                pos = next;
+            }
+        }
+        elements[pos] = null;
+        hashes[pos] = 0;
+        size--;
+        if (stats != null) stats.removes++;
     }
 
     /**
@@ -44,11 +163,28 @@ public class HashedSet<E> implements Iterable<E>, Set<E> {
      * Add element to the Set
      *
      * @param element element to append
+     * @return true if element was added, false if the Set already contains it
      * @throws NullableArgumentException if the specified element is null
      */
     @Override
-    public void add(E element) {
-        hashTable.add(element, VALUE);
+    public boolean add(E element) {
+        if (element == null) throw new NullableArgumentException("Specified element must be not null");
+        if (elements == null) initTable(capacity);
+        int hash = generateHash(element);
+        int pos = findSlot(element, hash);
+        if (pos >= 0) return false;
+        if (size + 1 > capacity * LOAD_FACTOR && capacity < MAX_CAPACITY) {
+            rehash(capacity << 1);
+            pos = findSlot(element, hash);
+        } else if (size + 1 == capacity) {
+            throw new IllegalStateException("Out of the HashedSet memory");
+        }
+        pos = -pos - 1;
+        elements[pos] = element;
+        hashes[pos] = hash;
+        size++;
+        if (stats != null) stats.inserts++;
+        return true;
     }
 
     /**
@@ -60,62 +196,72 @@ public class HashedSet<E> implements Iterable<E>, Set<E> {
      */
     @Override
     public boolean delete(E element) {
-        return hashTable.delete(element) != null;
+        if (element == null) throw new NullableArgumentException("Specified element must be not null");
+        if (elements == null) return false;
+        int pos = findSlot(element, generateHash(element));
+        if (pos < 0) return false;
+        removeAt(pos);
+        return true;
     }
 
     /**
      * Return true if Set contains specified element
      *
      * @param element test element present in the Set
-     * @return true if element present in the set otherwise false
-     * @throws NullableArgumentException if the specified element is null
+     * @return true if element present in the set otherwise false, null is never present
      */
     @Override
     public boolean contains(E element) {
-        return hashTable.containsKey(element);
+        if (element == null || elements == null) return false;
+        return findSlot(element, generateHash(element)) >= 0;
     }
 
     @Override
     public Object[] toObjectArray() {
-        List<E> result = new ArrayList<>(hashTable.getSize() + 1);
-        for (E key : hashTable) result.add(key);
+        List<E> result = new ArrayList<>(size + 1);
+        for (E element : this) result.add(element);
         return result.toObjectArray();
     }
 
     /**
-     * Returns set of elements from the specified set which isn't presents in the specified set
-     * {1, 2, 3}.left({3, 4, 5, 6}) => {1, 2}
+     * Returns set of elements from the specified set which isn't presents in this set
+     * {1, 2, 3}.left({3, 4, 5, 6}) => {4, 5, 6}
+     * If the specified set is much bigger HashedSet, its arrays are copied and elements of this set are removed
      *
      * @throws NullableArgumentException if the specified set is null
      */
     @Override
     public HashedSet<E> left(Set<E> set) {
         if (set == null) throw new NullableArgumentException();
-        HashedSet<E> left = new HashedSet<>(hashTable.getCapacity());
-        for (E element : set) {
-            if (!this.contains(element)) left.add(element);
+        if (set instanceof HashedSet && isCopyCheaper((HashedSet<E>) set, this)) {
+            return copyWithout((HashedSet<E>) set, this);
         }
+        HashedSet<E> left = new HashedSet<>(capacityFor(set.getSize()), strategy);
+        filterInto(set, this, false, left);
         return left;
     }
 
     /**
-     * Returns set of elements from the specified set which isn't presents in this set
-     * {1, 2, 3}.right({3, 4, 5, 6}) => {4, 5, 6}
+     * Returns set of elements from this set which isn't presents in the specified set
+     * {1, 2, 3}.right({3, 4, 5, 6}) => {1, 2}
+     * If the specified set is much smaller HashedSet, arrays of this set are copied and its elements are removed
      *
      * @throws NullableArgumentException if the specified set is null
      */
     @Override
     public HashedSet<E> right(Set<E> set) {
         if (set == null) throw new NullableArgumentException();
-        HashedSet<E> right = new HashedSet<>(hashTable.getCapacity());
-        for (E element : this) {
-            if (!set.contains(element)) right.add(element);
+        if (set instanceof HashedSet && isCopyCheaper(this, (HashedSet<E>) set)) {
+            return copyWithout(this, (HashedSet<E>) set);
         }
+        HashedSet<E> right = new HashedSet<>(capacityFor(size), strategy);
+        filterInto(this, set, false, right);
         return right;
     }
 
     /**
-     * Returns set of crossing elements from this set and specified set
+     * Returns set of crossing elements from this set and specified set, the smaller set is iterated
+     * and the bigger one is probed
      * {1, 2, 3, 4}.between({1, 3, 4, 5, 6}) => {1, 3, 4}
      *
      * @throws NullableArgumentException if the specified set is null
@@ -123,15 +269,15 @@ public class HashedSet<E> implements Iterable<E>, Set<E> {
     @Override
     public HashedSet<E> between(Set<E> set) {
         if (set == null) throw new NullableArgumentException();
-        HashedSet<E> mid = new HashedSet<>();
-        for (E element : set) {
-            if (this.contains(element)) mid.add(element);
-        }
+        int setSize = set.getSize();
+        HashedSet<E> mid = new HashedSet<>(capacityFor(Math.min(size, setSize)), strategy);
+        if (setSize <= size) filterInto(set, this, true, mid);
+        else filterInto(this, set, true, mid);
         return mid;
     }
 
     /**
-     * Returns union of this set and specified set
+     * Returns union of this set and specified set, the bigger HashedSet is copied and the smaller one is added to it
      * {1, 2, 3, 4}.union({4, 5, 6}) => {1, 2, 3, 4, 5, 6}
      *
      * @return union of this and specified set
@@ -140,33 +286,181 @@ public class HashedSet<E> implements Iterable<E>, Set<E> {
     @Override
     public HashedSet<E> union(Set<E> set) {
         if (set == null) throw new NullableArgumentException();
-        HashedSet<E> union = new HashedSet<>((int) ((hashTable.getSize() + set.getSize()) * 1.4));
-        Iterator<E> foreignIterator = set.iterator();
-        Iterator<E> selfIterator = this.iterator();
-        while (foreignIterator.hasNext() && selfIterator.hasNext()) {
-            union.add(foreignIterator.next());
-            union.add(selfIterator.next());
+        if (set instanceof HashedSet && ((HashedSet<E>) set).strategy == strategy && set.getSize() > size) {
+            HashedSet<E> union = new HashedSet<>((HashedSet<E>) set);
+            union.addFrom(this);
+            return union;
         }
-        while (foreignIterator.hasNext()) {
-            union.add(foreignIterator.next());
+        HashedSet<E> union = size == 0 ? new HashedSet<>(capacityFor(set.getSize()), strategy) : new HashedSet<>(this);
+        union.addFrom(set);
+        return union;
+    }
+
+    /**
+     * Returns lazy view of elements from the specified set which aren't present in this set
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    public SetView<E> leftView(Set<E> set) {
+        return SetView.difference(set, this);
+    }
+
+    /**
+     * Returns lazy view of elements from this set which aren't present in the specified set
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    public SetView<E> rightView(Set<E> set) {
+        return SetView.difference(this, set);
+    }
+
+    /**
+     * Returns lazy view of crossing elements of this set and the specified set
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    public SetView<E> betweenView(Set<E> set) {
+        return SetView.between(this, set);
+    }
+
+    /**
+     * Returns lazy view of union of this set and the specified set
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    public SetView<E> unionView(Set<E> set) {
+        return SetView.union(this, set);
+    }
+
+    /**
+     * Enables parallel evaluation of left, right and between: when the iterated HashedSet has at least
+     * PARALLEL_THRESHOLD elements, its slots are filtered by the tasks of the common fork-join pool.
+     * The probed set must be safe for concurrent reads, so the parallel mode is used only if it is HashedSet
+     * without enabled stats
+     */
+    public HashedSet<E> setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    private HashedSet(HashedSet<E> source) {
+        this.strategy = source.strategy;
+        this.capacity = source.capacity;
+        this.mask = source.mask;
+        this.size = source.size;
+        if (source.elements != null) {
+            this.elements = source.elements.clone();
+            this.hashes = source.hashes.clone();
         }
-        while (selfIterator.hasNext()) {
-            union.add(selfIterator.next());
+    }
+
+    private static int capacityFor(int size) {
+        return (int) Math.min(MAX_CAPACITY, (long) (size / LOAD_FACTOR) + 1);
+    }
+
+    /**
+     * Copy of the source arrays is cheaper than probing of all its elements when the excluded set is small
+     */
+    private static <E> boolean isCopyCheaper(HashedSet<E> source, HashedSet<E> excluded) {
+        return source.strategy == excluded.strategy && excluded.size <= source.size >> 2;
+    }
+
+    private static <E> HashedSet<E> copyWithout(HashedSet<E> source, HashedSet<E> excluded) {
+        HashedSet<E> result = new HashedSet<>(source);
+        for (E element : excluded) result.delete(element);
+        return result;
+    }
+
+    /**
+     * Adds to the result elements of the source which are present (or absent) in the probed set.
+     * In the parallel mode the probes are made by tasks over the slot ranges of the source
+     * and the found elements are added sequentially
+     *
+     * @param present true to keep elements present in the probed set, false to keep absent ones
+     */
+    @SuppressWarnings("unchecked")
+    private void filterInto(Set<E> source, Set<E> probed, boolean present, HashedSet<E> result) {
+        if (!parallel || source.getSize() < PARALLEL_THRESHOLD || !(source instanceof HashedSet)
+                || !(probed instanceof HashedSet) || ((HashedSet<E>) probed).stats != null) {
+            for (E element : source) {
+                if (probed.contains(element) == present) result.add(element);
+            }
+            return;
+        }
+        Object[] slots = ((HashedSet<E>) source).elements;
+        int parts = ForkJoinPool.getCommonPoolParallelism() * 4;
+        int step = (slots.length + parts - 1) / parts;
+        Object[][] found = new Object[parts][];
+        int[] counts = new int[parts];
+        IntStream.range(0, parts).parallel().forEach(part -> {
+            Object[] buffer = new Object[16];
+            int count = 0;
+            for (int pos = part * step, end = Math.min(slots.length, pos + step); pos < end; pos++) {
+                if (slots[pos] != null && probed.contains((E) slots[pos]) == present) {
+                    if (count == buffer.length) buffer = Arrays.copyOf(buffer, count << 1);
+                    buffer[count++] = slots[pos];
+                }
+            }
+            found[part] = buffer;
+            counts[part] = count;
+        });
+        for (int part = 0; part < parts; part++) {
+            for (int i = 0; i < counts[part]; i++) result.add((E) found[part][i]);
         }
-        return union;
     }
 
     @Override
     public int getSize() {
-        return hashTable.getSize();
+        return size;
     }
 
     public int getCapacity() {
-        return hashTable.getCapacity();
+        return capacity;
+    }
+
+    /**
+     * Enables counting of lookups, probes, insertions, removals and resizes. Disabled stats cost
+     * one null check per operation; disabling drops the collected counters
+     */
+    public HashedSet<E> setStatsEnabled(boolean enabled) {
+        if (!enabled) stats = null;
+        else if (stats == null) stats = new Counters();
+        return this;
+    }
+
+    /**
+     * Returns snapshot of the counters. Elements have no chains, so the chain length histogram
+     * reports probe distances: histogram[i] elements are found after i + 1 probes
+     *
+     * @throws IllegalStateException if stats aren't enabled
+     */
+    public HashTableStats getStats() {
+        if (stats == null) throw new IllegalStateException("Stats of the HashedSet aren't enabled");
+        int[] histogram = new int[1];
+        if (elements != null) {
+            for (int pos = 0; pos < capacity; pos++) {
+                if (elements[pos] == null) continue;
+                int distance = (pos - (hashes[pos] & mask)) & mask;
+                if (distance >= histogram.length) histogram = Arrays.copyOf(histogram, distance + 1);
+                histogram[distance]++;
+            }
+        }
+        return new HashTableStats(size, capacity, histogram, stats.lookups, stats.probes, stats.inserts,
+                stats.removes, stats.resizes, stats.resizeNanos);
     }
 
+    /**
+     * Changes capacity of the Set, capacity is never less than required by the current size
+     */
     public void setCapacity(int cap) {
-        hashTable.setCapacity(cap);
+        int newCapacity = getPowerOfTwoCap(Math.max(cap, (int) Math.min(MAX_CAPACITY, (long) (size / LOAD_FACTOR) + 1)));
+        if (newCapacity == capacity) return;
+        if (elements == null) {
+            capacity = newCapacity;
+            mask = newCapacity - 1;
+        } else {
+            rehash(newCapacity);
+        }
     }
 
     /**
@@ -174,21 +468,54 @@ public class HashedSet<E> implements Iterable<E>, Set<E> {
      */
     @Override
     public void clear() {
-        hashTable.clear();
+        if (elements == null) return;
+        Arrays.fill(elements, null);
+        Arrays.fill(hashes, 0);
+        size = 0;
+    }
+
+    private int getPowerOfTwoCap(int cap) {
+        if (cap <= MIN_CAPACITY) return MIN_CAPACITY;
+        if (cap >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit(cap - 1) << 1;
     }
 
     @Override
     public Iterator<E> iterator() {
-        return hashTable.iterator();
+        return new SelfIterator();
+    }
+
+    private class SelfIterator implements Iterator<E> {
+        private int pos = nextOccupied(0);
+
+        @Override
+        public boolean hasNext() {
+            return pos < capacity;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (pos >= capacity) throw new NoSuchElementException();
+            E element = (E) elements[pos];
+            pos = nextOccupied(pos + 1);
+            return element;
+        }
+    }
+
+    private int nextOccupied(int from) {
+        if (elements == null) return capacity;
+        while (from < capacity && elements[from] == null) from++;
+        return from;
     }
 
     @Override
     public String toString() {
-        if (hashTable.getSize() == 0) return "{}";
+        if (size == 0) return "{}";
         DynamicString res = new DynamicLinkedString("{");
-        for (E e : hashTable) {
+        for (E e : this) {
             res.add(e).add(", ");
         }
         return res.subSequence(0, res.getSize() - 2).add('}').toString();
     }
-}
\ No newline at end of file
+}
@@ -118,22 +118,24 @@ public class RBTSet<E extends Comparable<E>> implements SortedSet<E> {
      * Add element to the Set
      *
      * @param element element to append
+     * @return true if element was added, false if the Set already contains it
      * @throws NullableArgumentException if element is null
      */
     @Override
-    public void add(E element) {
+    public boolean add(E element) {
         if (element == null) {
             throw new NullableArgumentException();
         }
         if (root == null) {
             root = new TNode<>(element, black);
             size++;
-            return;
+            return true;
         }
         TNode<E> node = insert(root, element);
-        if (node == null) return;
+        if (node == null) return false;
         size++;
         if (node.getGrandParent() != null) rebalance(node);
+        return true;
     }
 
     /**
@@ -352,11 +354,13 @@ public class RBTSet<E extends Comparable<E>> implements SortedSet<E> {
         if (element == null) {
             throw new NullableArgumentException();
         }
+        if (root == null) return false;
         TNode<E> toRemove = findNodeByValue(root, element);
         if (!toRemove.element.equals(element)) return false;
         TNode<E> successor = getSuccessor(toRemove);
         size--;
         if (toRemove == root && size == 0) {
+            root = null;
             return true;
         }
         unlinkNodes(successor.parent, successor);
@@ -468,6 +472,25 @@ public class RBTSet<E extends Comparable<E>> implements SortedSet<E> {
         return true;
     }
 
+    /**
+     * Returns element of the Set which equals to the specified element
+     *
+     * @param element element to search
+     * @return element stored in the Set if present otherwise null
+     * @throws NullableArgumentException if the specified element is null
+     */
+    public E find(E element) {
+        if (element == null) {
+            throw new NullableArgumentException();
+        }
+        TNode<E> curr = root;
+        while (curr != null && !curr.element.equals(element)) {
+            if (element.compareTo(curr.element) < 0) curr = curr.left;
+            else curr = curr.right;
+        }
+        return curr == null ? null : curr.element;
+    }
+
     private void collectAllNodes(List<E> lst, TNode<E> node) {
         if (node != null) {
             collectAllNodes(lst, node.left);
@@ -0,0 +1,1123 @@
+package sets;
+
+import additional.dynamicstring.DynamicLinkedString;
+import additional.dynamicstring.DynamicString;
+import additional.exceptions.IndexOutOfCollectionBoundsException;
+import additional.exceptions.NullableArgumentException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compressed bitmap set of ints in the Roaring format: ints are split by the high 16 bits into chunks,
+ * every chunk is stored by the container which fits its density best:
+ * sorted array of the low 16 bits (up to ARRAY_MAX_SIZE values), bitmap of 65536 bits or runs of consecutive values.
+ * Set operations are made chunk by chunk, bitmaps are combined by 64-bit words.
+ * Elements are ordered as signed ints, the sign bit is flipped inside, so the order of the chunks is unsigned
+ */
+public class RoaringBitmapSet implements SortedSet<Integer> {
+
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+    private static final int SERIAL_MAGIC = 0x524F4152;
+    private static final int HEADER_BYTES = 12;
+    private static final int DESCRIPTOR_BYTES = 16;
+    private static final int ARRAY = 0, BITMAP = 1, RUN = 2;
+
+    private char[] keys;
+    private Container[] containers;
+    private int count;
+    private int size;
+    /**
+     * Number of elements before every chunk, built by select and rank and dropped by every change of the set
+     */
+    private int[] cumulative;
+
+    public RoaringBitmapSet() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    /**
+     * Creates set of the specified values
+     *
+     * @throws NullableArgumentException if values is null
+     */
+    public static RoaringBitmapSet of(int... values) {
+        if (values == null) throw new NullableArgumentException();
+        RoaringBitmapSet set = new RoaringBitmapSet();
+        for (int value : values) set.add(value);
+        return set;
+    }
+
+    private static int toUnsigned(int value) {
+        return value ^ Integer.MIN_VALUE;
+    }
+
+    private static char highOf(int value) {
+        return (char) (toUnsigned(value) >>> 16);
+    }
+
+    private static char lowOf(int value) {
+        return (char) toUnsigned(value);
+    }
+
+    private static int valueOf(char high, char low) {
+        return (high << 16 | low) ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns position of the chunk or -(insertion point + 1) if chunk is absent
+     */
+    private int findChunk(char key) {
+        int low = 0, high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) low = mid + 1;
+            else if (keys[mid] > key) high = mid - 1;
+            else return mid;
+        }
+        return -low - 1;
+    }
+
+    private void insertChunk(int pos, char key, Container container) {
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count << 1);
+            containers = Arrays.copyOf(containers, count << 1);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, count - pos);
+        System.arraycopy(containers, pos, containers, pos + 1, count - pos);
+        keys[pos] = key;
+        containers[pos] = container;
+        count++;
+    }
+
+    private void removeChunk(int pos) {
+        System.arraycopy(keys, pos + 1, keys, pos, count - pos - 1);
+        System.arraycopy(containers, pos + 1, containers, pos, count - pos - 1);
+        containers[--count] = null;
+    }
+
+    /**
+     * Appends chunk which key is greater than keys of all the present chunks
+     */
+    private void appendChunk(char key, Container container) {
+        if (container != null) {
+            insertChunk(count, key, container);
+            size += container.cardinality();
+            cumulative = null;
+        }
+    }
+
+    /**
+     * Add element to the Set
+     *
+     * @return true if element was added, false if the Set already contains it
+     * @throws NullableArgumentException if the specified element is null
+     */
+    @Override
+    public boolean add(Integer element) {
+        if (element == null) throw new NullableArgumentException("Specified element must be not null");
+        return add((int) element);
+    }
+
+    /**
+     * Add element to the Set
+     *
+     * @return true if element was added, false if the Set already contains it
+     */
+    public boolean add(int element) {
+        char key = highOf(element), low = lowOf(element);
+        int pos = findChunk(key);
+        if (pos < 0) {
+            insertChunk(-pos - 1, key, new ArrayContainer(low));
+            size++;
+            cumulative = null;
+            return true;
+        }
+        Container container = containers[pos];
+        if (container.contains(low)) return false;
+        containers[pos] = container.add(low);
+        size++;
+        cumulative = null;
+        return true;
+    }
+
+    /**
+     * Adds all ints from the range, full chunks are stored by single run
+     *
+     * @param from first element of the range
+     * @param to   element after the last one of the range
+     */
+    public void addRange(int from, int to) {
+        if (from >= to) return;
+        cumulative = null;
+        int last = to - 1;
+        for (char key = highOf(from); ; key++) {
+            char start = key == highOf(from) ? lowOf(from) : 0;
+            char end = key == highOf(last) ? lowOf(last) : Character.MAX_VALUE;
+            int pos = findChunk(key);
+            if (pos < 0) {
+                insertChunk(-pos - 1, key, new RunContainer(new char[]{start, (char) (end - start)}, 1));
+                size += end - start + 1;
+            } else {
+                Container container = containers[pos];
+                long[] words = container.toWords();
+                setRange(words, start, end);
+                size -= container.cardinality();
+                containers[pos] = Container.fromWords(words);
+                size += containers[pos].cardinality();
+            }
+            if (key == highOf(last)) return;
+        }
+    }
+
+    private static void setRange(long[] words, int start, int end) {
+        int first = start >>> 6, last = end >>> 6;
+        long firstMask = -1L << start, lastMask = -1L >>> (63 - (end & 63));
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) words[i] = -1L;
+        words[last] |= lastMask;
+    }
+
+    /**
+     * @throws NullableArgumentException if one of specified arguments is null
+     */
+    @Override
+    public <T extends Iterable<Integer>> void addFrom(T iterable) {
+        if (iterable == null) throw new NullableArgumentException();
+        for (Integer element : iterable) add(element);
+    }
+
+    /**
+     * Remove specified element from set if set contains element
+     *
+     * @return true if element was removed
+     * @throws NullableArgumentException if the specified element is null
+     */
+    @Override
+    public boolean delete(Integer element) {
+        if (element == null) throw new NullableArgumentException("Specified element must be not null");
+        char key = highOf(element), low = lowOf(element);
+        int pos = findChunk(key);
+        if (pos < 0 || !containers[pos].contains(low)) return false;
+        Container container = containers[pos].remove(low);
+        if (container.cardinality() == 0) removeChunk(pos);
+        else containers[pos] = container;
+        size--;
+        cumulative = null;
+        return true;
+    }
+
+    /**
+     * Return true if Set contains specified element
+     *
+     * @return true if element present in the set otherwise false, null is never present
+     */
+    @Override
+    public boolean contains(Integer element) {
+        return element != null && contains((int) element);
+    }
+
+    public boolean contains(int element) {
+        int pos = findChunk(highOf(element));
+        return pos >= 0 && containers[pos].contains(lowOf(element));
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(containers, 0, count, null);
+        count = 0;
+        size = 0;
+        cumulative = null;
+    }
+
+    /**
+     * Returns min element of Set
+     *
+     * @return min element if Set size greater than 0 otherwise null
+     */
+    @Override
+    public Integer getMin() {
+        return count == 0 ? null : valueOf(keys[0], containers[0].first());
+    }
+
+    /**
+     * Returns max element of Set
+     *
+     * @return max element if Set size greater than 0 otherwise null
+     */
+    @Override
+    public Integer getMax() {
+        return count == 0 ? null : valueOf(keys[count - 1], containers[count - 1].last());
+    }
+
+    /**
+     * Returns element by its position in the ascending order, same as select
+     *
+     * @throws IndexOutOfCollectionBoundsException if position out of Set bounds
+     */
+    @Override
+    public Integer get(int pos) {
+        return select(pos);
+    }
+
+    /**
+     * Returns element by its position in the ascending order
+     *
+     * @throws IndexOutOfCollectionBoundsException if position out of Set bounds
+     */
+    public int select(int pos) {
+        if (pos < 0 || pos >= size) throw new IndexOutOfCollectionBoundsException();
+        int[] before = cumulative();
+        int low = 0, high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (before[mid] <= pos) low = mid;
+            else high = mid - 1;
+        }
+        return valueOf(keys[low], containers[low].select(pos - before[low]));
+    }
+
+    /**
+     * Returns number of elements which are less than or equal to the specified value
+     */
+    public int rank(int value) {
+        int pos = findChunk(highOf(value));
+        if (pos < 0) return cumulative()[-pos - 1];
+        return cumulative()[pos] + containers[pos].rank(lowOf(value));
+    }
+
+    private int[] cumulative() {
+        if (cumulative == null) {
+            int[] before = new int[count + 1];
+            for (int i = 0; i < count; i++) before[i + 1] = before[i] + containers[i].cardinality();
+            cumulative = before;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Replaces containers by run containers where runs take less memory
+     */
+    public void runOptimize() {
+        for (int i = 0; i < count; i++) {
+            containers[i] = containers[i].runOptimize();
+        }
+    }
+
+    /**
+     * Returns approximate number of bytes taken by the containers
+     */
+    public long getSizeInBytes() {
+        long bytes = (long) keys.length * (Character.BYTES + 4);
+        for (int i = 0; i < count; i++) bytes += containers[i].getSizeInBytes();
+        return bytes;
+    }
+
+    @Override
+    public Object[] toObjectArray() {
+        Object[] result = new Object[size];
+        int i = 0;
+        for (Integer element : this) result[i++] = element;
+        return result;
+    }
+
+    /**
+     * Returns set of elements from the specified set which isn't presents in this set
+     * {1, 2, 3}.left({3, 4, 5, 6}) => {4, 5, 6}
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public RoaringBitmapSet left(Set<Integer> set) {
+        return andNot(toRoaring(set), this);
+    }
+
+    /**
+     * Returns set of elements from this set which isn't presents in the specified set
+     * {1, 2, 3}.right({3, 4, 5, 6}) => {1, 2}
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public RoaringBitmapSet right(Set<Integer> set) {
+        return andNot(this, toRoaring(set));
+    }
+
+    /**
+     * Returns set of crossing elements from this set and specified set
+     * {1, 2, 3, 4}.between({1, 3, 4, 5, 6}) => {1, 3, 4}
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public RoaringBitmapSet between(Set<Integer> set) {
+        if (set == null) throw new NullableArgumentException();
+        if (!(set instanceof RoaringBitmapSet)) {
+            RoaringBitmapSet mid = new RoaringBitmapSet();
+            for (Integer element : set) {
+                if (contains(element)) mid.add(element);
+            }
+            return mid;
+        }
+        RoaringBitmapSet other = (RoaringBitmapSet) set, mid = new RoaringBitmapSet();
+        for (int i = 0, j = 0; i < count && j < other.count; ) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (keys[i] > other.keys[j]) j++;
+            else mid.appendChunk(keys[i], Container.and(containers[i++], other.containers[j++]));
+        }
+        return mid;
+    }
+
+    /**
+     * Returns union of this set and specified set
+     * {1, 2, 3, 4}.union({4, 5, 6}) => {1, 2, 3, 4, 5, 6}
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public RoaringBitmapSet union(Set<Integer> set) {
+        RoaringBitmapSet other = toRoaring(set), union = new RoaringBitmapSet();
+        int i = 0, j = 0;
+        while (i < count || j < other.count) {
+            if (j == other.count || (i < count && keys[i] < other.keys[j])) {
+                union.appendChunk(keys[i], containers[i++].copy());
+            } else if (i == count || keys[i] > other.keys[j]) {
+                union.appendChunk(other.keys[j], other.containers[j++].copy());
+            } else {
+                union.appendChunk(keys[i], Container.or(containers[i++], other.containers[j++]));
+            }
+        }
+        return union;
+    }
+
+    private static RoaringBitmapSet andNot(RoaringBitmapSet source, RoaringBitmapSet excluded) {
+        RoaringBitmapSet result = new RoaringBitmapSet();
+        for (int i = 0, j = 0; i < source.count; i++) {
+            while (j < excluded.count && excluded.keys[j] < source.keys[i]) j++;
+            if (j < excluded.count && excluded.keys[j] == source.keys[i]) {
+                result.appendChunk(source.keys[i], Container.andNot(source.containers[i], excluded.containers[j]));
+            } else {
+                result.appendChunk(source.keys[i], source.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    private static RoaringBitmapSet toRoaring(Set<Integer> set) {
+        if (set == null) throw new NullableArgumentException();
+        if (set instanceof RoaringBitmapSet) return (RoaringBitmapSet) set;
+        RoaringBitmapSet result = new RoaringBitmapSet();
+        result.addFrom(set);
+        return result;
+    }
+
+    /**
+     * Returns number of bytes written by serialize
+     */
+    public int getSerializedSize() {
+        int bytes = HEADER_BYTES + count * DESCRIPTOR_BYTES;
+        for (int i = 0; i < count; i++) {
+            bytes = align(bytes) + containers[i].getSerializedSize();
+        }
+        return bytes;
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & -8;
+    }
+
+    /**
+     * Writes the set into the buffer starting from its position in little-endian order:
+     * header (magic, number of chunks, size), descriptors of the chunks (key, type, cardinality, offset
+     * of the container from the start of the set) and 8-byte aligned containers.
+     * Containers can be read in place, see {@link #map(ByteBuffer)}
+     *
+     * @throws NullableArgumentException if buffer is null
+     * @throws java.nio.BufferOverflowException if the buffer has less than getSerializedSize bytes remaining
+     */
+    public void serialize(ByteBuffer buffer) {
+        if (buffer == null) throw new NullableArgumentException();
+        if (buffer.remaining() < getSerializedSize()) throw new java.nio.BufferOverflowException();
+        ByteBuffer out = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(SERIAL_MAGIC).putInt(count).putInt(size);
+        int offset = HEADER_BYTES + count * DESCRIPTOR_BYTES;
+        for (int i = 0; i < count; i++) {
+            offset = align(offset);
+            out.putInt(keys[i]).putInt(containers[i].type()).putInt(containers[i].cardinality()).putInt(offset);
+            offset += containers[i].getSerializedSize();
+        }
+        for (int i = 0; i < count; i++) {
+            out.position(align(out.position()));
+            containers[i].serialize(out);
+        }
+        buffer.position(buffer.position() + out.position());
+    }
+
+    /**
+     * Reads the set written by serialize starting from the buffer position
+     *
+     * @throws NullableArgumentException if buffer is null
+     * @throws IllegalArgumentException  if buffer doesn't contain serialized set
+     */
+    public static RoaringBitmapSet deserialize(ByteBuffer buffer) {
+        Mapped mapped = map(buffer);
+        RoaringBitmapSet set = new RoaringBitmapSet();
+        for (int i = 0; i < mapped.count; i++) {
+            set.appendChunk((char) mapped.keyAt(i), mapped.containerAt(i));
+        }
+        return set;
+    }
+
+    /**
+     * Returns read-only set over the serialized form which doesn't copy containers,
+     * so the set can be queried directly from the memory-mapped file
+     *
+     * @throws NullableArgumentException if buffer is null
+     * @throws IllegalArgumentException  if buffer doesn't contain serialized set
+     */
+    public static Mapped map(ByteBuffer buffer) {
+        if (buffer == null) throw new NullableArgumentException();
+        return new Mapped(buffer.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Serialized RoaringBitmapSet read in place
+     */
+    public static final class Mapped {
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int size;
+
+        private Mapped(ByteBuffer buffer) {
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != SERIAL_MAGIC) {
+                throw new IllegalArgumentException("Buffer doesn't contain serialized RoaringBitmapSet");
+            }
+            this.buffer = buffer;
+            this.count = buffer.getInt(4);
+            this.size = buffer.getInt(8);
+        }
+
+        private int keyAt(int i) {
+            return buffer.getInt(HEADER_BYTES + i * DESCRIPTOR_BYTES);
+        }
+
+        private int typeAt(int i) {
+            return buffer.getInt(HEADER_BYTES + i * DESCRIPTOR_BYTES + 4);
+        }
+
+        private int cardinalityAt(int i) {
+            return buffer.getInt(HEADER_BYTES + i * DESCRIPTOR_BYTES + 8);
+        }
+
+        private int offsetAt(int i) {
+            return buffer.getInt(HEADER_BYTES + i * DESCRIPTOR_BYTES + 12);
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public boolean contains(int element) {
+            char key = highOf(element), low = lowOf(element);
+            int lowPos = 0, highPos = count - 1;
+            while (lowPos <= highPos) {
+                int mid = (lowPos + highPos) >>> 1, midKey = keyAt(mid);
+                if (midKey < key) lowPos = mid + 1;
+                else if (midKey > key) highPos = mid - 1;
+                else return containsLow(mid, low);
+            }
+            return false;
+        }
+
+        private boolean containsLow(int i, char low) {
+            int offset = offsetAt(i);
+            switch (typeAt(i)) {
+                case ARRAY:
+                    return searchChars(offset, cardinalityAt(i), low) >= 0;
+                case BITMAP:
+                    return (buffer.getLong(offset + (low >>> 6) * Long.BYTES) & 1L << low) != 0;
+                default:
+                    int runs = buffer.getInt(offset), lowPos = 0, highPos = runs - 1;
+                    while (lowPos <= highPos) {
+                        int mid = (lowPos + highPos) >>> 1;
+                        char start = buffer.getChar(offset + 4 + mid * 4);
+                        if (low < start) highPos = mid - 1;
+                        else if (low - start > buffer.getChar(offset + 6 + mid * 4)) lowPos = mid + 1;
+                        else return true;
+                    }
+                    return false;
+            }
+        }
+
+        private int searchChars(int offset, int length, char value) {
+            int low = 0, high = length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midValue = buffer.getChar(offset + mid * Character.BYTES);
+                if (midValue < value) low = mid + 1;
+                else if (midValue > value) high = mid - 1;
+                else return mid;
+            }
+            return -low - 1;
+        }
+
+        private Container containerAt(int i) {
+            int offset = offsetAt(i), cardinality = cardinalityAt(i);
+            switch (typeAt(i)) {
+                case ARRAY:
+                    char[] values = new char[Math.max(cardinality, 4)];
+                    for (int j = 0; j < cardinality; j++) values[j] = buffer.getChar(offset + j * Character.BYTES);
+                    return new ArrayContainer(values, cardinality);
+                case BITMAP:
+                    long[] words = new long[BITMAP_WORDS];
+                    for (int j = 0; j < BITMAP_WORDS; j++) words[j] = buffer.getLong(offset + j * Long.BYTES);
+                    return new BitmapContainer(words, cardinality);
+                case RUN:
+                    int runs = buffer.getInt(offset);
+                    char[] pairs = new char[runs * 2];
+                    for (int j = 0; j < pairs.length; j++) pairs[j] = buffer.getChar(offset + 4 + j * Character.BYTES);
+                    return new RunContainer(pairs, runs);
+                default:
+                    throw new IllegalArgumentException("Unknown container type");
+            }
+        }
+
+        /**
+         * Copies the mapped set into the heap
+         */
+        public RoaringBitmapSet toRoaringBitmapSet() {
+            RoaringBitmapSet set = new RoaringBitmapSet();
+            for (int i = 0; i < count; i++) set.appendChunk((char) keyAt(i), containerAt(i));
+            return set;
+        }
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new SelfIterator();
+    }
+
+    private class SelfIterator implements Iterator<Integer> {
+        private int chunk = 0;
+        private int next = count == 0 ? -1 : containers[0].next(0);
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public Integer next() {
+            if (next < 0) throw new NoSuchElementException();
+            int value = valueOf(keys[chunk], (char) next);
+            next = next < Character.MAX_VALUE ? containers[chunk].next(next + 1) : -1;
+            while (next < 0 && ++chunk < count) next = containers[chunk].next(0);
+            return value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) return "{}";
+        DynamicString res = new DynamicLinkedString("{");
+        for (Integer e : this) {
+            res.add(e).add(", ");
+        }
+        return res.subSequence(0, res.getSize() - 2).add('}').toString();
+    }
+
+    /**
+     * Values of one chunk, mutators return the container which holds the result
+     */
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        /**
+         * Returns number of values which are less than or equal to the specified one
+         */
+        abstract int rank(char value);
+
+        abstract char select(int pos);
+
+        abstract char first();
+
+        abstract char last();
+
+        /**
+         * Returns the smallest value which is greater than or equal to the specified one or -1
+         */
+        abstract int next(int from);
+
+        /**
+         * Returns bitmap of the values, bitmap of the BitmapContainer is returned without copying
+         */
+        abstract long[] toWords();
+
+        abstract Container copy();
+
+        abstract int type();
+
+        abstract int getSerializedSize();
+
+        abstract void serialize(ByteBuffer out);
+
+        abstract long getSizeInBytes();
+
+        Container runOptimize() {
+            int runs = 0;
+            for (int value = next(0), previous = -2; value >= 0; value = value < Character.MAX_VALUE ? next(value + 1) : -1) {
+                if (value != previous + 1) runs++;
+                previous = value;
+            }
+            if (4 + runs * 4 >= getSerializedSize()) return this;
+            char[] pairs = new char[runs * 2];
+            int run = -1;
+            for (int value = next(0), previous = -2; value >= 0; value = value < Character.MAX_VALUE ? next(value + 1) : -1) {
+                if (value != previous + 1) pairs[++run * 2] = (char) value;
+                else pairs[run * 2 + 1]++;
+                previous = value;
+            }
+            return new RunContainer(pairs, runs);
+        }
+
+        /**
+         * Returns the most compact of array and bitmap containers for the bitmap or null if bitmap is empty
+         */
+        static Container fromWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) cardinality += Long.bitCount(word);
+            if (cardinality == 0) return null;
+            if (cardinality > ARRAY_MAX_SIZE) return new BitmapContainer(words, cardinality);
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < words.length; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    values[n++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+
+        static Container and(Container first, Container second) {
+            if (first instanceof ArrayContainer) return ((ArrayContainer) first).filter(second, true);
+            if (second instanceof ArrayContainer) return ((ArrayContainer) second).filter(first, true);
+            long[] words = first.toWords().clone(), other = second.toWords();
+            for (int i = 0; i < BITMAP_WORDS; i++) words[i] &= other[i];
+            return fromWords(words);
+        }
+
+        static Container or(Container first, Container second) {
+            if (first instanceof ArrayContainer && second instanceof ArrayContainer
+                    && first.cardinality() + second.cardinality() <= ARRAY_MAX_SIZE) {
+                return ((ArrayContainer) first).merge((ArrayContainer) second);
+            }
+            long[] words = first.toWords().clone(), other = second.toWords();
+            for (int i = 0; i < BITMAP_WORDS; i++) words[i] |= other[i];
+            return fromWords(words);
+        }
+
+        static Container andNot(Container first, Container second) {
+            if (first instanceof ArrayContainer) return ((ArrayContainer) first).filter(second, false);
+            long[] words = first.toWords().clone(), other = second.toWords();
+            for (int i = 0; i < BITMAP_WORDS; i++) words[i] &= ~other[i];
+            return fromWords(words);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer(char value) {
+            this.values = new char[]{value, 0, 0, 0};
+            this.cardinality = 1;
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        private int search(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return search(value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            if (cardinality == ARRAY_MAX_SIZE) {
+                long[] words = toWords();
+                words[value >>> 6] |= 1L << value;
+                return new BitmapContainer(words, cardinality + 1);
+            }
+            int pos = -search(value) - 1;
+            if (cardinality == values.length) values = Arrays.copyOf(values, Math.min(cardinality << 1, ARRAY_MAX_SIZE));
+            System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+            values[pos] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int pos = search(value);
+            System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        int rank(char value) {
+            int pos = search(value);
+            return pos >= 0 ? pos + 1 : -pos - 1;
+        }
+
+        @Override
+        char select(int pos) {
+            return values[pos];
+        }
+
+        @Override
+        char first() {
+            return values[0];
+        }
+
+        @Override
+        char last() {
+            return values[cardinality - 1];
+        }
+
+        @Override
+        int next(int from) {
+            int pos = search((char) from);
+            if (pos < 0) pos = -pos - 1;
+            return pos < cardinality ? values[pos] : -1;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) words[values[i] >>> 6] |= 1L << values[i];
+            return words;
+        }
+
+        /**
+         * Returns values which are present (or absent) in the other container
+         */
+        Container filter(Container other, boolean present) {
+            char[] result = new char[Math.max(cardinality, 1)];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == present) result[n++] = values[i];
+            }
+            return n == 0 ? null : new ArrayContainer(result, n);
+        }
+
+        ArrayContainer merge(ArrayContainer other) {
+            char[] result = new char[cardinality + other.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i], b = other.values[j];
+                if (a <= b) i++;
+                if (b <= a) j++;
+                result[n++] = a <= b ? a : b;
+            }
+            while (i < cardinality) result[n++] = values[i++];
+            while (j < other.cardinality) result[n++] = other.values[j++];
+            return new ArrayContainer(result, n);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        int type() {
+            return ARRAY;
+        }
+
+        @Override
+        int getSerializedSize() {
+            return cardinality * Character.BYTES;
+        }
+
+        @Override
+        void serialize(ByteBuffer out) {
+            for (int i = 0; i < cardinality; i++) out.putChar(values[i]);
+        }
+
+        @Override
+        long getSizeInBytes() {
+            return 16 + 16 + (long) values.length * Character.BYTES;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            words[value >>> 6] |= 1L << value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            words[value >>> 6] &= ~(1L << value);
+            cardinality--;
+            return cardinality <= ARRAY_MAX_SIZE ? fromWords(words) : this;
+        }
+
+        @Override
+        int rank(char value) {
+            int rank = 0, last = value >>> 6;
+            for (int i = 0; i < last; i++) rank += Long.bitCount(words[i]);
+            return rank + Long.bitCount(words[last] & (-1L >>> (63 - (value & 63))));
+        }
+
+        @Override
+        char select(int pos) {
+            for (int i = 0; ; i++) {
+                int bits = Long.bitCount(words[i]);
+                if (pos < bits) {
+                    long word = words[i];
+                    for (int j = 0; j < pos; j++) word &= word - 1;
+                    return (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                }
+                pos -= bits;
+            }
+        }
+
+        @Override
+        char first() {
+            return (char) next(0);
+        }
+
+        @Override
+        char last() {
+            int i = BITMAP_WORDS - 1;
+            while (words[i] == 0) i--;
+            return (char) (i << 6 | 63 - Long.numberOfLeadingZeros(words[i]));
+        }
+
+        @Override
+        int next(int from) {
+            int i = from >>> 6;
+            long word = words[i] & -1L << from;
+            while (word == 0) {
+                if (++i == BITMAP_WORDS) return -1;
+                word = words[i];
+            }
+            return i << 6 | Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        long[] toWords() {
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int type() {
+            return BITMAP;
+        }
+
+        @Override
+        int getSerializedSize() {
+            return BITMAP_WORDS * Long.BYTES;
+        }
+
+        @Override
+        void serialize(ByteBuffer out) {
+            for (long word : words) out.putLong(word);
+        }
+
+        @Override
+        long getSizeInBytes() {
+            return 16 + 16 + BITMAP_WORDS * Long.BYTES;
+        }
+    }
+
+    /**
+     * Runs of consecutive values stored as pairs of start and length - 1, runs are sorted and don't touch.
+     * Run container is immutable: mutators convert it to array or bitmap container first
+     */
+    private static final class RunContainer extends Container {
+        private final char[] pairs;
+        private final int runs;
+        private final int cardinality;
+
+        RunContainer(char[] pairs, int runs) {
+            this.pairs = pairs;
+            this.runs = runs;
+            int cardinality = 0;
+            for (int i = 0; i < runs; i++) cardinality += pairs[i * 2 + 1] + 1;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Returns index of the run which contains the value or -(index of the next run + 1)
+         */
+        private int findRun(char value) {
+            int low = 0, high = runs - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char start = pairs[mid * 2];
+                if (value < start) high = mid - 1;
+                else if (value - start > pairs[mid * 2 + 1]) low = mid + 1;
+                else return mid;
+            }
+            return -low - 1;
+        }
+
+        private Container toMutable() {
+            return fromWords(toWords());
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return findRun(value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            return toMutable().add(value);
+        }
+
+        @Override
+        Container remove(char value) {
+            Container container = toMutable();
+            return container.remove(value);
+        }
+
+        @Override
+        int rank(char value) {
+            int run = findRun(value), rank = 0;
+            int full = run >= 0 ? run : -run - 1;
+            for (int i = 0; i < full; i++) rank += pairs[i * 2 + 1] + 1;
+            return run >= 0 ? rank + value - pairs[run * 2] + 1 : rank;
+        }
+
+        @Override
+        char select(int pos) {
+            for (int i = 0; ; i++) {
+                int length = pairs[i * 2 + 1] + 1;
+                if (pos < length) return (char) (pairs[i * 2] + pos);
+                pos -= length;
+            }
+        }
+
+        @Override
+        char first() {
+            return pairs[0];
+        }
+
+        @Override
+        char last() {
+            return (char) (pairs[(runs - 1) * 2] + pairs[(runs - 1) * 2 + 1]);
+        }
+
+        @Override
+        int next(int from) {
+            int run = findRun((char) from);
+            if (run >= 0) return from;
+            run = -run - 1;
+            return run < runs ? pairs[run * 2] : -1;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < runs; i++) setRange(words, pairs[i * 2], pairs[i * 2] + pairs[i * 2 + 1]);
+            return words;
+        }
+
+        @Override
+        Container runOptimize() {
+            return this;
+        }
+
+        @Override
+        Container copy() {
+            return this;
+        }
+
+        @Override
+        int type() {
+            return RUN;
+        }
+
+        @Override
+        int getSerializedSize() {
+            return 4 + runs * 2 * Character.BYTES;
+        }
+
+        @Override
+        void serialize(ByteBuffer out) {
+            out.putInt(runs);
+            for (int i = 0; i < runs * 2; i++) out.putChar(pairs[i]);
+        }
+
+        @Override
+        long getSizeInBytes() {
+            return 24 + 16 + (long) pairs.length * Character.BYTES;
+        }
+    }
+}
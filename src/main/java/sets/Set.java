@@ -4,7 +4,7 @@ public interface Set<E> extends Iterable<E> {
 
     <T extends Iterable<E>> void addFrom(T iterable);
 
-    void add(E element);
+    boolean add(E element);
 
     void clear();
 
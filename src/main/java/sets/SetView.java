@@ -0,0 +1,262 @@
+package sets;
+
+import additional.dynamicstring.DynamicLinkedString;
+import additional.dynamicstring.DynamicString;
+import additional.exceptions.NullableArgumentException;
+import lists.List;
+import lists.impl.ArrayList;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Lazy result of the set operation: membership is computed by the operands on every call and nothing is copied,
+ * so chained operations like {@code a.betweenView(b).left(c)} create no intermediate sets.
+ * View is read-only and reflects later changes of its operands, getSize walks the whole view
+ */
+public abstract class SetView<E> implements Set<E> {
+
+    private SetView() {
+    }
+
+    /**
+     * Returns elements present in both sets, the set with the smaller size is iterated and the other one is probed
+     *
+     * @throws NullableArgumentException if one of the sets is null
+     */
+    public static <E> SetView<E> between(Set<E> first, Set<E> second) {
+        if (first == null || second == null) throw new NullableArgumentException();
+        return new SetView<>() {
+            @Override
+            public boolean contains(E element) {
+                return first.contains(element) && second.contains(element);
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return sizeBound(first) <= sizeBound(second)
+                        ? new FilterIterator<>(first.iterator(), second::contains)
+                        : new FilterIterator<>(second.iterator(), first::contains);
+            }
+
+            @Override
+            int sizeBound() {
+                return Math.min(sizeBound(first), sizeBound(second));
+            }
+        };
+    }
+
+    /**
+     * Returns elements of the source set which aren't present in the excluded set
+     *
+     * @throws NullableArgumentException if one of the sets is null
+     */
+    public static <E> SetView<E> difference(Set<E> source, Set<E> excluded) {
+        if (source == null || excluded == null) throw new NullableArgumentException();
+        return new SetView<>() {
+            @Override
+            public boolean contains(E element) {
+                return source.contains(element) && !excluded.contains(element);
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return new FilterIterator<>(source.iterator(), element -> !excluded.contains(element));
+            }
+
+            @Override
+            int sizeBound() {
+                return sizeBound(source);
+            }
+        };
+    }
+
+    /**
+     * Returns elements present in any of the sets
+     *
+     * @throws NullableArgumentException if one of the sets is null
+     */
+    public static <E> SetView<E> union(Set<E> first, Set<E> second) {
+        if (first == null || second == null) throw new NullableArgumentException();
+        return new SetView<>() {
+            @Override
+            public boolean contains(E element) {
+                return first.contains(element) || second.contains(element);
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<>() {
+                    private final Iterator<E> firstElements = first.iterator();
+                    private final Iterator<E> secondElements =
+                            new FilterIterator<>(second.iterator(), element -> !first.contains(element));
+
+                    @Override
+                    public boolean hasNext() {
+                        return firstElements.hasNext() || secondElements.hasNext();
+                    }
+
+                    @Override
+                    public E next() {
+                        return firstElements.hasNext() ? firstElements.next() : secondElements.next();
+                    }
+                };
+            }
+
+            @Override
+            int sizeBound() {
+                return (int) Math.min(Integer.MAX_VALUE, (long) sizeBound(first) + sizeBound(second));
+            }
+        };
+    }
+
+    /**
+     * Returns upper bound of the size which is known without walking the view
+     */
+    abstract int sizeBound();
+
+    static int sizeBound(Set<?> set) {
+        return set instanceof SetView ? ((SetView<?>) set).sizeBound() : set.getSize();
+    }
+
+    @Override
+    public abstract boolean contains(E element);
+
+    /**
+     * Counts elements of the view
+     */
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (Iterator<E> iterator = iterator(); iterator.hasNext(); iterator.next()) size++;
+        return size;
+    }
+
+    @Override
+    public Object[] toObjectArray() {
+        List<E> result = new ArrayList<>(sizeBound() + 1);
+        for (E element : this) result.add(element);
+        return result.toObjectArray();
+    }
+
+    /**
+     * Copies elements of the view into the new HashedSet
+     */
+    public HashedSet<E> toHashedSet() {
+        HashedSet<E> result = new HashedSet<>(sizeBound());
+        for (E element : this) result.add(element);
+        return result;
+    }
+
+    /**
+     * Returns lazy view of elements from the specified set which aren't present in this view
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public SetView<E> left(Set<E> set) {
+        return difference(set, this);
+    }
+
+    /**
+     * Returns lazy view of elements from this view which aren't present in the specified set
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public SetView<E> right(Set<E> set) {
+        return difference(this, set);
+    }
+
+    /**
+     * Returns lazy view of crossing elements of this view and the specified set
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public SetView<E> between(Set<E> set) {
+        return between(this, set);
+    }
+
+    /**
+     * Returns lazy view of union of this view and the specified set
+     *
+     * @throws NullableArgumentException if the specified set is null
+     */
+    @Override
+    public SetView<E> union(Set<E> set) {
+        return union(this, set);
+    }
+
+    /**
+     * @throws UnsupportedOperationException view is read-only
+     */
+    @Override
+    public <T extends Iterable<E>> void addFrom(T iterable) {
+        throw new UnsupportedOperationException("SetView is read-only");
+    }
+
+    /**
+     * @throws UnsupportedOperationException view is read-only
+     */
+    @Override
+    public boolean add(E element) {
+        throw new UnsupportedOperationException("SetView is read-only");
+    }
+
+    /**
+     * @throws UnsupportedOperationException view is read-only
+     */
+    @Override
+    public boolean delete(E element) {
+        throw new UnsupportedOperationException("SetView is read-only");
+    }
+
+    /**
+     * @throws UnsupportedOperationException view is read-only
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("SetView is read-only");
+    }
+
+    @Override
+    public String toString() {
+        Iterator<E> iterator = iterator();
+        if (!iterator.hasNext()) return "{}";
+        DynamicString res = new DynamicLinkedString("{");
+        while (iterator.hasNext()) {
+            res.add(iterator.next()).add(", ");
+        }
+        return res.subSequence(0, res.getSize() - 2).add('}').toString();
+    }
+
+    private static final class FilterIterator<E> implements Iterator<E> {
+        private final Iterator<E> source;
+        private final Predicate<E> filter;
+        private E next;
+
+        FilterIterator(Iterator<E> source, Predicate<E> filter) {
+            this.source = source;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && source.hasNext()) {
+                E element = source.next();
+                if (filter.test(element)) next = element;
+            }
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            E element = next;
+            next = null;
+            return element;
+        }
+    }
+}
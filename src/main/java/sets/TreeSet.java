@@ -94,17 +94,18 @@ public class TreeSet<E extends Comparable<E>> implements SortedSet<E> {
      * Add element to the Set
      *
      * @param element element to append
+     * @return true if element was added, false if the Set already contains it
      * @throws NullableArgumentException if the specified element is null
      */
     @Override
-    public void add(E element) {
+    public boolean add(E element) {
         if (element == null) {
             throw new NullableArgumentException();
         }
         if (root == null) {
             root = new TNode<>(element);
             size++;
-            return;
+            return true;
         }
         TNode<E> curr = root;
         while (curr.left != null || curr.right != null) {
@@ -112,7 +113,7 @@ public class TreeSet<E extends Comparable<E>> implements SortedSet<E> {
             else if (curr.element.compareTo(element) < 0 && curr.right != null) curr = curr.right;
             else break;
         }
-        if (curr.element.equals(element)) return;
+        if (curr.element.equals(element)) return false;
         size++;
         TNode<E> newNode = new TNode<>(element);
         if (curr.element.compareTo(element) < 0) {
@@ -126,6 +127,7 @@ public class TreeSet<E extends Comparable<E>> implements SortedSet<E> {
             balanceCount = 0;
             reBalance();
         }
+        return true;
     }
 
     /**
@@ -1,21 +1,86 @@
 package sql.builder.utils;
 
+import additional.exceptions.NullableArgumentException;
+import hashtables.FrozenHashTable;
+import hashtables.HashTable;
+import hashtables.HashingStrategy;
 import sql.builder.tokens.Keyword;
-import tries.tries.SimpleTrie;
 
 public class KeyWordsSet {
 
-    private final SimpleTrie trie;
+    private final FrozenHashTable<CharSequence, Keyword> keywords;
+    private final int[] lengths;
 
     public KeyWordsSet() {
-        trie = new SimpleTrie();
+        HashTable<CharSequence, Keyword> table = new HashTable<>(HashingStrategy.CHAR_SEQUENCE);
+        int maxLength = 0;
         for (Keyword kw : Keyword.values()) {
-            trie.add(kw.getName());
+            table.add(kw.getName(), kw);
+            maxLength = Math.max(maxLength, kw.getName().length());
+        }
+        keywords = FrozenHashTable.of(table);
+        boolean[] presentLengths = new boolean[maxLength + 1];
+        int count = 0;
+        for (CharSequence name : keywords) {
+            if (!presentLengths[name.length()]) count++;
+            presentLengths[name.length()] = true;
+        }
+        lengths = new int[count];
+        for (int length = 0, i = 0; length <= maxLength; length++) {
+            if (presentLengths[length]) lengths[i++] = length;
         }
     }
 
+    /**
+     * Returns true if the specified sequence starts with one of the keywords,
+     * every distinct keyword length takes one lookup of the prefix view in the frozen table,
+     * prefixes aren't copied
+     *
+     * @throws NullableArgumentException if the specified sequence is null
+     */
     public boolean presents(final String keyword) {
-        return trie.contains(keyword);
+        if (keyword == null) throw new NullableArgumentException();
+        Prefix prefix = new Prefix(keyword);
+        for (int length : lengths) {
+            if (length > keyword.length()) return false;
+            prefix.length = length;
+            if (keywords.containsKey(prefix)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Mutable view of the first chars of the sequence
+     */
+    private static final class Prefix implements CharSequence {
+        private final CharSequence sequence;
+        private int length;
+
+        Prefix(CharSequence sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= length) throw new IndexOutOfBoundsException();
+            return sequence.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (end > length) throw new IndexOutOfBoundsException();
+            return sequence.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return sequence.subSequence(0, length).toString();
+        }
     }
 
 }
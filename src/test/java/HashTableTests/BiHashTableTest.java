@@ -0,0 +1,93 @@
+package HashTableTests;
+
+import hashtables.BiHashTable;
+import lists.List;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BiHashTableTest {
+    BiHashTable<String, String> hashTable;
+
+    @Before
+    public void setUp() {
+        hashTable = new BiHashTable<>();
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+    }
+
+    @Test
+    public void getKeyByValue() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(hashTable.containsValue(i + "_value"));
+            assertEquals(i + "_key", hashTable.getKeyByValue(i + "_value"));
+        }
+        assertFalse(hashTable.containsValue("absent"));
+        assertNull(hashTable.getKeyByValue("absent"));
+    }
+
+    @Test
+    public void deleteAndReplace() {
+        hashTable.delete("0_key");
+        assertFalse(hashTable.containsValue("0_value"));
+        hashTable.deleteValue("1_key", "1_value");
+        assertFalse(hashTable.containsValue("1_value"));
+        hashTable.replace("2_key", "new_key");
+        assertEquals("new_key", hashTable.getKeyByValue("2_value"));
+        hashTable.updateValue("3_key", "new_value");
+        assertFalse(hashTable.containsValue("3_value"));
+        assertEquals("3_key", hashTable.getKeyByValue("new_value"));
+        hashTable.keySet().remove("4_key");
+        assertFalse(hashTable.containsValue("4_value"));
+        hashTable.clear();
+        assertFalse(hashTable.containsValue("5_value"));
+    }
+
+    @Test
+    public void computeMethods() {
+        hashTable.compute("0_key", (key, value) -> value + "!");
+        assertEquals("0_key", hashTable.getKeyByValue("0_value!"));
+        assertFalse(hashTable.containsValue("0_value"));
+        hashTable.computeIfPresent("1_key", (key, value) -> null);
+        assertFalse(hashTable.containsValue("1_value"));
+        hashTable.merge("counter", "1", (a, b) -> a + b);
+        hashTable.merge("counter", "1", (a, b) -> a + b);
+        assertEquals("counter", hashTable.getKeyByValue("11"));
+        assertFalse(hashTable.containsValue("1"));
+    }
+
+    @Test
+    public void sharedValues() {
+        hashTable.add("a", "shared");
+        hashTable.add("b", "shared");
+        hashTable.add("a", "other");
+        hashTable.add("a", "shared");
+        hashTable.add("nullable", null);
+        List<String> keys = hashTable.getKeysByValue("shared");
+        assertEquals(3, keys.getSize());
+        assertEquals("a", hashTable.getKeyByValue("shared"));
+        assertTrue(hashTable.containsValue(null));
+        assertEquals("nullable", hashTable.getKeyByValue(null));
+        hashTable.delete("a");
+        hashTable.delete("a");
+        assertEquals("b", hashTable.getKeyByValue("shared"));
+        assertFalse(hashTable.containsValue("other"));
+        hashTable.delete("a");
+        hashTable.delete("b");
+        assertFalse(hashTable.containsValue("shared"));
+    }
+
+    @Test
+    public void resize() {
+        BiHashTable<Integer, Integer> table = new BiHashTable<>(2);
+        table.setIncrementalResize(true);
+        for (int i = 0; i < 100_000; i++) table.add(i, -i);
+        for (int i = 0; i < 100_000; i += 2) table.delete(i);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i % 2 == 1, table.containsValue(-i));
+            if (i % 2 == 1) assertEquals(Integer.valueOf(i), table.getKeyByValue(-i));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package HashTableTests;
+
+import additional.nodes.HashNode;
+import hashtables.ConcurrentHashTable;
+import hashtables.HashTable;
+import hashtables.Map;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentHashTableTest {
+    ConcurrentHashTable<String, String> hashTable;
+
+    public ConcurrentHashTableTest() {
+        this.hashTable = new ConcurrentHashTable<>();
+    }
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+    }
+
+    @Test
+    public void add() {
+        for (int i = 0; i < 10000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        assertEquals(10000, hashTable.getSize());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + "_value", hashTable.get(i + "_key"));
+        }
+    }
+
+    @Test
+    public void multipleValues() {
+        String[] values = {"12345", "54321", "00000", "99999", "111111"};
+        for (String value : values) {
+            hashTable.add("key", value);
+        }
+        hashTable.add("key", values[values.length - 1]);
+        assertEquals(15, hashTable.getSize());
+        hashTable.add("key", values[0]);
+        assertEquals(16, hashTable.getSize());
+        assertEquals(values[0], hashTable.get("key"));
+        for (String value : values) {
+            assertTrue(hashTable.deleteValue("key", value));
+        }
+        assertTrue(hashTable.deleteValue("key", values[0]));
+        assertFalse(hashTable.containsKey("key"));
+        assertEquals(10, hashTable.getSize());
+    }
+
+    @Test
+    public void delete() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + "_value", hashTable.delete(i + "_key"));
+        }
+        assertNull(hashTable.delete("0_key"));
+        assertEquals(0, hashTable.getSize());
+    }
+
+    @Test
+    public void updateAndReplace() {
+        assertEquals("0_value", hashTable.updateValue("0_key", "new_value"));
+        assertTrue(hashTable.replace("0_key", "new_key"));
+        assertFalse(hashTable.containsKey("0_key"));
+        assertEquals("new_value", hashTable.get("new_key"));
+        assertEquals("new_key", hashTable.getKeyByValue("new_value"));
+        assertEquals(10, hashTable.getSize());
+    }
+
+    @Test
+    public void clear() {
+        hashTable.clear();
+        assertEquals(0, hashTable.getSize());
+        assertFalse(hashTable.containsKey("1_key"));
+    }
+
+    @Test
+    public void concurrentAdd() throws InterruptedException {
+        hashTable.clear();
+        final int threads = 8, perThread = 50_000;
+        Thread[] workers = new Thread[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perThread; i++) {
+                    hashTable.add(id + "_" + i, "value");
+                    if (!"value".equals(hashTable.get(id + "_" + i))) failed.set(true);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        assertFalse(failed.get());
+        assertEquals(threads * perThread, hashTable.getSize());
+        int count = 0;
+        for (HashNode<String, String> node : hashTable.items) {
+            assertEquals("value", node.getValue());
+            count++;
+        }
+        assertEquals(threads * perThread, count);
+    }
+
+    @Test
+    public void computeMethods() {
+        ConcurrentHashTable<String, Integer> counts = new ConcurrentHashTable<>();
+        assertNull(counts.putIfAbsent("a", 1));
+        assertEquals(Integer.valueOf(1), counts.putIfAbsent("a", 2));
+        assertEquals(Integer.valueOf(3), counts.merge("a", 2, Integer::sum));
+        assertEquals(Integer.valueOf(1), counts.computeIfAbsent("b", String::length));
+        assertEquals(Integer.valueOf(1), counts.computeIfAbsent("b", key -> 100));
+        assertNull(counts.computeIfPresent("c", (key, value) -> value + 1));
+        assertEquals(Integer.valueOf(2), counts.computeIfPresent("b", (key, value) -> value + 1));
+        assertEquals(Integer.valueOf(1), counts.compute("c", (key, value) -> value == null ? 1 : value + 1));
+        assertEquals(3, counts.getSize());
+        assertNull(counts.compute("c", (key, value) -> null));
+        assertNull(counts.merge("a", 1, (oldValue, value) -> null));
+        assertFalse(counts.containsKey("a"));
+        assertFalse(counts.containsKey("c"));
+        assertEquals(1, counts.getSize());
+    }
+
+    @Test
+    public void concurrentMerge() throws InterruptedException {
+        final int threads = 8, keys = 1000, perThread = 50_000;
+        ConcurrentHashTable<Integer, Integer> counts = new ConcurrentHashTable<>(2);
+        Thread[] workers = new Thread[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perThread; i++) {
+                    counts.merge(i % keys, 1, Integer::sum);
+                    counts.putIfAbsent(keys + i % keys, i);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        assertEquals(2 * keys, counts.getSize());
+        for (int i = 0; i < keys; i++) {
+            assertEquals(Integer.valueOf(threads * perThread / keys), counts.get(i));
+            assertEquals(Integer.valueOf(i), counts.get(keys + i));
+        }
+    }
+
+    @Test
+    public void readsDuringResize() throws InterruptedException {
+        ConcurrentHashTable<Integer, Integer> table = new ConcurrentHashTable<>(2);
+        for (int i = 0; i < 1000; i++) table.add(i, i);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                for (int i = 0; i < 1000; i++) {
+                    if (!Integer.valueOf(i).equals(table.get(i))) failed.set(true);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 1000; i < 500_000; i++) table.add(i, i);
+        stop.set(true);
+        reader.join();
+        assertFalse(failed.get());
+        assertEquals(500_000, table.getSize());
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void throughputComparedWithSynchronizedHashTable() throws InterruptedException {
+        final int keys = 1_000_000, threads = Runtime.getRuntime().availableProcessors(), ops = 2_000_000;
+        ConcurrentHashTable<Integer, Integer> concurrent = new ConcurrentHashTable<>();
+        HashTable<Integer, Integer> plain = new HashTable<>();
+        for (int i = 0; i < keys; i++) {
+            concurrent.add(i, i);
+            plain.add(i, i);
+        }
+        long concurrentTime = runWorkload(concurrent, threads, ops, keys);
+        long synchronizedTime = runWorkload(plain, threads, ops, keys);
+        System.out.printf("%d threads, 90%% reads: ConcurrentHashTable %d ops/ms, synchronized HashTable %d ops/ms%n",
+                threads, (long) threads * ops * 1_000_000 / concurrentTime, (long) threads * ops * 1_000_000 / synchronizedTime);
+    }
+
+    private long runWorkload(Map<Integer, Integer> map, int threads, int ops, int keys) throws InterruptedException {
+        final boolean locked = !(map instanceof ConcurrentHashTable);
+        Thread[] workers = new Thread[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                await(start);
+                for (int i = 0; i < ops; i++) {
+                    int key = random.nextInt(keys);
+                    boolean write = random.nextInt(10) == 0;
+                    if (locked) {
+                        synchronized (map) {
+                            if (write) map.add(key, -key);
+                            else map.get(key);
+                        }
+                    } else if (write) {
+                        map.add(key, -key);
+                    } else {
+                        map.get(key);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        return System.nanoTime() - begin;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
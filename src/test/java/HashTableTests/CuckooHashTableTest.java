@@ -0,0 +1,118 @@
+package HashTableTests;
+
+import additional.exceptions.NullableArgumentException;
+import hashtables.CuckooHashTable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CuckooHashTableTest {
+    CuckooHashTable<String, String> hashTable;
+
+    @Before
+    public void setUp() {
+        hashTable = new CuckooHashTable<>();
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+    }
+
+    @Test
+    public void add() {
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_new");
+        }
+        assertEquals(10, hashTable.getSize());
+        assertEquals("5_new", hashTable.get("5_key"));
+        for (int i = 10; i < 10000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        assertEquals(10000, hashTable.getSize());
+        for (int i = 10; i < 10000; i++) {
+            assertEquals(i + "_value", hashTable.get(i + "_key"));
+        }
+        assertNull(hashTable.get("some_key"));
+    }
+
+    @Test
+    public void highLoad() {
+        CuckooHashTable<Integer, Integer> table = new CuckooHashTable<>(1 << 14);
+        int capacity = table.getCapacity();
+        int count = (int) (capacity * 0.95);
+        for (int i = 0; i < count; i++) table.add(i * 31, i);
+        assertEquals(capacity, table.getCapacity());
+        assertTrue(table.getLoadFactor() > 0.9);
+        assertTrue(table.getKickCount() > 0);
+        for (int i = 0; i < count; i++) assertEquals(Integer.valueOf(i), table.get(i * 31));
+        assertFalse(table.containsKey(-31));
+    }
+
+    @Test
+    public void stashAndRehash() {
+        CuckooHashTable<Colliding, Integer> table = new CuckooHashTable<>(1000);
+        for (int i = 0; i < 30; i++) table.add(new Colliding(i), i);
+        assertTrue(table.getFailureCount() > 0);
+        assertTrue(table.getRehashCount() > 0);
+        assertEquals(30, table.getSize());
+        for (int i = 0; i < 30; i++) assertEquals(Integer.valueOf(i), table.get(new Colliding(i)));
+        for (int i = 0; i < 20; i++) assertEquals(Integer.valueOf(i), table.delete(new Colliding(i)));
+        for (int i = 20; i < 30; i++) assertTrue(table.containsKey(new Colliding(i)));
+        assertEquals(10, table.getSize());
+        assertEquals(0, table.getStashSize());
+    }
+
+    @Test
+    public void delete() {
+        assertEquals("3_value", hashTable.delete("3_key"));
+        assertNull(hashTable.delete("3_key"));
+        assertFalse(hashTable.deleteValue("4_key", "3_value"));
+        assertTrue(hashTable.deleteValue("4_key", "4_value"));
+        assertTrue(hashTable.replace("5_key", "new_key"));
+        assertFalse(hashTable.replace("5_key", "other_key"));
+        assertEquals("5_value", hashTable.get("new_key"));
+        assertEquals(8, hashTable.getSize());
+        hashTable.clear();
+        assertEquals(0, hashTable.getSize());
+        assertFalse(hashTable.iterator().hasNext());
+    }
+
+    @Test
+    public void iterator() {
+        Set<String> keys = new HashSet<>();
+        for (String key : hashTable) keys.add(key);
+        assertEquals(10, keys.size());
+        int[] count = {0};
+        hashTable.forEach((key, value) -> {
+            assertEquals(key.replace("key", "value"), value);
+            count[0]++;
+        });
+        assertEquals(10, count[0]);
+    }
+
+    @Test(expected = NullableArgumentException.class)
+    public void addNullKey() {
+        hashTable.add(null, "value");
+    }
+
+    private static final class Colliding {
+        final int id;
+
+        Colliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).id == id;
+        }
+    }
+}
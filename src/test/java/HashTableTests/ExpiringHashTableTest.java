@@ -0,0 +1,108 @@
+package HashTableTests;
+
+import hashtables.ExpiringHashTable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ExpiringHashTableTest {
+    long time;
+    ExpiringHashTable<String, String> cache;
+
+    @Before
+    public void setUp() {
+        time = 1000;
+        cache = new ExpiringHashTable<>(10, TimeUnit.SECONDS, () -> time);
+        for (int i = 0; i < 10; i++) {
+            cache.add(i + "_key", i + "_value");
+        }
+    }
+
+    private void sleep(long duration, TimeUnit unit) {
+        time += unit.toNanos(duration);
+    }
+
+    @Test
+    public void lazyExpirationOnRead() {
+        sleep(9, TimeUnit.SECONDS);
+        assertEquals("0_value", cache.get("0_key"));
+        sleep(1, TimeUnit.SECONDS);
+        assertNull(cache.get("0_key"));
+        assertFalse(cache.containsKey("1_key"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getExpiredCount());
+        assertEquals(8, cache.getSize());
+    }
+
+    @Test
+    public void expirationOnWrite() {
+        List<String> expired = new ArrayList<>();
+        cache.setExpiryListener((key, value) -> expired.add(key));
+        cache.add("long_key", "value", 1, TimeUnit.HOURS);
+        sleep(15, TimeUnit.SECONDS);
+        cache.add("new_key", "value");
+        assertEquals(10, expired.size());
+        assertEquals(2, cache.getSize());
+        sleep(59, TimeUnit.MINUTES);
+        cache.cleanUp();
+        assertEquals(1, cache.getSize());
+        assertEquals("value", cache.get("long_key"));
+        sleep(1, TimeUnit.MINUTES);
+        cache.cleanUp();
+        assertEquals(0, cache.getSize());
+        assertEquals(12, cache.getExpiredCount());
+        assertTrue(expired.contains("long_key"));
+    }
+
+    @Test
+    public void updateRestartsTtl() {
+        sleep(8, TimeUnit.SECONDS);
+        cache.add("0_key", "new_value");
+        assertEquals(10, cache.getTtl("0_key", TimeUnit.SECONDS));
+        sleep(8, TimeUnit.SECONDS);
+        cache.cleanUp();
+        assertEquals(1, cache.getSize());
+        assertEquals("new_value", cache.get("0_key"));
+    }
+
+    @Test
+    public void manyKeysWithDifferentTtl() {
+        cache.clear();
+        for (int i = 1; i <= 100_000; i++) {
+            cache.add(i + "", "value", i, TimeUnit.MINUTES);
+        }
+        for (int minutes = 1; minutes <= 100_000; minutes += 997) {
+            sleep(997, TimeUnit.MINUTES);
+            cache.cleanUp();
+            int alive = (int) Math.max(0, 100_000 - (time - 1000) / TimeUnit.MINUTES.toNanos(1));
+            assertEquals(alive, cache.getSize());
+        }
+        assertEquals(100_000, cache.getExpiredCount());
+    }
+
+    @Test
+    public void deleteAndReplace() {
+        assertEquals("0_value", cache.delete("0_key"));
+        assertNull(cache.delete("0_key"));
+        assertTrue(cache.replace("1_key", "new_key"));
+        assertEquals("1_value", cache.get("new_key"));
+        assertFalse(cache.containsKey("1_key"));
+        assertTrue(cache.deleteValue("2_key", "2_value"));
+        assertEquals(8, cache.getSize());
+        sleep(10, TimeUnit.SECONDS);
+        cache.cleanUp();
+        assertEquals(0, cache.getSize());
+        assertEquals(8, cache.getExpiredCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveTtl() {
+        cache.add("key", "value", 0, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,98 @@
+package HashTableTests;
+
+import hashtables.CharSlice;
+import hashtables.FrozenHashTable;
+import hashtables.HashTable;
+import hashtables.HashingStrategy;
+import org.junit.Test;
+import sql.builder.utils.KeyWordsSet;
+
+import static org.junit.Assert.*;
+
+public class FrozenHashTableTest {
+
+    @Test
+    public void of() {
+        for (int size : new int[]{0, 1, 2, 3, 10, 1000, 100_000}) {
+            HashTable<String, Integer> table = new HashTable<>();
+            for (int i = 0; i < size; i++) {
+                table.add(i + "_key", i);
+            }
+            FrozenHashTable<String, Integer> frozen = FrozenHashTable.of(table);
+            assertEquals(size, frozen.getSize());
+            for (int i = 0; i < size; i++) {
+                assertEquals(Integer.valueOf(i), frozen.get(i + "_key"));
+            }
+            assertNull(frozen.get("absent"));
+            assertFalse(frozen.containsKey(size + "_key"));
+            assertEquals(Integer.valueOf(-1), frozen.getOrDefault("absent", -1));
+            int count = 0;
+            for (String key : frozen) {
+                assertTrue(table.containsKey(key));
+                count++;
+            }
+            assertEquals(size, count);
+        }
+    }
+
+    @Test
+    public void latestValueAndNullValue() {
+        HashTable<String, String> table = new HashTable<>();
+        table.add("key", "first");
+        table.add("key", "second");
+        table.add("nullable", null);
+        FrozenHashTable<String, String> frozen = FrozenHashTable.of(table);
+        assertEquals(2, frozen.getSize());
+        assertEquals("second", frozen.get("key"));
+        assertTrue(frozen.containsKey("nullable"));
+        assertNull(frozen.get("nullable"));
+        table.add("key", "third");
+        assertEquals("second", frozen.get("key"));
+    }
+
+    @Test
+    public void collidingKeys() {
+        HashTable<String, Integer> table = new HashTable<>();
+        String[] keys = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa", "plain"};
+        for (int i = 0; i < keys.length; i++) table.add(keys[i], i);
+        FrozenHashTable<String, Integer> frozen = FrozenHashTable.of(table);
+        assertEquals(keys.length, frozen.getSize());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(i), frozen.get(keys[i]));
+        }
+        assertFalse(frozen.containsKey("AaAB"));
+    }
+
+    @Test
+    public void hashingStrategyOfSource() {
+        HashTable<CharSequence, Integer> table = new HashTable<>(HashingStrategy.CHAR_SEQUENCE);
+        String[] keys = {"Aa", "BB", "select", "from", "where"};
+        for (int i = 0; i < keys.length; i++) table.add(keys[i], i);
+        FrozenHashTable<CharSequence, Integer> frozen = FrozenHashTable.of(table);
+        char[] buffer = "xxwherefromBB".toCharArray();
+        CharSlice slice = new CharSlice();
+        assertEquals(Integer.valueOf(4), frozen.get(slice.set(buffer, 2, 5)));
+        assertEquals(Integer.valueOf(3), frozen.get(slice.set(buffer, 7, 4)));
+        assertEquals(Integer.valueOf(1), frozen.get(slice.set(buffer, 11, 2)));
+        assertEquals(Integer.valueOf(0), frozen.get(new StringBuilder("Aa")));
+        assertTrue(frozen.containsKey(new StringBuilder("select")));
+        assertFalse(frozen.containsKey(slice.set(buffer, 2, 4)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly() {
+        FrozenHashTable.of(new HashTable<String, String>()).add("key", "value");
+    }
+
+    @Test
+    public void keyWordsSet() {
+        KeyWordsSet keyWords = new KeyWordsSet();
+        assertTrue(keyWords.presents("SELECT"));
+        assertTrue(keyWords.presents("ORDER BY"));
+        assertTrue(keyWords.presents("COUNT(id)"));
+        assertTrue(keyWords.presents("DATE('2020-01-01')"));
+        assertFalse(keyWords.presents("name"));
+        assertFalse(keyWords.presents("A"));
+        assertFalse(keyWords.presents(""));
+    }
+}
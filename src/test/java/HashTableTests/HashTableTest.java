@@ -2,7 +2,9 @@ package HashTableTests;
 
 
 import additional.nodes.HashNode;
+import additional.nodes.Pair;
 import hashtables.HashTable;
+import hashtables.HashTableStats;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -217,6 +219,192 @@ public class HashTableTest {
         assertEquals(2048, hashTable.getCapacity());
     }
 
+    @Test
+    public void computeMethods() {
+        HashTable<String, Integer> counts = new HashTable<>();
+        String[] words = {"a", "b", "a", "c", "a", "b"};
+        for (String word : words) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        assertEquals(Integer.valueOf(3), counts.get("a"));
+        assertEquals(Integer.valueOf(2), counts.get("b"));
+        assertEquals(Integer.valueOf(1), counts.get("c"));
+        assertEquals(3, counts.getSize());
+
+        assertEquals(Integer.valueOf(3), counts.putIfAbsent("a", 10));
+        assertNull(counts.putIfAbsent("d", 10));
+        assertEquals(Integer.valueOf(10), counts.getOrDefault("d", 0));
+        assertEquals(Integer.valueOf(0), counts.getOrDefault("e", 0));
+
+        assertEquals(Integer.valueOf(1), counts.computeIfAbsent("e", String::length));
+        assertEquals(Integer.valueOf(1), counts.computeIfAbsent("e", key -> 100));
+        assertNull(counts.computeIfPresent("f", (key, value) -> value + 1));
+        assertEquals(Integer.valueOf(2), counts.computeIfPresent("e", (key, value) -> value + 1));
+        assertEquals(Integer.valueOf(4), counts.compute("a", (key, value) -> value + 1));
+        assertEquals(Integer.valueOf(1), counts.compute("g", (key, value) -> value == null ? 1 : value + 1));
+        assertEquals(6, counts.getSize());
+
+        assertNull(counts.compute("g", (key, value) -> null));
+        assertNull(counts.merge("a", 1, (oldValue, value) -> null));
+        assertFalse(counts.containsKey("a"));
+        assertFalse(counts.containsKey("g"));
+        assertEquals(4, counts.getSize());
+
+        for (int i = 0; i < 10000; i++) {
+            counts.merge(i % 100 + "_key", 1, Integer::sum);
+        }
+        assertEquals(104, counts.getSize());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(100), counts.get(i + "_key"));
+        }
+    }
+
+    @Test
+    public void collidingKeys() {
+        String[] keys = new String[1 << 12];
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int bit = 0; bit < 12; bit++) {
+                key.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+            }
+            keys[i] = key.toString();
+        }
+        HashTable<String, Integer> table = new HashTable<String, Integer>().setIncrementalResize(true);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[0].hashCode(), keys[i].hashCode());
+            table.add(keys[i], i);
+            table.add(keys[i], -i);
+        }
+        assertEquals(keys.length * 2 - 1, table.getSize());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(-i), table.get(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(Integer.valueOf(-i), table.delete(keys[i]));
+            assertTrue(table.deleteValue(keys[i + 1], i + 1));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 0 ? (i == 0 ? null : Integer.valueOf(i)) : Integer.valueOf(-i), table.get(keys[i]));
+        }
+        assertFalse(table.containsKey("AaAa"));
+        assertTrue(table.replace(keys[1], "key"));
+        assertEquals(Integer.valueOf(-1), table.get("key"));
+        int count = 0;
+        for (String ignored : table) count++;
+        assertEquals(table.getSize(), count);
+    }
+
+    /**
+     * Key which compareTo isn't consistent with equals: keys of the same rank compare as equal
+     */
+    private static final class RankedKey implements Comparable<RankedKey> {
+        final String name;
+        final int rank;
+
+        RankedKey(String name, int rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+
+        @Override
+        public int compareTo(RankedKey o) {
+            return Integer.compare(rank, o.rank);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RankedKey && name.equals(((RankedKey) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void collidingKeysComparingAsEqual() {
+        HashTable<RankedKey, Integer> table = new HashTable<>();
+        for (int i = 0; i < 10; i++) table.add(new RankedKey("first" + i, i), i);
+        for (int i = 0; i < 10; i++) table.add(new RankedKey("second" + i, i), -i);
+        for (int i = 0; i < 10; i++) table.add(new RankedKey("third" + i, i), 100 + i);
+        assertEquals(30, table.getKeyCount());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), table.get(new RankedKey("first" + i, i)));
+            assertEquals(Integer.valueOf(-i), table.get(new RankedKey("second" + i, i)));
+            assertEquals(Integer.valueOf(100 + i), table.get(new RankedKey("third" + i, i)));
+        }
+        assertNull(table.get(new RankedKey("fourth", 0)));
+        for (int i = 0; i < 10; i++) assertEquals(Integer.valueOf(i), table.delete(new RankedKey("first" + i, i)));
+        assertEquals(20, table.getKeyCount());
+        for (int i = 0; i < 10; i++) {
+            assertFalse(table.containsKey(new RankedKey("first" + i, i)));
+            assertEquals(Integer.valueOf(-i), table.get(new RankedKey("second" + i, i)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void randomHashSeedOfNonEmptyTable() {
+        hashTable.setRandomHashSeed();
+    }
+
+    @Test
+    public void randomHashSeed() {
+        HashTable<String, String> seeded = new HashTable<String, String>().setRandomHashSeed();
+        for (int i = 0; i < 10000; i++) {
+            seeded.add(i + "_key", i + "_value");
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + "_value", seeded.get(i + "_key"));
+        }
+    }
+
+    @Test
+    public void incrementalResize() {
+        HashTable<Integer, String> table = new HashTable<Integer, String>().setIncrementalResize(true);
+        boolean resized = false;
+        for (int i = 0; i < 100_000; i++) {
+            table.add(i, i + "_value");
+            table.add(i, i + "_new_value");
+            resized |= table.isResizing();
+            if (i % 1000 == 0) {
+                for (int j = 0; j <= i; j += 97) {
+                    assertEquals(j + "_new_value", table.get(j));
+                }
+            }
+        }
+        assertTrue(resized);
+        assertEquals(200_000, table.getSize());
+        for (int i = 0; i < 100_000; i += 2) {
+            assertEquals(i + "_new_value", table.delete(i));
+            assertTrue(table.deleteValue(i + 1, (i + 1) + "_value"));
+        }
+        assertEquals(100_000, table.getSize());
+        int count = 0;
+        for (HashNode<Integer, String> node : table.items) {
+            assertEquals(node.getKey() % 2 == 0 ? node.getKey() + "_value" : node.getKey() + "_new_value", node.getValue());
+            count++;
+        }
+        assertEquals(100_000, count);
+    }
+
+    @Test
+    public void shrinkOnDelete() {
+        HashTable<Integer, Integer> table = new HashTable<Integer, Integer>().setShrinkOnDelete(true).setIncrementalResize(true);
+        for (int i = 0; i < 10_000; i++) {
+            table.add(i, i);
+        }
+        assertEquals(16384, table.getCapacity());
+        for (int i = 0; i < 9_990; i++) {
+            assertEquals(Integer.valueOf(i), table.delete(i));
+        }
+        assertEquals(HashTable.DEFAULT_CAPACITY, table.getCapacity());
+        for (int i = 9_990; i < 10_000; i++) {
+            assertEquals(Integer.valueOf(i), table.get(i));
+        }
+        assertEquals(10, table.getSize());
+    }
+
     @Test
     @Ignore("Very slow")
     public void setCapacity() {
@@ -235,6 +423,212 @@ public class HashTableTest {
         assertEquals(2, hashTable.getCapacity());
     }
 
+    @Test
+    public void keySetView() {
+        HashTable<String, String>.KeySet keys = hashTable.keySet();
+        hashTable.add("0_key", "new_value");
+        hashTable.add("new_key", "value");
+        assertEquals(11, keys.size());
+        assertEquals(11, keys.getSize());
+        assertTrue(keys.contains("new_key"));
+        java.util.Set<String> copy = new java.util.HashSet<>(keys);
+        assertEquals(11, copy.size());
+        assertTrue(keys.delete("0_key"));
+        assertFalse(hashTable.containsKey("0_key"));
+        assertFalse(keys.remove("0_key"));
+        assertEquals(10, hashTable.getSize());
+        assertEquals(10, keys.size());
+        copy.remove("0_key");
+        assertEquals(copy, keys);
+        sets.HashedSet<String> other = new sets.HashedSet<>();
+        other.addAll("new_key", "absent");
+        assertEquals(1, keys.between(other).getSize());
+        assertEquals(11, keys.union(other).getSize());
+        keys.clear();
+        assertEquals(0, hashTable.getSize());
+        assertTrue(keys.isEmpty());
+    }
+
+    @Test
+    public void keySetViewOfCollidingKeys() {
+        HashTable<String, Integer> table = new HashTable<>();
+        for (int i = 0; i < 64; i++) {
+            table.add("Aa", i);
+            table.add("BB", i);
+        }
+        assertEquals(2, table.keySet().size());
+        int count = 0;
+        for (String key : table.keySet()) count++;
+        assertEquals(2, count);
+        assertTrue(table.keySet().remove("Aa"));
+        assertEquals(64, table.getSize());
+        assertEquals(1, table.getKeyCount());
+    }
+
+    @Test
+    public void valueSetView() {
+        HashTable<String, String>.ValueSet values = hashTable.valueSet();
+        hashTable.add("nullable", null);
+        assertEquals(11, values.size());
+        assertTrue(values.contains("5_value"));
+        assertTrue(values.contains(null));
+        assertTrue(values.delete("5_value"));
+        assertFalse(hashTable.containsKey("5_key"));
+        assertFalse(values.contains("5_value"));
+        int count = 0;
+        for (String value : values) count++;
+        assertEquals(10, count);
+    }
+
+    @Test
+    public void valueSetIsDistinct() {
+        HashTable<String, String>.ValueSet values = hashTable.valueSet();
+        hashTable.add("first_copy", "5_value");
+        hashTable.add("second_copy", "5_value");
+        hashTable.add("5_key", "0_value");
+        assertEquals(10, values.size());
+        int count = 0;
+        for (String value : values) count++;
+        assertEquals(values.size(), count);
+        assertEquals(10, values.toArray().length);
+        assertEquals(10, values.stream().count());
+        assertTrue(values.remove("5_value"));
+        assertFalse(values.contains("5_value"));
+        assertFalse(hashTable.containsKey("first_copy"));
+        assertEquals(9, values.size());
+    }
+
+    @Test
+    public void forEachPair() {
+        int[] count = {0};
+        hashTable.forEach((key, value) -> {
+            assertEquals(key.replace("key", "value"), value);
+            count[0]++;
+        });
+        assertEquals(10, count[0]);
+    }
+
+    @Test
+    public void addAll() {
+        int n = 50_000;
+        String[] keys = new String[n + 2], values = new String[n + 2];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i + "_bulk";
+            values[i] = i + "_value";
+        }
+        keys[n] = "7_bulk";
+        values[n] = "7_new";
+        keys[n + 1] = "8_bulk";
+        values[n + 1] = "8_value";
+        hashTable.addAll(keys, values);
+        assertEquals(n + 11, hashTable.getSize());
+        assertEquals(n + 10, hashTable.getKeyCount());
+        assertTrue(isPowerOfTwo(hashTable.getCapacity()));
+        assertEquals("7_new", hashTable.get("7_bulk"));
+        assertEquals("7_new", hashTable.delete("7_bulk"));
+        assertEquals("7_value", hashTable.get("7_bulk"));
+        for (int i = 10; i < n; i++) assertEquals(i + "_value", hashTable.get(i + "_bulk"));
+        assertEquals("5_value", hashTable.get("5_key"));
+    }
+
+    @Test
+    public void from() {
+        java.util.List<Pair<Integer, Integer>> pairs = new java.util.ArrayList<>();
+        for (int i = 0; i < 20_000; i++) pairs.add(new Pair<>(i % 10_000, i));
+        HashTable<Integer, Integer> table = HashTable.from(pairs);
+        assertEquals(20_000, table.getSize());
+        assertEquals(10_000, table.getKeyCount());
+        for (int i = 0; i < 10_000; i++) assertEquals(Integer.valueOf(i + 10_000), table.get(i));
+        int count = 0;
+        for (HashNode<Integer, Integer> ignored : table.items) count++;
+        assertEquals(20_000, count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addAllDifferentLengths() {
+        hashTable.addAll(new String[2], new String[1]);
+    }
+
+    @Test
+    public void getAll() {
+        String[] keys = new String[40];
+        for (int i = 0; i < keys.length; i++) keys[i] = (i % 20) + "_key";
+        String[] out = new String[keys.length];
+        assertEquals(20, hashTable.getAll(keys, out));
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 20 < 10 ? (i % 20) + "_value" : null, out[i]);
+        }
+        assertEquals(0, new HashTable<String, String>().getAll(keys, out));
+        assertNull(out[0]);
+    }
+
+    @Test
+    public void streams() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        long keysSum = 0, valuesSum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            table.add(i, i);
+            keysSum += i;
+            valuesSum += i;
+            if (i % 10 == 5) {
+                table.add(i, -i);
+                valuesSum -= i;
+            }
+        }
+        assertEquals(110_000, table.stream().count());
+        assertEquals(110_000, table.parallelStream().count());
+        assertEquals(keysSum, table.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(100_000, table.keySet().parallelStream().distinct().count());
+        assertEquals(valuesSum, table.valueSet().parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(110_000, table.items.parallelStream().filter(node -> node.getKey() != null).count());
+        assertEquals(0, new HashTable<String, String>().parallelStream().count());
+    }
+
+    @Test
+    public void spliteratorSplits() {
+        java.util.Spliterator<String> spliterator = hashTable.spliterator();
+        assertEquals(10, spliterator.getExactSizeIfKnown());
+        java.util.Spliterator<String> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(-1, spliterator.getExactSizeIfKnown());
+        java.util.Set<String> keys = new java.util.HashSet<>();
+        prefix.forEachRemaining(keys::add);
+        while (spliterator.tryAdvance(keys::add)) ;
+        assertEquals(10, keys.size());
+    }
+
+    @Test
+    public void stats() {
+        HashTable<Integer, Integer> table = new HashTable<Integer, Integer>(4).setStatsEnabled(true);
+        for (int i = 0; i < 1000; i++) table.add(i, i);
+        for (int i = 0; i < 1000; i++) table.get(i);
+        for (int i = 0; i < 100; i++) table.delete(i);
+        HashTableStats stats = table.getStats();
+        assertEquals(900, stats.getSize());
+        assertEquals(table.getCapacity(), stats.getCapacity());
+        assertEquals(1000, stats.getInsertCount());
+        assertEquals(100, stats.getRemoveCount());
+        assertTrue(stats.getResizeCount() >= 8);
+        assertTrue(stats.getLookupCount() >= 2100);
+        assertTrue(stats.getAverageProbes() > 0);
+        int buckets = 0, nodes = 0;
+        int[] histogram = stats.getChainLengthHistogram();
+        for (int length = 0; length < histogram.length; length++) {
+            buckets += histogram[length];
+            nodes += length * histogram[length];
+        }
+        assertEquals(stats.getCapacity(), buckets);
+        assertEquals(900, nodes);
+        assertTrue(histogram[stats.getLongestChain()] > 0);
+        table.setStatsEnabled(false);
+        assertFalse(table.isStatsEnabled());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void statsDisabled() {
+        hashTable.getStats();
+    }
+
     private boolean isPowerOfTwo(int cap) {
         return (cap & (cap - 1)) == 0;
     }
@@ -0,0 +1,117 @@
+package HashTableTests;
+
+import additional.dynamicstring.DynamicArrayString;
+import additional.dynamicstring.DynamicLinkedString;
+import additional.dynamicstring.DynamicString;
+import hashtables.CharSlice;
+import hashtables.HashTable;
+import hashtables.HashingStrategy;
+import org.junit.Test;
+import sets.HashedSet;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class HashingStrategyTest {
+
+    @Test
+    public void charSequenceKeys() {
+        HashTable<CharSequence, Integer> table = new HashTable<>(HashingStrategy.CHAR_SEQUENCE);
+        for (int i = 0; i < 1000; i++) table.add("key_" + i, i);
+        assertEquals(1000, table.getSize());
+
+        char[] buffer = "xxkey_512yy".toCharArray();
+        CharSlice slice = new CharSlice();
+        assertEquals(Integer.valueOf(512), table.get(slice.set(buffer, 2, 7)));
+        assertEquals(Integer.valueOf(7), table.get(new StringBuilder("key_7")));
+        assertNull(table.get(slice.set(buffer, 3, 6)));
+
+        table.add(new StringBuilder("key_1"), 100);
+        assertEquals(1000, table.getKeyCount());
+        assertEquals(Integer.valueOf(100), table.get("key_1"));
+        assertEquals(Integer.valueOf(100), table.delete(slice.set("key_1".toCharArray(), 0, 5)));
+        assertEquals(Integer.valueOf(1), table.get("key_1"));
+        assertSame(HashingStrategy.CHAR_SEQUENCE, table.getHashingStrategy());
+    }
+
+    @Test
+    public void stringCompatibleHash() {
+        assertEquals("hello".hashCode(), HashingStrategy.CHAR_SEQUENCE.hash(new StringBuilder("hello")));
+        assertEquals("hello".hashCode(), HashingStrategy.CHAR_ARRAY.hash("hello".toCharArray()));
+        assertEquals("hello".hashCode(), HashingStrategy.DYNAMIC_STRING.hash(new DynamicLinkedString("hello")));
+        assertEquals("hello".hashCode(), HashingStrategy.DYNAMIC_STRING.hash(new DynamicArrayString("hello")));
+    }
+
+    @Test
+    public void charArrayKeys() {
+        HashTable<char[], String> table = new HashTable<>(HashingStrategy.CHAR_ARRAY);
+        table.add("abc".toCharArray(), "first");
+        table.add("abd".toCharArray(), "second");
+        assertEquals("first", table.get(new char[]{'a', 'b', 'c'}));
+        assertTrue(table.containsKey("abd".toCharArray()));
+        assertFalse(table.containsKey("ab".toCharArray()));
+    }
+
+    @Test
+    public void dynamicStringKeys() {
+        HashTable<DynamicString, Integer> table = new HashTable<>(HashingStrategy.DYNAMIC_STRING);
+        table.add(new DynamicArrayString("select"), 1);
+        table.add(new DynamicLinkedString("from"), 2);
+        assertEquals(Integer.valueOf(1), table.get(new DynamicLinkedString("select")));
+        assertEquals(Integer.valueOf(2), table.get(new DynamicArrayString("from")));
+        assertNull(table.get(new DynamicArrayString("where")));
+    }
+
+    @Test
+    public void dynamicArrayStringProbeAllocatesNothing() {
+        HashTable<DynamicString, Integer> table = new HashTable<>(HashingStrategy.DYNAMIC_STRING);
+        for (int i = 0; i < 100; i++) table.add(new DynamicArrayString("keyword_" + i), i);
+        DynamicArrayString probe = new DynamicArrayString("keyword_42");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long thread = Thread.currentThread().getId();
+        assertEquals(Integer.valueOf(42), table.get(probe));
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 10_000; i++) {
+            if (table.get(probe) == null) fail();
+        }
+        assertTrue(threads.getThreadAllocatedBytes(thread) - before < 10_000);
+    }
+
+    @Test
+    public void collidingKeys() {
+        HashingStrategy<Integer> byParity = new HashingStrategy<>() {
+            @Override
+            public int hash(Integer key) {
+                return key % 2;
+            }
+
+            @Override
+            public boolean equals(Integer first, Integer second) {
+                return first.intValue() == second.intValue();
+            }
+        };
+        HashTable<Integer, Integer> table = new HashTable<>(byParity);
+        for (int i = 0; i < 100; i++) table.add(i, i);
+        for (int i = 0; i < 100; i++) assertEquals(Integer.valueOf(i), table.get(i));
+        for (int i = 0; i < 100; i += 2) assertEquals(Integer.valueOf(i), table.delete(i));
+        assertEquals(50, table.getSize());
+        assertNull(table.get(0));
+    }
+
+    @Test
+    public void hashedSet() {
+        HashedSet<CharSequence> set = new HashedSet<>(HashingStrategy.CHAR_SEQUENCE);
+        assertTrue(set.add("word"));
+        assertFalse(set.add(new StringBuilder("word")));
+        assertTrue(set.contains(new CharSlice("a word".toCharArray(), 2, 4)));
+        assertEquals(1, set.getSize());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void sliceOutOfBounds() {
+        new CharSlice().set(new char[4], 2, 3);
+    }
+}
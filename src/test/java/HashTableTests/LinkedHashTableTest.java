@@ -0,0 +1,152 @@
+package HashTableTests;
+
+import additional.nodes.HashNode;
+import hashtables.LinkedHashTable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LinkedHashTableTest {
+    LinkedHashTable<String, String> hashTable;
+
+    @Before
+    public void setUp() {
+        hashTable = new LinkedHashTable<>();
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+    }
+
+    private static <K> List<K> keysOf(Iterable<K> iterable) {
+        List<K> keys = new ArrayList<>();
+        for (K key : iterable) keys.add(key);
+        return keys;
+    }
+
+    @Test
+    public void insertionOrder() {
+        for (int i = 100; i > 10; i--) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        List<String> keys = keysOf(hashTable);
+        assertEquals(100, keys.size());
+        for (int i = 0; i < 10; i++) assertEquals(i + "_key", keys.get(i));
+        for (int i = 10; i < 100; i++) assertEquals((110 - i) + "_key", keys.get(i));
+        hashTable.get("0_key");
+        assertEquals("0_key", keysOf(hashTable).get(0));
+    }
+
+    @Test
+    public void accessOrder() {
+        LinkedHashTable<Integer, Integer> table = new LinkedHashTable<>(16, true);
+        for (int i = 0; i < 5; i++) table.add(i, i);
+        table.get(0);
+        table.updateValue(2, 20);
+        table.merge(3, 1, Integer::sum);
+        assertFalse(table.containsKey(10));
+        assertEquals(Arrays.asList(1, 4, 0, 2, 3), keysOf(table));
+        assertEquals(Integer.valueOf(1), table.getEldest().getKey());
+    }
+
+    @Test
+    public void delete() {
+        hashTable.delete("0_key");
+        hashTable.deleteValue("5_key", "5_value");
+        hashTable.replace("9_key", "new_key");
+        assertEquals(Arrays.asList("1_key", "2_key", "3_key", "4_key", "6_key", "7_key", "8_key", "new_key"),
+                keysOf(hashTable));
+        int count = 0;
+        for (HashNode<String, String> node : hashTable.items) {
+            assertEquals(node.getValue(), hashTable.get(node.getKey()));
+            count++;
+        }
+        assertEquals(hashTable.getSize(), count);
+        hashTable.clear();
+        assertFalse(hashTable.iterator().hasNext());
+        assertNull(hashTable.getEldest());
+    }
+
+    @Test
+    public void lruCache() {
+        LinkedHashTable<Integer, String> cache = LinkedHashTable.lruCache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.add(i, "value");
+            cache.get(0);
+        }
+        assertEquals(100, cache.getSize());
+        assertTrue(cache.containsKey(0));
+        assertFalse(cache.containsKey(1));
+        for (int i = 901; i < 1000; i++) assertTrue(cache.containsKey(i));
+        assertEquals(Integer.valueOf(901), cache.getEldest().getKey());
+    }
+
+    @Test
+    public void customRemoveEldest() {
+        LinkedHashTable<Integer, Integer> table = new LinkedHashTable<>() {
+            @Override
+            protected boolean removeEldest(HashNode<Integer, Integer> eldest) {
+                return eldest.getValue() < 0;
+            }
+        };
+        table.add(1, -1);
+        table.add(2, 2);
+        table.add(3, -3);
+        assertEquals(Arrays.asList(2, 3), keysOf(table));
+    }
+
+    @Test
+    public void incrementalResize() {
+        LinkedHashTable<Integer, Integer> table = new LinkedHashTable<>(2, true);
+        table.setIncrementalResize(true);
+        for (int i = 0; i < 10000; i++) {
+            table.add(i, i);
+            if (i % 3 == 0) table.delete(i / 2);
+        }
+        List<Integer> keys = keysOf(table);
+        assertEquals(table.getSize(), keys.size());
+        for (Integer key : keys) assertEquals(key, table.get(key));
+        assertEquals(keys, keysOf(table));
+    }
+
+    @Test
+    public void viewsAndForEachOrder() {
+        LinkedHashTable<Integer, Integer> table = new LinkedHashTable<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1000; i > 0; i -= 7) {
+            table.add(i, i % 10);
+            expected.add(i);
+        }
+        assertEquals(expected, keysOf(table.keySet()));
+        List<Integer> streamed = new ArrayList<>();
+        table.keySet().stream().forEach(streamed::add);
+        assertEquals(expected, streamed);
+        assertEquals(expected, Arrays.asList(table.stream().toArray(Integer[]::new)));
+        List<Integer> visited = new ArrayList<>();
+        table.forEach((key, value) -> visited.add(key));
+        assertEquals(expected, visited);
+        List<Integer> values = new ArrayList<>();
+        for (Integer key : expected) {
+            if (!values.contains(key % 10)) values.add(key % 10);
+        }
+        assertEquals(values, keysOf(table.valueSet()));
+        assertEquals(values.size(), table.valueSet().size());
+    }
+
+    @Test
+    public void viewsFollowAccessOrder() {
+        LinkedHashTable<Integer, Integer> table = new LinkedHashTable<>(16, true);
+        for (int i = 0; i < 5; i++) table.add(i, i);
+        table.get(0);
+        table.get(2);
+        assertEquals(Arrays.asList(1, 3, 4, 0, 2), keysOf(table.keySet()));
+        assertEquals(Arrays.asList(1, 3, 4, 0, 2), keysOf(table.valueSet()));
+        List<Integer> visited = new ArrayList<>();
+        table.forEach((key, value) -> visited.add(key));
+        assertEquals(Arrays.asList(1, 3, 4, 0, 2), visited);
+    }
+}
@@ -0,0 +1,85 @@
+package HashTableTests;
+
+import hashtables.Codec;
+import hashtables.HashTable;
+import hashtables.MappedHashTable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class MappedHashTableTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeAndOpen() throws IOException {
+        HashTable<String, Integer> table = new HashTable<>();
+        for (int i = 0; i < 10000; i++) {
+            table.add(i + "_key", i);
+        }
+        Path file = folder.newFile().toPath();
+        MappedHashTable.write(table, file, Codec.STRING, Codec.INTEGER);
+        MappedHashTable<String, Integer> mapped = MappedHashTable.open(file, Codec.STRING, Codec.INTEGER);
+        assertEquals(10000, mapped.getSize());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i), mapped.get(i + "_key"));
+            assertTrue(mapped.containsKey(i + "_key"));
+        }
+        assertNull(mapped.get("absent"));
+        assertFalse(mapped.containsKey("absent"));
+        assertEquals(Integer.valueOf(-1), mapped.getOrDefault("absent", -1));
+    }
+
+    @Test
+    public void latestValue() throws IOException {
+        HashTable<String, String> table = new HashTable<>();
+        table.add("key", "first");
+        table.add("key", "second");
+        table.add("nullable", null);
+        Path file = folder.newFile().toPath();
+        MappedHashTable.write(table, file, Codec.STRING, Codec.STRING);
+        MappedHashTable<String, String> mapped = MappedHashTable.open(file, Codec.STRING, Codec.STRING);
+        assertEquals(3, mapped.getSize());
+        assertEquals("second", mapped.get("key"));
+        assertTrue(mapped.containsKey("nullable"));
+        assertNull(mapped.get("nullable"));
+    }
+
+    @Test
+    public void emptyTable() throws IOException {
+        Path file = folder.newFile().toPath();
+        MappedHashTable.write(new HashTable<Long, Long>(), file, Codec.LONG, Codec.LONG);
+        MappedHashTable<Long, Long> mapped = MappedHashTable.open(file, Codec.LONG, Codec.LONG);
+        assertEquals(0, mapped.getSize());
+        assertNull(mapped.get(1L));
+    }
+
+    @Test(expected = IOException.class)
+    public void notSnapshot() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[]{1, 2, 3});
+        MappedHashTable.open(file, Codec.STRING, Codec.STRING);
+    }
+
+    @Test(expected = IOException.class)
+    public void oversizedIndex() throws IOException {
+        Path file = folder.newFile().toPath();
+        ByteBuffer header = ByteBuffer.allocate(32).putInt(0x48545331).putInt(1).putInt(0).putInt(1 << 28).putLong(32);
+        Files.write(file, header.array());
+        MappedHashTable.open(file, Codec.STRING, Codec.STRING);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly() throws IOException {
+        Path file = folder.newFile().toPath();
+        MappedHashTable.write(new HashTable<String, String>(), file, Codec.STRING, Codec.STRING);
+        MappedHashTable.open(file, Codec.STRING, Codec.STRING).add("key", "value");
+    }
+}
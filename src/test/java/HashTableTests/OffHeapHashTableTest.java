@@ -0,0 +1,137 @@
+package HashTableTests;
+
+import hashtables.OffHeapHashTable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class OffHeapHashTableTest {
+    OffHeapHashTable hashTable;
+
+    @Before
+    public void setUp() {
+        hashTable = new OffHeapHashTable(16, 1 << 12);
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        hashTable.close();
+    }
+
+    @Test
+    public void add() {
+        for (int i = 0; i < 10000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        assertEquals(10000, hashTable.getSize());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + "_value", hashTable.get(i + "_key"));
+        }
+        assertTrue(hashTable.getSlabCount() > 1);
+    }
+
+    @Test
+    public void replaceValue() {
+        hashTable.add("0_key", "new_value");
+        assertEquals("new_value", hashTable.get("0_key"));
+        assertEquals(10, hashTable.getSize());
+        assertEquals(8 + "0_key".length() + "0_value".length(), hashTable.getGarbageBytes());
+    }
+
+    @Test
+    public void delete() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(hashTable.delete(i + "_key"));
+            assertFalse(hashTable.containsKey(i + "_key"));
+        }
+        assertFalse(hashTable.delete("0_key"));
+        assertNull(hashTable.get("0_key"));
+        assertEquals(0, hashTable.getSize());
+        assertEquals(0, hashTable.getLiveBytes());
+        assertEquals(1.0, hashTable.getFragmentation(), 0);
+    }
+
+    @Test
+    public void deleteKeepsOtherKeysReachable() {
+        OffHeapHashTable table = new OffHeapHashTable(4, 1 << 16);
+        for (int i = 0; i < 5000; i++) table.add(key(i), key(-i));
+        for (int i = 0; i < 5000; i += 2) assertTrue(table.delete(key(i)));
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 1, table.containsKey(key(i)));
+        }
+        table.close();
+    }
+
+    @Test
+    public void reusableBuffers() {
+        ByteBuffer key = ByteBuffer.allocateDirect(64);
+        ByteBuffer out = ByteBuffer.allocateDirect(64);
+        for (int i = 0; i < 10; i++) {
+            key.clear();
+            key.put((i + "_key").getBytes(StandardCharsets.UTF_8)).flip();
+            out.clear();
+            int length = hashTable.get(key, out);
+            assertEquals(0, key.position());
+            assertEquals(length, out.position());
+            byte[] value = new byte[length];
+            out.flip();
+            out.get(value);
+            assertEquals(i + "_value", new String(value, StandardCharsets.UTF_8));
+        }
+        key.clear();
+        key.put("absent".getBytes(StandardCharsets.UTF_8)).flip();
+        assertEquals(-1, hashTable.get(key, out));
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void smallOutBuffer() {
+        hashTable.get(ByteBuffer.wrap("0_key".getBytes(StandardCharsets.UTF_8)), ByteBuffer.allocate(2));
+    }
+
+    @Test
+    public void compact() {
+        for (int i = 0; i < 1000; i++) hashTable.add("key", "value_" + i);
+        for (int i = 0; i < 5; i++) hashTable.delete(i + "_key");
+        assertTrue(hashTable.getFragmentation() > 0.9);
+        long live = hashTable.getLiveBytes();
+        hashTable.compact();
+        assertEquals(0, hashTable.getGarbageBytes());
+        assertEquals(live, hashTable.getLiveBytes());
+        assertEquals(1, hashTable.getSlabCount());
+        assertEquals("value_999", hashTable.get("key"));
+        for (int i = 5; i < 10; i++) assertEquals(i + "_value", hashTable.get(i + "_key"));
+    }
+
+    @Test
+    public void clear() {
+        hashTable.clear();
+        assertEquals(0, hashTable.getSize());
+        assertFalse(hashTable.containsKey("1_key"));
+        hashTable.add("1_key", "value");
+        assertEquals("value", hashTable.get("1_key"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void entryLargerThanSlab() {
+        hashTable.add(new byte[1], new byte[1 << 12]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closed() {
+        hashTable.close();
+        hashTable.get("0_key");
+    }
+
+    private static byte[] key(int i) {
+        return ByteBuffer.allocate(4).putInt(i).array();
+    }
+}
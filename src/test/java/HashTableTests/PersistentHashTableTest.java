@@ -0,0 +1,118 @@
+package HashTableTests;
+
+import hashtables.HashTable;
+import hashtables.PersistentHashTable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PersistentHashTableTest {
+    PersistentHashTable<String, String> hashTable;
+
+    @Before
+    public void setUp() {
+        hashTable = new PersistentHashTable<>();
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+    }
+
+    @Test
+    public void add() {
+        for (int i = 0; i < 100_000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        assertEquals(100_000, hashTable.getSize());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i + "_value", hashTable.get(i + "_key"));
+        }
+        int count = 0;
+        for (String key : hashTable) count++;
+        assertEquals(100_000, count);
+    }
+
+    @Test
+    public void deleteAndReplace() {
+        assertEquals("0_value", hashTable.delete("0_key"));
+        assertNull(hashTable.delete("0_key"));
+        assertTrue(hashTable.deleteValue("1_key", "1_value"));
+        assertFalse(hashTable.deleteValue("2_key", "1_value"));
+        assertTrue(hashTable.replace("2_key", "new_key"));
+        assertEquals("2_value", hashTable.get("new_key"));
+        assertFalse(hashTable.containsKey("2_key"));
+        hashTable.add("nullable", null);
+        assertTrue(hashTable.containsKey("nullable"));
+        assertEquals(9, hashTable.getSize());
+        hashTable.clear();
+        assertEquals(0, hashTable.getSize());
+        assertFalse(hashTable.iterator().hasNext());
+    }
+
+    @Test
+    public void snapshot() {
+        PersistentHashTable<String, String> snapshot = hashTable.snapshot();
+        hashTable.add("0_key", "new_value");
+        hashTable.delete("1_key");
+        hashTable.add("new_key", "value");
+        assertEquals(10, snapshot.getSize());
+        assertEquals("0_value", snapshot.get("0_key"));
+        assertEquals("1_value", snapshot.get("1_key"));
+        assertFalse(snapshot.containsKey("new_key"));
+        snapshot.add("snapshot_key", "value");
+        assertFalse(hashTable.containsKey("snapshot_key"));
+        assertEquals("new_value", hashTable.get("0_key"));
+        assertEquals(10, hashTable.getSize());
+    }
+
+    @Test
+    public void snapshotsAgainstHashTable() {
+        Random random = new Random(7);
+        PersistentHashTable<Integer, Integer> table = new PersistentHashTable<>();
+        HashTable<Integer, Integer> expected = new HashTable<>();
+        PersistentHashTable<Integer, Integer> snapshot = null;
+        HashTable<Integer, Integer> expectedSnapshot = null;
+        for (int batch = 0; batch < 50; batch++) {
+            for (int i = 0; i < 2000; i++) {
+                int key = random.nextInt(5000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.delete(key), table.delete(key));
+                } else {
+                    expected.delete(key);
+                    expected.add(key, i);
+                    table.add(key, i);
+                }
+            }
+            if (snapshot != null) assertSame(expectedSnapshot, snapshot, expectedSnapshot);
+            snapshot = table.snapshot();
+            expectedSnapshot = new HashTable<>();
+            for (Integer key : expected.keySet()) expectedSnapshot.add(key, expected.get(key));
+        }
+        assertSame(expected, table, expected);
+    }
+
+    private void assertSame(HashTable<Integer, Integer> expected, PersistentHashTable<Integer, Integer> table,
+                            HashTable<Integer, Integer> keys) {
+        assertEquals(expected.getKeyCount(), table.getSize());
+        for (Integer key : keys.keySet()) assertEquals(expected.get(key), table.get(key));
+        int[] count = {0};
+        table.forEach((key, value) -> {
+            assertEquals(expected.get(key), value);
+            count[0]++;
+        });
+        assertEquals(expected.getKeyCount(), count[0]);
+    }
+
+    @Test
+    public void collidingKeys() {
+        String[] keys = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa"};
+        for (int i = 0; i < keys.length; i++) hashTable.add(keys[i], i + "");
+        PersistentHashTable<String, String> snapshot = hashTable.snapshot();
+        for (String key : keys) assertNotNull(hashTable.delete(key));
+        assertEquals(10, hashTable.getSize());
+        for (int i = 0; i < keys.length; i++) assertEquals(i + "", snapshot.get(keys[i]));
+        assertEquals(16, snapshot.getSize());
+    }
+}
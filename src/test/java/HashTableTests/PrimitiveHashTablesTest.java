@@ -0,0 +1,98 @@
+package HashTableTests;
+
+import hashtables.IntIntHashTable;
+import hashtables.IntObjectHashTable;
+import hashtables.LongLongHashTable;
+import hashtables.LongObjectHashTable;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveHashTablesTest {
+
+    @Test
+    public void intObjectHashTable() {
+        IntObjectHashTable<String> table = new IntObjectHashTable<>();
+        for (int i = -5000; i < 5000; i++) {
+            table.add(i, i + "_value");
+        }
+        assertEquals(10000, table.getSize());
+        for (int i = -5000; i < 5000; i++) {
+            assertTrue(table.containsKey(i));
+            assertEquals(i + "_value", table.get(i));
+        }
+        table.add(0, "zero");
+        assertEquals("zero", table.get(0));
+        assertEquals(10000, table.getSize());
+        assertNull(table.get(5000));
+        for (int i = -5000; i < 5000; i += 2) {
+            assertNotNull(table.delete(i));
+        }
+        assertNull(table.delete(-5000));
+        assertEquals(5000, table.getSize());
+        for (int i = -4999; i < 5000; i += 2) {
+            assertEquals(i + "_value", table.get(i));
+            assertFalse(table.containsKey(i - 1));
+        }
+        table.clear();
+        assertEquals(0, table.getSize());
+        assertFalse(table.containsKey(1));
+    }
+
+    @Test
+    public void longObjectHashTable() {
+        LongObjectHashTable<String> table = new LongObjectHashTable<>();
+        for (long i = 0; i < 10000; i++) {
+            table.add(i << 32, i + "_value");
+        }
+        assertEquals(10000, table.getSize());
+        for (long i = 0; i < 10000; i++) {
+            assertEquals(i + "_value", table.get(i << 32));
+            assertEquals(i + "_value", table.delete(i << 32));
+        }
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    public void intIntHashTable() {
+        IntIntHashTable table = new IntIntHashTable();
+        for (int i = 0; i < 10000; i++) {
+            table.add(i * 16, i);
+        }
+        assertEquals(10000, table.getSize());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, table.get(i * 16));
+        }
+        assertEquals(-1, table.getOrDefault(1, -1));
+        assertTrue(table.delete(0));
+        assertFalse(table.delete(0));
+        assertEquals(-1, table.getOrDefault(0, -1));
+        long[] sum = new long[1];
+        table.forEach((key, value) -> sum[0] += value);
+        assertEquals(10000L * 9999 / 2, sum[0]);
+    }
+
+    @Test
+    public void longLongHashTable() {
+        LongLongHashTable table = new LongLongHashTable(4);
+        for (long i = 0; i < 10000; i++) {
+            table.add(Long.MAX_VALUE - i, i);
+        }
+        for (long i = 0; i < 10000; i++) {
+            table.add(Long.MAX_VALUE - i, i * 2);
+        }
+        assertEquals(10000, table.getSize());
+        int[] count = new int[1];
+        table.forEach((key, value) -> {
+            assertEquals((Long.MAX_VALUE - key) * 2, value);
+            count[0]++;
+        });
+        assertEquals(10000, count[0]);
+        for (long i = 0; i < 10000; i += 3) {
+            assertTrue(table.delete(Long.MAX_VALUE - i));
+        }
+        for (long i = 0; i < 10000; i++) {
+            assertEquals(i % 3 != 0, table.containsKey(Long.MAX_VALUE - i));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package HashTableTests;
+
+import additional.nodes.HashNode;
+import hashtables.HashTable;
+import hashtables.RobinHoodHashTable;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RobinHoodHashTableTest {
+    RobinHoodHashTable<String, String> hashTable;
+
+    public RobinHoodHashTableTest() {
+        this.hashTable = new RobinHoodHashTable<>();
+    }
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+    }
+
+    @Test
+    public void add() {
+        for (int i = 0; i < 10; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        assertEquals(10, hashTable.getSize());
+        for (int i = 10; i < 10000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        assertEquals(10000, hashTable.getSize());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + "_value", hashTable.get(i + "_key"));
+        }
+        assertNull(hashTable.get("some_key"));
+    }
+
+    @Test
+    public void multipleValues() {
+        String[] values = {"12345", "54321", "00000", "99999", "111111"};
+        for (String value : values) {
+            hashTable.add("key", value);
+            assertEquals(value, hashTable.get("key"));
+        }
+        for (int i = 10; i < 1000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        assertEquals(values[values.length - 1], hashTable.get("key"));
+        assertEquals(1000 + values.length, hashTable.getSize());
+        for (String value : values) {
+            assertTrue(hashTable.deleteValue("key", value));
+        }
+        assertFalse(hashTable.deleteValue("key", values[0]));
+        assertFalse(hashTable.containsKey("key"));
+        assertEquals(1000, hashTable.getSize());
+    }
+
+    @Test
+    public void repeatedValueMatchesHashTable() {
+        RobinHoodHashTable<String, Integer> robinHood = new RobinHoodHashTable<>();
+        HashTable<String, Integer> chained = new HashTable<>();
+        for (int value : new int[]{1, 2, 1}) {
+            robinHood.add("key", value);
+            chained.add("key", value);
+        }
+        assertEquals(Integer.valueOf(1), chained.get("key"));
+        assertEquals(3, chained.getSize());
+        assertEquals(chained.get("key"), robinHood.get("key"));
+        assertEquals(chained.getSize(), robinHood.getSize());
+        robinHood.add("key", 1);
+        assertEquals(3, robinHood.getSize());
+    }
+
+    @Test
+    public void delete() {
+        for (int i = 0; i < 1000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + "_value", hashTable.delete(i + "_key"));
+            for (int j = i + 1; j < Math.min(i + 50, 1000); j++) {
+                assertTrue(hashTable.containsKey(j + "_key"));
+            }
+        }
+        assertNull(hashTable.delete("0_key"));
+        assertEquals(0, hashTable.getSize());
+    }
+
+    @Test
+    public void update() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + "_value", hashTable.updateValue(i + "_key", i + "000"));
+            assertEquals(i + "000", hashTable.get(i + "_key"));
+        }
+        assertNull(hashTable.updateValue("some_key", "value"));
+    }
+
+    @Test
+    public void replace() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(hashTable.replace(i + "_key", i + "_new_key"));
+            assertEquals(i + "_value", hashTable.get(i + "_new_key"));
+        }
+        assertFalse(hashTable.replace("0_key", "0_new_key"));
+        assertEquals(10, hashTable.getSize());
+    }
+
+    @Test
+    public void containsValue() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(hashTable.containsValue(i + "_value"));
+            assertEquals(i + "_key", hashTable.getKeyByValue(i + "_value"));
+        }
+        assertFalse(hashTable.containsValue("some_value"));
+        assertNull(hashTable.getKeyByValue("some_value"));
+    }
+
+    @Test
+    public void computeMethods() {
+        RobinHoodHashTable<String, Integer> counts = new RobinHoodHashTable<>();
+        for (int i = 0; i < 1000; i++) {
+            counts.merge(i % 10 + "_key", 1, Integer::sum);
+        }
+        assertEquals(10, counts.getSize());
+        assertEquals(Integer.valueOf(100), counts.get("0_key"));
+        assertEquals(Integer.valueOf(100), counts.putIfAbsent("0_key", 1));
+        assertEquals(Integer.valueOf(101), counts.computeIfPresent("0_key", (key, value) -> value + 1));
+        assertNull(counts.compute("0_key", (key, value) -> null));
+        assertEquals(Integer.valueOf(-1), counts.getOrDefault("0_key", -1));
+        assertEquals(9, counts.getSize());
+    }
+
+    @Test
+    public void clear() {
+        hashTable.clear();
+        assertEquals(0, hashTable.getSize());
+        assertFalse(hashTable.containsKey("0_key"));
+    }
+
+    @Test
+    public void forEach() {
+        for (int i = 10; i < 10000; i++) {
+            hashTable.add(i + "_key", i + "_value");
+        }
+        boolean[] found = new boolean[10000];
+        int count = 0;
+        for (String key : hashTable) {
+            found[Integer.parseInt(key.substring(0, key.indexOf('_')))] = true;
+            count++;
+        }
+        assertEquals(10000, count);
+        count = 0;
+        for (HashNode<String, String> node : hashTable.items) {
+            assertEquals(hashTable.get(node.getKey()), node.getValue());
+            count++;
+        }
+        assertEquals(10000, count);
+        for (boolean b : found) assertTrue(b);
+    }
+
+    @Test
+    public void getCapacity() {
+        for (int i = 0; i < 100; i++) {
+            hashTable.add(i + "_k", i + "_v");
+        }
+        assertEquals(256, hashTable.getCapacity());
+    }
+
+    @Test
+    public void speedTest() {
+        hashTable.clear();
+        for (int i = 0; i < 1_000_000; i++) {
+            hashTable.add(i + "_k", i + "_v");
+        }
+        assertEquals(1_000_000, hashTable.getSize());
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void compareWithHashTable() {
+        final int count = 2_000_000;
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; i++) keys[i] = i * 31;
+
+        long before = usedMemory();
+        HashTable<Integer, Integer> chained = new HashTable<>();
+        for (Integer key : keys) chained.add(key, key);
+        long chainedBytes = usedMemory() - before;
+        long chainedTime = lookupTime(chained, keys);
+
+        chained = null;
+        before = usedMemory();
+        RobinHoodHashTable<Integer, Integer> robinHood = new RobinHoodHashTable<>();
+        for (Integer key : keys) robinHood.add(key, key);
+        long robinHoodBytes = usedMemory() - before;
+        long robinHoodTime = lookupTime(robinHood, keys);
+
+        System.out.printf("HashTable:          %d bytes/entry, %d ns/get%n", chainedBytes / count, chainedTime / count);
+        System.out.printf("RobinHoodHashTable: %d bytes/entry, %d ns/get%n", robinHoodBytes / count, robinHoodTime / count);
+        assertEquals(count, robinHood.getSize());
+    }
+
+    private long lookupTime(hashtables.Map<Integer, Integer> map, Integer[] keys) {
+        long start = System.nanoTime();
+        for (int round = 0; round < 3; round++) {
+            for (Integer key : keys) {
+                if (map.get(key) == null) fail();
+            }
+        }
+        return (System.nanoTime() - start) / 3;
+    }
+
+    private long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,89 @@
+package HashTableTests;
+
+import hashtables.LinkedHashTable;
+import hashtables.TinyLfuCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TinyLfuCacheTest {
+    TinyLfuCache<String, String> cache;
+
+    @Before
+    public void setUp() {
+        cache = new TinyLfuCache<>(100);
+        for (int i = 0; i < 10; i++) {
+            cache.add(i + "_key", i + "_value");
+        }
+    }
+
+    @Test
+    public void addAndGet() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + "_value", cache.get(i + "_key"));
+        }
+        assertNull(cache.get("absent"));
+        cache.add("0_key", "new_value");
+        assertEquals("new_value", cache.get("0_key"));
+        assertEquals(10, cache.getSize());
+        assertEquals(11, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void deleteAndReplace() {
+        assertEquals("0_value", cache.delete("0_key"));
+        assertNull(cache.delete("0_key"));
+        assertTrue(cache.deleteValue("1_key", "1_value"));
+        assertTrue(cache.replace("2_key", "new_key"));
+        assertEquals("2_value", cache.get("new_key"));
+        assertFalse(cache.containsKey("2_key"));
+        assertEquals(8, cache.getSize());
+        cache.clear();
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void boundedSize() {
+        for (int i = 0; i < 10_000; i++) {
+            cache.add(i + "", "value");
+            assertTrue(cache.getSize() <= 100);
+        }
+        assertEquals(100, cache.getSize());
+        assertEquals(9910, cache.getEvictionCount());
+    }
+
+    @Test
+    public void frequentKeysSurviveScan() {
+        TinyLfuCache<Integer, Integer> tinyLfu = new TinyLfuCache<>(1000);
+        LinkedHashTable<Integer, Integer> lru = LinkedHashTable.lruCache(1000);
+        int tinyLfuHits = 0, lruHits = 0;
+        for (int round = 0; round < 200; round++) {
+            for (int hot = 0; hot < 500; hot++) {
+                if (tinyLfu.get(hot) != null) tinyLfuHits++;
+                else tinyLfu.add(hot, hot);
+                if (lru.get(hot) != null) lruHits++;
+                else lru.add(hot, hot);
+            }
+            for (int i = 0; i < 2000; i++) {
+                int scanned = -(round * 2000 + i) - 1;
+                if (tinyLfu.get(scanned) == null) tinyLfu.add(scanned, scanned);
+                if (lru.get(scanned) == null) lru.add(scanned, scanned);
+            }
+        }
+        assertTrue(tinyLfuHits > 200 * 500 * 0.9);
+        assertTrue(tinyLfuHits > lruHits * 10);
+        assertTrue(tinyLfu.getAgingCount() > 0);
+    }
+
+    @Test
+    public void aging() {
+        TinyLfuCache<Integer, Integer> tinyLfu = new TinyLfuCache<>(10);
+        for (int i = 0; i < 20; i++) tinyLfu.get(1);
+        assertEquals(16, tinyLfu.frequency(1));
+        for (int i = 0; i < 100; i++) tinyLfu.get(1000 + i);
+        assertEquals(1, tinyLfu.getAgingCount());
+        assertTrue(tinyLfu.frequency(1) <= 8);
+    }
+}
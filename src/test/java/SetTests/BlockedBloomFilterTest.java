@@ -0,0 +1,87 @@
+package SetTests;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import sets.BlockedBloomFilter;
+import sets.BloomFilter;
+import sets.Funnel;
+
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class BlockedBloomFilterTest {
+
+    @Test
+    public void falsePositiveProbability() {
+        BlockedBloomFilter<Long> filter = BlockedBloomFilter.builder(Funnel.LONG)
+                .expectedInsertions(200_000)
+                .falsePositiveProbability(0.01)
+                .build();
+        assertEquals(8, filter.getHashCount());
+        for (long i = 0; i < 200_000; i++) filter.add(i * 31);
+        for (long i = 0; i < 200_000; i++) assertTrue(filter.contains(i * 31));
+        int falsePositives = 0;
+        for (long i = 0; i < 200_000; i++) {
+            if (filter.contains(-i - 1)) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_600);
+    }
+
+    @Test
+    public void addAndClear() {
+        BlockedBloomFilter<CharSequence> filter = BlockedBloomFilter.builder(Funnel.CHAR_SEQUENCE)
+                .expectedInsertions(10)
+                .build();
+        assertTrue(filter.add("element"));
+        assertFalse(filter.add("element"));
+        assertTrue(filter.contains(new StringBuilder("elem").append("ent")));
+        assertEquals(1, filter.getSize());
+        filter.clear();
+        assertFalse(filter.contains("element"));
+        assertFalse(filter.contains(null));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void buildWithoutInsertions() {
+        BlockedBloomFilter.builder(Funnel.LONG).build();
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void compareWithBloomFilter() {
+        final int count = 200_000_000, probes = 4_000_000;
+        Long[] negatives = new Long[probes];
+        Random random = new Random(42);
+        for (int i = 0; i < probes; i++) negatives[i] = -1 - (random.nextLong() & Long.MAX_VALUE);
+        BloomFilter<Long> classic = BloomFilter.builder(Funnel.LONG).expectedInsertions(count).build();
+        BlockedBloomFilter<Long> blocked = BlockedBloomFilter.builder(Funnel.LONG).expectedInsertions(count).build();
+        for (long i = 0; i < count; i++) {
+            classic.add(i);
+            blocked.add(i);
+        }
+        long classicTime = lookupTime(classic::contains, negatives);
+        long blockedTime = lookupTime(blocked::contains, negatives);
+        System.out.printf("BloomFilter:        %d MB, %.1f ns/miss%n", classic.getBitCount() >>> 23, (double) classicTime / probes);
+        System.out.printf("BlockedBloomFilter: %d MB, %.1f ns/miss%n", blocked.getBitCount() >>> 23, (double) blockedTime / probes);
+        assertTrue(blockedTime < classicTime);
+    }
+
+    /**
+     * Returns the best time of five rounds after the warm-up one, checks the results so the lookups aren't eliminated
+     */
+    private long lookupTime(Predicate<Long> contains, Long[] negatives) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round <= 5; round++) {
+            int falsePositives = 0;
+            long start = System.nanoTime();
+            for (Long negative : negatives) {
+                if (contains.test(negative)) falsePositives++;
+            }
+            if (round > 0) best = Math.min(best, System.nanoTime() - start);
+            assertTrue(falsePositives < negatives.length / 50);
+        }
+        return best;
+    }
+}
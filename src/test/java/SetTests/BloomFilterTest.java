@@ -0,0 +1,75 @@
+package SetTests;
+
+import org.junit.Test;
+import sets.BloomFilter;
+import sets.Funnel;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void sizedByBuilder() {
+        BloomFilter<Long> filter = BloomFilter.builder(Funnel.LONG)
+                .expectedInsertions(100_000)
+                .falsePositiveProbability(0.01)
+                .build();
+        assertEquals(7, filter.getHashCount());
+        assertTrue(filter.getBitCount() >= 958_505);
+        for (long i = 0; i < 100_000; i++) filter.add(i * 31);
+        for (long i = 0; i < 100_000; i++) assertTrue(filter.contains(i * 31));
+        int falsePositives = 0;
+        for (long i = 0; i < 100_000; i++) {
+            if (filter.contains(-i - 1)) falsePositives++;
+        }
+        assertTrue(falsePositives < 1_500);
+        assertEquals(0.01, filter.getExpectedFalsePositiveProbability(), 0.003);
+    }
+
+    @Test
+    public void funnels() {
+        BloomFilter<byte[]> bytes = BloomFilter.builder(Funnel.BYTE_ARRAY).expectedInsertions(1_000).build();
+        BloomFilter<CharSequence> strings = BloomFilter.builder(Funnel.CHAR_SEQUENCE).expectedInsertions(1_000).build();
+        Funnel<long[]> pair = (value, sink) -> sink.putLong(value[0]).putLong(value[1]);
+        BloomFilter<long[]> pairs = BloomFilter.builder(pair).expectedInsertions(1_000).build();
+        for (int i = 0; i < 1_000; i++) {
+            bytes.add(("key" + i).getBytes(StandardCharsets.UTF_8));
+            strings.add("key" + i);
+            pairs.add(new long[]{i, -i});
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(bytes.contains(("key" + i).getBytes(StandardCharsets.UTF_8)));
+            assertTrue(strings.contains(new StringBuilder("key").append(i)));
+            assertTrue(pairs.contains(new long[]{i, -i}));
+            if (pairs.contains(new long[]{-i, i + 1})) falsePositives++;
+        }
+        assertTrue(falsePositives < 50);
+        assertFalse(strings.contains(null));
+    }
+
+    @Test
+    public void singleHashFilter() {
+        BloomFilter<String> filter = new BloomFilter<>(16);
+        assertEquals(1, filter.getHashCount());
+        assertTrue(filter.add("element"));
+        assertFalse(filter.add("element"));
+        assertTrue(filter.contains("element"));
+        assertTrue(filter.containsHash("element".hashCode()));
+        filter.clear();
+        assertFalse(filter.contains("element"));
+        assertEquals(0, filter.getSize());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void buildWithoutInsertions() {
+        BloomFilter.builder(Funnel.LONG).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidProbability() {
+        BloomFilter.builder(Funnel.LONG).falsePositiveProbability(1);
+    }
+}
@@ -0,0 +1,151 @@
+package SetTests;
+
+import additional.exceptions.IndexOutOfCollectionBoundsException;
+import additional.exceptions.NullableArgumentException;
+import org.junit.Test;
+import sets.HashedSet;
+import sets.RoaringBitmapSet;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class RoaringBitmapSetTest {
+
+    private static RoaringBitmapSet range(int from, int to) {
+        RoaringBitmapSet result = new RoaringBitmapSet();
+        for (int i = from; i < to; i++) result.add(i);
+        return result;
+    }
+
+    @Test
+    public void randomOperations() {
+        RoaringBitmapSet set = new RoaringBitmapSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int element = random.nextInt(3) == 0 ? random.nextInt() : random.nextInt(20_000) - 10_000;
+            if (random.nextInt(4) == 0) assertEquals(expected.remove(element), set.delete(element));
+            else assertEquals(expected.add(element), set.add(element));
+        }
+        assertEquals(expected.size(), set.getSize());
+        assertEquals(expected.first(), set.getMin());
+        assertEquals(expected.last(), set.getMax());
+        int pos = 0;
+        for (Integer element : set) {
+            assertEquals(expected.pollFirst(), element);
+            assertEquals(element, set.get(pos));
+            assertEquals(pos + 1, set.rank(element));
+            pos++;
+        }
+        assertTrue(expected.isEmpty());
+        assertFalse(set.contains((Integer) null));
+    }
+
+    @Test
+    public void containersChange() {
+        RoaringBitmapSet set = range(0, 10_000);
+        assertEquals(10_000, set.getSize());
+        for (int i = 0; i < 10_000; i += 2) assertTrue(set.delete(i));
+        assertEquals(5_000, set.getSize());
+        for (int i = 0; i < 10_000; i += 4) assertTrue(set.delete(i + 1));
+        assertEquals(2_500, set.getSize());
+        assertEquals(Integer.valueOf(3), set.getMin());
+        assertEquals(Integer.valueOf(9_999), set.getMax());
+        assertEquals(7, set.select(1));
+        assertEquals(1, set.rank(4));
+    }
+
+    @Test
+    public void addRangeAndRunOptimize() {
+        RoaringBitmapSet set = new RoaringBitmapSet();
+        set.addRange(-100_000, 1_000_000);
+        set.add(5_000_000);
+        assertEquals(1_100_001, set.getSize());
+        assertTrue(set.contains(-100_000));
+        assertTrue(set.contains(999_999));
+        assertFalse(set.contains(1_000_000));
+        assertEquals(100_001, set.rank(0));
+        RoaringBitmapSet dense = range(0, 200_000);
+        long before = dense.getSizeInBytes();
+        dense.runOptimize();
+        assertTrue(dense.getSizeInBytes() * 10 < before);
+        assertTrue(dense.contains(150_000));
+        assertTrue(dense.delete(150_000));
+        assertFalse(dense.contains(150_000));
+        assertEquals(199_999, dense.getSize());
+        assertEquals(150_001, dense.select(150_000));
+    }
+
+    @Test
+    public void operations() {
+        RoaringBitmapSet first = range(0, 100_000);
+        RoaringBitmapSet second = range(50_000, 150_000);
+        second.runOptimize();
+        RoaringBitmapSet mid = first.between(second);
+        assertEquals(50_000, mid.getSize());
+        assertEquals(Integer.valueOf(50_000), mid.getMin());
+        assertEquals(50_000, first.right(second).getSize());
+        assertEquals(Integer.valueOf(49_999), first.right(second).getMax());
+        assertEquals(50_000, first.left(second).getSize());
+        assertEquals(Integer.valueOf(100_000), first.left(second).getMin());
+        assertEquals(150_000, first.union(second).getSize());
+        RoaringBitmapSet sparse = RoaringBitmapSet.of(1, 2, 3, 200_000);
+        assertEquals(3, sparse.between(first).getSize());
+        assertEquals(1, sparse.right(first).getSize());
+        assertEquals(100_001, sparse.union(first).getSize());
+        HashedSet<Integer> hashed = new HashedSet<>();
+        hashed.addAll(3, 4, 5, 6);
+        assertEquals("{4, 5, 6}", RoaringBitmapSet.of(1, 2, 3).left(hashed).toString());
+        assertEquals("{1, 2}", RoaringBitmapSet.of(1, 2, 3).right(hashed).toString());
+        assertEquals("{3}", RoaringBitmapSet.of(1, 2, 3).between(hashed).toString());
+    }
+
+    @Test
+    public void serialization() {
+        RoaringBitmapSet set = RoaringBitmapSet.of(-7, 1, 2, 3, 70_000, Integer.MAX_VALUE, Integer.MIN_VALUE);
+        set.addFrom(range(1_000_000, 1_010_000));
+        set.addRange(5_000_000, 5_300_000);
+        set.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(set.getSerializedSize());
+        set.serialize(buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+        RoaringBitmapSet.Mapped mapped = RoaringBitmapSet.map(buffer);
+        assertEquals(set.getSize(), mapped.getSize());
+        for (int element : new int[]{-7, 1, 70_000, Integer.MAX_VALUE, Integer.MIN_VALUE, 1_005_000, 5_200_000}) {
+            assertTrue(mapped.contains(element));
+        }
+        assertFalse(mapped.contains(0));
+        assertFalse(mapped.contains(5_300_000));
+        RoaringBitmapSet copy = RoaringBitmapSet.deserialize(buffer);
+        assertArrayEquals(set.toObjectArray(), copy.toObjectArray());
+        assertEquals(set.getSize(), mapped.toRoaringBitmapSet().getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mapInvalidBuffer() {
+        RoaringBitmapSet.map(ByteBuffer.allocate(16));
+    }
+
+    @Test(expected = IndexOutOfCollectionBoundsException.class)
+    public void getOutOfBounds() {
+        RoaringBitmapSet.of(1).get(1);
+    }
+
+    @Test(expected = NullableArgumentException.class)
+    public void addNull() {
+        new RoaringBitmapSet().add(null);
+    }
+
+    @Test
+    public void empty() {
+        RoaringBitmapSet set = new RoaringBitmapSet();
+        assertNull(set.getMin());
+        assertNull(set.getMax());
+        assertEquals("{}", set.toString());
+        assertFalse(set.iterator().hasNext());
+    }
+}
@@ -1,6 +1,7 @@
 package SetTests;
 
 import sets.HashedSet;
+import sets.SetView;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -190,4 +191,95 @@ public class SetTest {
         }
         assertEquals(1_000_000, testSet.getSize());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void stats() {
+        set.setStatsEnabled(true);
+        set.add("stats");
+        assertTrue(set.contains("stats"));
+        assertTrue(set.getStats().getLookupCount() >= 2);
+        assertEquals(1, set.getStats().getInsertCount());
+    }
+
+    @Test
+    public void randomOperations() {
+        HashedSet<Integer> testSet = new HashedSet<>(4);
+        java.util.Set<Integer> expected = new java.util.HashSet<>();
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int element = random.nextInt(5000);
+            if (random.nextInt(3) == 0) assertEquals(expected.remove(element), testSet.delete(element));
+            else assertEquals(expected.add(element), testSet.add(element));
+        }
+        assertEquals(expected.size(), testSet.getSize());
+        for (int i = 0; i < 5000; i++) assertEquals(expected.contains(i), testSet.contains(i));
+        int count = 0;
+        for (Integer element : testSet) {
+            assertTrue(expected.contains(element));
+            count++;
+        }
+        assertEquals(expected.size(), count);
+        assertFalse(testSet.contains(null));
+    }
+
+    private static HashedSet<Integer> range(int from, int to) {
+        HashedSet<Integer> result = new HashedSet<>();
+        for (int i = from; i < to; i++) result.add(i);
+        return result;
+    }
+
+    @Test
+    public void sizeAwareOperations() {
+        HashedSet<Integer> big = range(0, 10_000);
+        HashedSet<Integer> small = range(9_990, 10_010);
+        HashedSet<Integer> right = big.right(small);
+        assertEquals(9_990, right.getSize());
+        assertFalse(right.contains(9_995));
+        assertTrue(big.contains(9_995));
+        HashedSet<Integer> left = small.left(big);
+        assertEquals(9_990, left.getSize());
+        assertTrue(left.contains(0));
+        assertEquals(10, small.between(big).getSize());
+        assertEquals(10, big.between(small).getSize());
+        HashedSet<Integer> union = small.union(big);
+        assertEquals(10_010, union.getSize());
+        union.add(-1);
+        assertFalse(big.contains(-1));
+    }
+
+    @Test
+    public void parallelOperations() {
+        HashedSet<Integer> first = range(0, 100_000).setParallel(true);
+        HashedSet<Integer> second = range(50_000, 150_000);
+        HashedSet<Integer> mid = first.between(second);
+        assertEquals(50_000, mid.getSize());
+        for (int i = 50_000; i < 100_000; i++) assertTrue(mid.contains(i));
+        assertEquals(50_000, first.right(second).getSize());
+        assertEquals(50_000, first.left(second).getSize());
+        assertTrue(first.left(second).contains(149_999));
+    }
+
+    @Test
+    public void views() {
+        HashedSet<Integer> a = range(0, 100);
+        HashedSet<Integer> b = range(50, 150);
+        HashedSet<Integer> c = range(0, 60);
+        SetView<Integer> view = a.betweenView(b).right(c);
+        assertEquals(40, view.getSize());
+        assertTrue(view.contains(60));
+        assertFalse(view.contains(55));
+        a.add(200);
+        b.add(200);
+        assertTrue(view.contains(200));
+        assertEquals(41, view.toHashedSet().getSize());
+        assertEquals(151, a.leftView(b).union(a).getSize());
+        assertEquals(50, a.rightView(b).getSize());
+        assertEquals(151, a.unionView(b).getSize());
+        assertEquals(50, a.betweenView(b).right(range(199, 201)).getSize());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void viewIsReadOnly() {
+        set.unionView(new HashedSet<>()).add("element");
+    }
+}